@@ -8,6 +8,24 @@ java {
     targetCompatibility = JavaVersion.VERSION_1_8
 }
 
+sourceSets {
+    // classes that override the Java 8 implementations on newer runtimes, packaged as a multi-release jar
+    create("java9") {
+        java.srcDir("src/main/java9")
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+
+    // micro benchmarks of the container hot paths, run with `./gradlew jmh`
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+
+    // smoke test of the container in a GraalVM native image, run with `./gradlew nativeSmokeTest`
+    create("nativeSmoke") {
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+}
+
 group = "com.atlas"
 version = System.getenv("VERSION") ?: "1.0-SNAPSHOT"
 
@@ -23,12 +41,43 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok:1.18.32")
     testCompileOnly("org.projectlombok:lombok:1.18.32")
     testAnnotationProcessor("org.projectlombok:lombok:1.18.32")
+    // generate the injectors of the test services, so that the tests cover the generated code as well
+    testAnnotationProcessor(project(":processor"))
 
     compileOnly("org.jetbrains:annotations:24.0.1")
     testImplementation("org.jetbrains:annotations:24.0.1")
 
     implementation("com.google.guava:guava:33.0.0-jre")
     implementation("com.google.code.gson:gson:2.11.0")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+
+    "nativeSmokeAnnotationProcessor"(project(":processor"))
+}
+
+configurations["jmhImplementation"].extendsFrom(configurations.implementation.get())
+configurations["nativeSmokeImplementation"].extendsFrom(configurations.implementation.get())
+
+tasks.compileJava {
+    options.release.set(8)
+}
+
+tasks.named<JavaCompile>("compileJava9Java") {
+    options.release.set(9)
+}
+
+tasks.named<JavaCompile>("compileNativeSmokeJava") {
+    options.compilerArgs.add("-Adivine.module=native-smoke")
+}
+
+tasks.jar {
+    into("META-INF/versions/9") {
+        from(sourceSets["java9"].output)
+    }
+    manifest {
+        attributes("Multi-Release" to "true")
+    }
 }
 
 publishing {
@@ -52,4 +101,37 @@ publishing {
 
 tasks.test {
     useJUnitPlatform()
+    // run the tests against the multi-release jar, so the version specific classes are tested as well
+    classpath = files(tasks.jar) + sourceSets.test.get().output + configurations.testRuntimeClasspath.get()
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks against the multi-release jar."
+    classpath = files(tasks.jar) + sourceSets["jmh"].output + configurations["jmhRuntimeClasspath"]
+    mainClass.set("org.openjdk.jmh.Main")
+    args(project.findProperty("jmh.includes")?.toString() ?: ".*")
+}
+
+tasks.register<Exec>("nativeSmokeImage") {
+    group = "verification"
+    description = "Builds the native smoke test with the native-image tool of GRAALVM_HOME."
+    dependsOn(tasks.jar, "nativeSmokeClasses")
+    val image = layout.buildDirectory.file("native/divine-smoke")
+    doFirst {
+        val graalHome = System.getenv("GRAALVM_HOME") ?: throw GradleException("GRAALVM_HOME is not set")
+        val classpath = files(tasks.jar) + sourceSets["nativeSmoke"].output +
+            configurations["nativeSmokeRuntimeClasspath"]
+        commandLine(
+            "$graalHome/bin/native-image", "--no-fallback", "-cp", classpath.asPath,
+            "-o", image.get().asFile.path, "com.atlas.divine.nativesmoke.NativeSmoke"
+        )
+    }
+}
+
+tasks.register<Exec>("nativeSmokeTest") {
+    group = "verification"
+    description = "Runs the native smoke test, that resolves a sample container inside a native image."
+    dependsOn("nativeSmokeImage")
+    commandLine(layout.buildDirectory.file("native/divine-smoke").get().asFile.path)
 }
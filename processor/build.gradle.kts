@@ -0,0 +1,59 @@
+plugins {
+    id("java")
+    id("maven-publish")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+group = "com.atlas"
+version = System.getenv("VERSION") ?: "1.0-SNAPSHOT"
+
+base {
+    archivesName.set("di-vine-processor")
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    testImplementation(platform("org.junit:junit-bom:5.10.0"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+
+    compileOnly("org.jetbrains:annotations:24.0.1")
+    testImplementation("org.jetbrains:annotations:24.0.1")
+
+    // the processed sources are compiled against the library in the tests
+    testImplementation(project(":"))
+}
+
+tasks.compileJava {
+    options.release.set(8)
+}
+
+publishing {
+    publications {
+        create<MavenPublication>("mavenJava") {
+            artifactId = "di-vine-processor"
+            from(components["java"])
+        }
+    }
+
+    repositories {
+        maven {
+            name = "GitHubPackages"
+            url = uri("https://maven.pkg.github.com/qibergames/di-vine")
+            credentials {
+                username = System.getenv("MAVEN_USERNAME")
+                password = System.getenv("MAVEN_PASSWORD")
+            }
+        }
+    }
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
@@ -0,0 +1,346 @@
+package com.atlas.divine.processor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Represents a writer, that generates the source code of the injector of a service class.
+ * <p>
+ * The injector is generated in the package of the service, therefore it can access every member, that is not
+ * private. Private members are left out, and the container accesses them using reflection.
+ */
+final class InjectorWriter {
+    /**
+     * The name of the runtime interface, that the generated injectors implement.
+     */
+    private static final @NotNull String SERVICE_INJECTOR = "com.atlas.divine.runtime.inject.ServiceInjector";
+
+    /**
+     * The suffix of the names of the generated injectors.
+     */
+    private static final @NotNull String SUFFIX = "_DiVineInjector";
+
+    /**
+     * The environment of the annotation processor.
+     */
+    private final @NotNull ProcessingEnvironment environment;
+
+    /**
+     * The class of the service to generate the injector for.
+     */
+    private final @NotNull TypeElement type;
+
+    /**
+     * The constructor, that the container instantiates the service with, or {@code null} if it cannot be decided.
+     */
+    private final @Nullable ExecutableElement constructor;
+
+    /**
+     * Initialize the injector writer of the specified service.
+     *
+     * @param environment the environment of the annotation processor
+     * @param type the class of the service to generate the injector for
+     * @param constructor the constructor, that the container instantiates the service with
+     */
+    InjectorWriter(
+        @NotNull ProcessingEnvironment environment, @NotNull TypeElement type, @Nullable ExecutableElement constructor
+    ) {
+        this.environment = environment;
+        this.type = type;
+        this.constructor = constructor;
+    }
+
+    /**
+     * Generate the injector of the service, if the service has any members, that the generated code can access.
+     */
+    void write() {
+        if (
+            type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT) ||
+            !isAccessible(type)
+        )
+            return;
+
+        // resolve the members, that the injector can access directly
+        ExecutableElement constructor = isConstructible() ? this.constructor : null;
+
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (
+                !field.getAnnotationMirrors().isEmpty() && !field.getModifiers().contains(Modifier.PRIVATE) &&
+                !field.getModifiers().contains(Modifier.FINAL) && isAccessible(field.asType())
+            )
+                fields.add(field);
+        }
+
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            boolean lifecycle = ServiceProcessor.findAnnotation(method, ServiceProcessor.AFTER_INITIALIZED) != null ||
+                ServiceProcessor.findAnnotation(method, ServiceProcessor.BEFORE_TERMINATE) != null;
+            if (lifecycle && !method.getModifiers().contains(Modifier.PRIVATE) && method.getParameters().isEmpty())
+                methods.add(method);
+        }
+
+        if (constructor == null && fields.isEmpty() && methods.isEmpty())
+            return;
+
+        String packageName = environment.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String qualifiedName = injectorName(environment, type);
+        String simpleName = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+
+        try (Writer writer = environment.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(generate(packageName, simpleName, constructor, fields, methods));
+        } catch (IOException e) {
+            environment.getMessager().printMessage(
+                Diagnostic.Kind.ERROR, "Unable to write the injector of " + type.getQualifiedName() + ": " + e, type
+            );
+        }
+    }
+
+    /**
+     * Retrieve the qualified name of the injector of the specified service.
+     * <p>
+     * The injector is a top level class, named after the binary name of the service, therefore the qualified name
+     * is the same as the binary name of the injector.
+     *
+     * @param environment the environment of the annotation processor
+     * @param type the class of the service
+     * @return the qualified name of the injector
+     */
+    static @NotNull String injectorName(@NotNull ProcessingEnvironment environment, @NotNull TypeElement type) {
+        return environment.getElementUtils().getBinaryName(type) + SUFFIX;
+    }
+
+    /**
+     * Generate the source code of the injector.
+     *
+     * @param packageName the package of the service
+     * @param simpleName the simple name of the injector
+     * @param constructor the constructor to instantiate the service with, or {@code null} if it is not accessible
+     * @param fields the fields, that the injector can set
+     * @param methods the lifecycle methods, that the injector can invoke
+     * @return the source code of the injector
+     */
+    private @NotNull String generate(
+        @NotNull String packageName, @NotNull String simpleName, @Nullable ExecutableElement constructor,
+        @NotNull List<@NotNull VariableElement> fields, @NotNull List<@NotNull ExecutableElement> methods
+    ) {
+        String service = type.getQualifiedName().toString();
+        StringBuilder source = new StringBuilder();
+
+        if (!packageName.isEmpty())
+            source.append("package ").append(packageName).append(";\n\n");
+
+        source.append("/**\n")
+            .append(" * The injector of {@code ").append(service).append("}, generated by the di-vine annotation ")
+            .append("processor.\n")
+            .append(" */\n")
+            .append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n")
+            .append("public final class ").append(simpleName).append(" implements ").append(SERVICE_INJECTOR)
+            .append(" {\n");
+
+        // write the constructor access
+        source.append("    @Override\n")
+            .append("    public Class<?>[] constructorParameters() {\n");
+        if (constructor != null) {
+            source.append("        return new Class<?>[] {");
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            for (int i = 0; i < parameters.size(); i++)
+                source.append(i == 0 ? " " : ", ").append(typeName(parameters.get(i).asType())).append(".class");
+            source.append(parameters.isEmpty() ? "};\n" : " };\n");
+        } else
+            source.append("        return null;\n");
+        source.append("    }\n\n");
+
+        source.append("    @Override\n")
+            .append("    public Object newInstance(Object[] args) throws Throwable {\n");
+        if (constructor != null) {
+            source.append("        return new ").append(service).append("(");
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                source.append(i == 0 ? "" : ", ")
+                    .append("(").append(typeName(parameters.get(i).asType())).append(") args[").append(i).append("]");
+            }
+            source.append(");\n");
+        } else
+            source.append("        throw new UnsupportedOperationException();\n");
+        source.append("    }\n\n");
+
+        // write the field accesses
+        source.append("    @Override\n")
+            .append("    public boolean set(String field, Object instance, Object value) {\n")
+            .append("        switch (field) {\n");
+        for (VariableElement field : fields) {
+            String target = field.getModifiers().contains(Modifier.STATIC) ? service : "((" + service + ") instance)";
+            source.append("            case \"").append(field.getSimpleName()).append("\":\n")
+                .append("                ").append(target).append(".").append(field.getSimpleName())
+                .append(" = (").append(typeName(field.asType())).append(") value;\n")
+                .append("                return true;\n");
+        }
+        source.append("            default:\n")
+            .append("                return false;\n")
+            .append("        }\n")
+            .append("    }\n\n");
+
+        // write the lifecycle method accesses
+        source.append("    @Override\n")
+            .append("    public boolean invoke(String method, Object instance) throws Throwable {\n")
+            .append("        switch (method) {\n");
+        for (ExecutableElement method : methods) {
+            String target = method.getModifiers().contains(Modifier.STATIC) ? service : "((" + service + ") instance)";
+            source.append("            case \"").append(method.getSimpleName()).append("\":\n")
+                .append("                ").append(target).append(".").append(method.getSimpleName()).append("();\n")
+                .append("                return true;\n");
+        }
+        source.append("            default:\n")
+            .append("                return false;\n")
+            .append("        }\n")
+            .append("    }\n")
+            .append("}\n");
+
+        return source.toString();
+    }
+
+    /**
+     * Indicate, whether the injector can call the constructor of the service.
+     *
+     * @return {@code true} if the constructor is accessible, {@code false} otherwise
+     */
+    private boolean isConstructible() {
+        if (constructor == null || constructor.getModifiers().contains(Modifier.PRIVATE))
+            return false;
+
+        // lombok may replace the constructors after this processor has seen the class
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            String name = ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (
+                name.startsWith("lombok.") &&
+                (name.endsWith("ArgsConstructor") || name.equals("lombok.Data") || name.equals("lombok.Value"))
+            )
+                return false;
+        }
+
+        for (VariableElement parameter : constructor.getParameters()) {
+            if (!isAccessible(parameter.asType()))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Indicate, whether the specified class and its enclosing classes can be accessed from its package.
+     *
+     * @param element the class to check
+     * @return {@code true} if the class is accessible, {@code false} otherwise
+     */
+    private static boolean isAccessible(@NotNull TypeElement element) {
+        Element current = element;
+        while (current instanceof TypeElement) {
+            TypeElement type = (TypeElement) current;
+            if (type.getModifiers().contains(Modifier.PRIVATE))
+                return false;
+
+            // local classes, anonymous classes, and inner classes cannot be instantiated without their context
+            if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS)
+                return false;
+            if (
+                type.getNestingKind() == NestingKind.MEMBER && type.getKind() == ElementKind.CLASS &&
+                !type.getModifiers().contains(Modifier.STATIC)
+            )
+                return false;
+
+            current = type.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * Indicate, whether the specified type can be referenced from the package of the service.
+     *
+     * @param type the type to check
+     * @return {@code true} if the type is accessible, {@code false} otherwise
+     */
+    private boolean isAccessible(@NotNull TypeMirror type) {
+        TypeMirror erasure = environment.getTypeUtils().erasure(type);
+        switch (erasure.getKind()) {
+            case ARRAY:
+                return isAccessible(((ArrayType) erasure).getComponentType());
+            case DECLARED: {
+                TypeElement element = (TypeElement) ((DeclaredType) erasure).asElement();
+                Element current = element;
+                while (current instanceof TypeElement) {
+                    if (current.getModifiers().contains(Modifier.PRIVATE))
+                        return false;
+                    current = current.getEnclosingElement();
+                }
+
+                // non-public classes of other packages cannot be referenced
+                PackageElement pkg = environment.getElementUtils().getPackageOf(element);
+                return pkg.equals(environment.getElementUtils().getPackageOf(this.type)) || isPublic(element);
+            }
+            default:
+                return erasure.getKind().isPrimitive();
+        }
+    }
+
+    /**
+     * Indicate, whether the specified class and its enclosing classes are public.
+     *
+     * @param element the class to check
+     * @return {@code true} if the class is public, {@code false} otherwise
+     */
+    private static boolean isPublic(@NotNull TypeElement element) {
+        Element current = element;
+        while (current instanceof TypeElement) {
+            if (!current.getModifiers().contains(Modifier.PUBLIC))
+                return false;
+            current = current.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * Retrieve the source name of the erasure of the specified type.
+     * <p>
+     * The name is built from the elements, as the string representation of a type may contain type annotations.
+     *
+     * @param type the type to retrieve the name of
+     * @return the source name of the type
+     */
+    private @NotNull String typeName(@NotNull TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return typeName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED:
+                return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+            case TYPEVAR:
+                return typeName(((TypeVariable) type).getUpperBound());
+            case INTERSECTION:
+                return typeName(environment.getTypeUtils().erasure(type));
+            default:
+                // primitive types
+                return type.getKind().name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
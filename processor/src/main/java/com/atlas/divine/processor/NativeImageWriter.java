@@ -0,0 +1,134 @@
+package com.atlas.divine.processor;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Represents a writer, that generates the GraalVM native image metadata of the processed services.
+ * <p>
+ * The container instantiates the services, injects their fields and reads their descriptors using reflection,
+ * and it reads the service index as a resource, therefore a native image needs a reachability metadata for them.
+ * The metadata is written into {@code META-INF/native-image/com.atlas.divine/<module>}, where the module is
+ * specified by the {@value #MODULE_OPTION} processor option, so that the metadata of multiple processed artifacts
+ * do not overwrite each other.
+ */
+final class NativeImageWriter {
+    /**
+     * The processor option, that specifies the module directory of the generated metadata.
+     */
+    static final @NotNull String MODULE_OPTION = "divine.module";
+
+    /**
+     * The module directory of the generated metadata, if the option is not specified.
+     */
+    private static final @NotNull String DEFAULT_MODULE = "services";
+
+    /**
+     * The environment of the annotation processor.
+     */
+    private final @NotNull ProcessingEnvironment environment;
+
+    /**
+     * The registered classes, mapped to the indication, whether all their members should be registered, or only
+     * their constructors.
+     */
+    private final @NotNull Map<@NotNull String, @NotNull Boolean> classes = new TreeMap<>();
+
+    /**
+     * The resources, that should be included in the native image.
+     */
+    private final @NotNull Map<@NotNull String, @NotNull Boolean> resources = new TreeMap<>();
+
+    /**
+     * Initialize the native image metadata writer.
+     *
+     * @param environment the environment of the annotation processor
+     */
+    NativeImageWriter(@NotNull ProcessingEnvironment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Register the specified class for reflective access.
+     *
+     * @param binaryName the binary name of the class
+     * @param allMembers {@code true} to register every declared member, {@code false} to register the constructors
+     */
+    void registerClass(@NotNull String binaryName, boolean allMembers) {
+        classes.merge(binaryName, allMembers, Boolean::logicalOr);
+    }
+
+    /**
+     * Register the specified resource to be included in the native image.
+     *
+     * @param path the path of the resource
+     */
+    void registerResource(@NotNull String path) {
+        resources.put(path, true);
+    }
+
+    /**
+     * Write the reflection and resource metadata of the registered classes and resources.
+     */
+    void write() {
+        if (classes.isEmpty() && resources.isEmpty())
+            return;
+
+        String module = environment.getOptions().getOrDefault(MODULE_OPTION, DEFAULT_MODULE);
+        String directory = "META-INF/native-image/com.atlas.divine/" + module + "/";
+
+        StringBuilder reflection = new StringBuilder("[");
+        boolean first = true;
+        for (Map.Entry<String, Boolean> entry : classes.entrySet()) {
+            reflection.append(first ? "\n" : ",\n")
+                .append("  {\n")
+                .append("    \"name\": \"").append(entry.getKey()).append("\",\n");
+            if (entry.getValue()) {
+                reflection.append("    \"allDeclaredConstructors\": true,\n")
+                    .append("    \"allDeclaredFields\": true,\n")
+                    .append("    \"allDeclaredMethods\": true\n");
+            } else
+                reflection.append("    \"allDeclaredConstructors\": true\n");
+            reflection.append("  }");
+            first = false;
+        }
+        reflection.append("\n]\n");
+
+        StringBuilder resource = new StringBuilder("{\n  \"resources\": {\n    \"includes\": [");
+        first = true;
+        for (String path : resources.keySet()) {
+            resource.append(first ? "\n" : ",\n")
+                .append("      { \"pattern\": \"\\\\Q").append(path).append("\\\\E\" }");
+            first = false;
+        }
+        resource.append("\n    ]\n  }\n}\n");
+
+        write(directory + "reflect-config.json", reflection.toString());
+        write(directory + "resource-config.json", resource.toString());
+    }
+
+    /**
+     * Write the specified content into a resource of the class output.
+     *
+     * @param path the path of the resource
+     * @param content the content of the resource
+     */
+    private void write(@NotNull String path, @NotNull String content) {
+        try (
+            Writer writer = environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path).openWriter()
+        ) {
+            writer.write(content);
+        } catch (IOException e) {
+            environment.getMessager().printMessage(
+                Diagnostic.Kind.ERROR, "Unable to write the native image metadata " + path + ": " + e
+            );
+        }
+    }
+}
@@ -0,0 +1,682 @@
+package com.atlas.divine.processor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Represents an annotation processor, that validates the service descriptors at compile time, and generates
+ * an injector for each service class, that the container uses instead of reflection.
+ * <p>
+ * The processor reports the descriptor errors, that the container would only detect when the service is first
+ * requested, such as multiple constructors without {@code @ConstructWith}, injection points that do not specify
+ * the properties, that the factory of the dependency requires, and {@code permits} entries, that do not implement
+ * the service.
+ * <p>
+ * The processor also writes an index of the services into {@code META-INF/divine/services.index}, that the container
+ * reads at startup, without loading the service classes, and the GraalVM native image metadata of the services.
+ * <p>
+ * The library annotations are referenced by their names, therefore the processor does not depend on the library.
+ */
+@SupportedAnnotationTypes(ServiceProcessor.SERVICE)
+@SupportedOptions(NativeImageWriter.MODULE_OPTION)
+public final class ServiceProcessor extends AbstractProcessor {
+    /**
+     * The name of the service descriptor annotation.
+     */
+    static final @NotNull String SERVICE = "com.atlas.divine.descriptor.generic.Service";
+
+    /**
+     * The name of the dependency injection annotation.
+     */
+    static final @NotNull String INJECT = "com.atlas.divine.descriptor.generic.Inject";
+
+    /**
+     * The name of the annotation, that selects the constructor of a service.
+     */
+    static final @NotNull String CONSTRUCT_WITH = "com.atlas.divine.descriptor.generic.ConstructWith";
+
+    /**
+     * The name of the annotation of the initialization methods.
+     */
+    static final @NotNull String AFTER_INITIALIZED = "com.atlas.divine.runtime.lifecycle.AfterInitialized";
+
+    /**
+     * The name of the annotation of the termination methods.
+     */
+    static final @NotNull String BEFORE_TERMINATE = "com.atlas.divine.runtime.lifecycle.BeforeTerminate";
+
+    /**
+     * The name of the factory interface.
+     */
+    private static final @NotNull String FACTORY = "com.atlas.divine.descriptor.factory.Factory";
+
+    /**
+     * The name of the placeholder of the services without a factory.
+     */
+    private static final @NotNull String NO_FACTORY = "com.atlas.divine.descriptor.factory.NoFactory";
+
+    /**
+     * The name of the placeholder of the services and injections without an implementation.
+     */
+    private static final @NotNull String NO_IMPLEMENTATION =
+        "com.atlas.divine.descriptor.implementation.NoImplementation";
+
+    /**
+     * The name of the placeholder of the factories, that do not require properties.
+     */
+    private static final @NotNull String NO_PROPERTIES = "com.atlas.divine.descriptor.property.NoProperties";
+
+    /**
+     * The name of the property provider interface.
+     */
+    private static final @NotNull String PROPERTY_PROVIDER = "com.atlas.divine.descriptor.property.PropertyProvider";
+
+    /**
+     * The name of the placeholder of the injections without a property provider.
+     */
+    private static final @NotNull String NO_PROPERTIES_PROVIDER =
+        "com.atlas.divine.descriptor.property.NoPropertiesProvider";
+
+    /**
+     * The default value of the service identifier.
+     */
+    private static final @NotNull String DEFAULT_ID = "<CLASS NAME>";
+
+    /**
+     * The default value of the injection properties.
+     */
+    private static final @NotNull String NO_INJECT_PROPERTIES = "<NO PROPERTIES>";
+
+    /**
+     * The default value of the injection token.
+     */
+    private static final @NotNull String NO_TOKEN = "<NO TOKEN>";
+
+    /**
+     * The location of the generated service index.
+     */
+    private static final @NotNull String INDEX_LOCATION = "META-INF/divine/services.index";
+
+    /**
+     * The placeholder of the unspecified class columns of the service index.
+     */
+    private static final @NotNull String NONE = "-";
+
+    /**
+     * The lines of the service index, mapped by the binary names of the services.
+     */
+    private final @NotNull Map<@NotNull String, @NotNull String> index = new TreeMap<>();
+
+    /**
+     * The canonical names of the processed services, mapped by their binary names.
+     * <p>
+     * The binary name cannot be converted back by replacing each {@code $}, as the source names of the classes may
+     * contain {@code $} as well.
+     */
+    private final @NotNull Map<@NotNull String, @NotNull String> canonicalNames = new HashMap<>();
+
+    @Override
+    public @NotNull SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(@NotNull Set<? extends TypeElement> annotations, @NotNull RoundEnvironment round) {
+        if (round.processingOver()) {
+            writeMetadata(writeIndex());
+            return false;
+        }
+
+        TypeElement service = processingEnv.getElementUtils().getTypeElement(SERVICE);
+        if (service == null)
+            return false;
+
+        for (Element element : round.getElementsAnnotatedWith(service)) {
+            if (!(element instanceof TypeElement))
+                continue;
+
+            TypeElement type = (TypeElement) element;
+            AnnotationMirror descriptor = findAnnotation(type, SERVICE);
+            if (descriptor == null || !validate(type, descriptor))
+                continue;
+
+            indexService(type, descriptor);
+            new InjectorWriter(processingEnv, type, resolveConstructor(type)).write();
+        }
+
+        // do not claim the annotation, so that other processors may handle the services as well
+        return false;
+    }
+
+    /**
+     * Validate the descriptor and the injection points of the specified service.
+     *
+     * @param type the class of the service
+     * @param descriptor the service descriptor of the class
+     * @return {@code true} if the service is valid, {@code false} if an error was reported
+     */
+    private boolean validate(@NotNull TypeElement type, @NotNull AnnotationMirror descriptor) {
+        boolean valid = true;
+
+        // validate that the implementation and the permitted types implement the service
+        TypeMirror implementation = typeValue(descriptor, "implementation");
+        boolean hasImplementation = implementation != null && !isType(implementation, NO_IMPLEMENTATION);
+        if (hasImplementation && !isSubtype(implementation, type)) {
+            error(type, descriptor, "Service " + type.getQualifiedName() + " specifies implementation " +
+                implementation + ", which does not implement the service");
+            valid = false;
+        }
+
+        for (TypeMirror permit : typeValues(descriptor, "permits")) {
+            if (!isSubtype(permit, type)) {
+                error(type, descriptor, "Service " + type.getQualifiedName() + " permits " + permit +
+                    ", which does not implement the service");
+                valid = false;
+            }
+        }
+
+        // validate that the multiple services can be grouped by their identifier
+        if (Boolean.TRUE.equals(value(descriptor, "multiple")) && DEFAULT_ID.equals(value(descriptor, "id"))) {
+            error(type, descriptor, "Service " + type.getQualifiedName() + " has multiple set to true, " +
+                "but it does not have a unique identifier");
+            valid = false;
+        }
+
+        // validate that the container can decide, which constructor to instantiate the service with
+        TypeMirror factory = typeValue(descriptor, "factory");
+        boolean hasFactory = factory != null && !isType(factory, NO_FACTORY);
+        ExecutableElement constructor = null;
+        if (
+            type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT) &&
+            !hasFactory && !hasImplementation
+        ) {
+            List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+            List<ExecutableElement> annotated = new ArrayList<>();
+            for (ExecutableElement test : constructors) {
+                if (findAnnotation(test, CONSTRUCT_WITH) != null)
+                    annotated.add(test);
+            }
+
+            if (constructors.size() > 1 && annotated.isEmpty()) {
+                error(type, null, "Class " + type.getQualifiedName() + " has multiple constructors, but none of " +
+                    "them is annotated with @ConstructWith, therefore the dependency injector cannot decide, " +
+                    "which one to use");
+                valid = false;
+            } else if (annotated.size() > 1) {
+                error(annotated.get(1), null, "Class " + type.getQualifiedName() + " has multiple constructors " +
+                    "annotated with @ConstructWith");
+                valid = false;
+            } else
+                constructor = resolveConstructor(type);
+        }
+
+        // validate the injection points of the fields and the constructor parameters
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            AnnotationMirror inject = findAnnotation(field, INJECT);
+            if (inject != null)
+                valid &= validateInjection(field, field.asType(), inject);
+        }
+
+        if (constructor != null) {
+            for (VariableElement parameter : constructor.getParameters())
+                valid &= validateInjection(parameter, parameter.asType(), findAnnotation(parameter, INJECT));
+        }
+
+        return valid;
+    }
+
+    /**
+     * Validate, that the specified injection point specifies the properties, that the factory of the dependency
+     * requires.
+     *
+     * @param target the field or constructor parameter, that the dependency is injected into
+     * @param declared the declared type of the injection point
+     * @param inject the injection descriptor of the target, or {@code null} if it is not annotated
+     * @return {@code true} if the injection point is valid, {@code false} if an error was reported
+     */
+    private boolean validateInjection(
+        @NotNull Element target, @NotNull TypeMirror declared, @Nullable AnnotationMirror inject
+    ) {
+        boolean hasToken = inject != null && !NO_TOKEN.equals(value(inject, "token"));
+        boolean hasProperties = inject != null && !NO_INJECT_PROPERTIES.equals(value(inject, "properties"));
+        TypeMirror provider = inject != null ? typeValue(inject, "provider") : null;
+        boolean hasProvider = provider != null && !isType(provider, NO_PROPERTIES_PROVIDER);
+
+        if (hasToken && hasProperties) {
+            error(target, inject, "@Inject annotation cannot have a token and properties defined at the same time");
+            return false;
+        }
+        if (hasProperties && hasProvider) {
+            error(target, inject, "@Inject annotation cannot have properties and a provider defined at the same time");
+            return false;
+        }
+
+        // the dependency is resolved by its token, not by its factory
+        if (hasToken)
+            return true;
+
+        // resolve the service, that the container creates for the injection point
+        TypeMirror dependency = declared;
+        TypeMirror implementation = inject != null ? typeValue(inject, "implementation") : null;
+        if (implementation != null && !isType(implementation, NO_IMPLEMENTATION))
+            dependency = implementation;
+
+        TypeElement dependencyType = asTypeElement(dependency);
+        AnnotationMirror descriptor = dependencyType != null ? findAnnotation(dependencyType, SERVICE) : null;
+        if (descriptor == null)
+            return true;
+
+        String name = dependencyType.getQualifiedName().toString();
+        TypeMirror factory = typeValue(descriptor, "factory");
+        if (factory == null || isType(factory, NO_FACTORY)) {
+            if (hasProperties || hasProvider) {
+                error(target, inject, "Service " + name + " does not have a factory, but properties are specified");
+                return false;
+            }
+            return true;
+        }
+
+        // factories with unresolved type variables are only validated at runtime
+        TypeMirror propertiesType = findTypeArgument(factory, FACTORY, 1);
+        if (propertiesType == null || propertiesType.getKind() != TypeKind.DECLARED)
+            return true;
+
+        if (isType(propertiesType, NO_PROPERTIES)) {
+            if (hasProperties || hasProvider) {
+                error(target, inject, "Service " + name + " factory " + factory + " does not require properties, " +
+                    "but properties are specified");
+                return false;
+            }
+            return true;
+        }
+
+        if (!hasProperties && !hasProvider) {
+            error(target, inject, "Service " + name + " factory " + factory + " requires properties of type " +
+                propertiesType + ", but none are specified");
+            return false;
+        }
+
+        TypeMirror provided = hasProperties
+            ? processingEnv.getElementUtils().getTypeElement(String.class.getName()).asType()
+            : findTypeArgument(provider, PROPERTY_PROVIDER, 1);
+        if (
+            provided != null && provided.getKind() == TypeKind.DECLARED &&
+            !processingEnv.getTypeUtils().isAssignable(
+                processingEnv.getTypeUtils().erasure(provided), processingEnv.getTypeUtils().erasure(propertiesType)
+            )
+        ) {
+            error(target, inject, "Service " + name + " factory " + factory + " requires properties of type " +
+                propertiesType + ", but " + provided + " are specified");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Add the specified service to the service index.
+     *
+     * @param type the class of the service
+     * @param descriptor the service descriptor of the class
+     */
+    private void indexService(@NotNull TypeElement type, @NotNull AnnotationMirror descriptor) {
+        Object scope = value(descriptor, "scope");
+        Object id = value(descriptor, "id");
+        if (!(scope instanceof VariableElement) || !(id instanceof String))
+            return;
+
+        // the columns of the index are separated by tabs, and the services by new lines
+        if (((String) id).indexOf('\t') >= 0 || ((String) id).indexOf('\n') >= 0) {
+            processingEnv.getMessager().printMessage(
+                Diagnostic.Kind.WARNING, "Service identifier " + id + " cannot be indexed", type, descriptor
+            );
+            return;
+        }
+
+        String name = binaryName(type.asType(), null);
+        canonicalNames.put(name, type.getQualifiedName().toString());
+        index.put(name, String.join("\t",
+            name, ((VariableElement) scope).getSimpleName(), (String) id,
+            String.valueOf(Boolean.TRUE.equals(value(descriptor, "multiple"))),
+            binaryName(typeValue(descriptor, "implementation"), NO_IMPLEMENTATION),
+            binaryName(typeValue(descriptor, "factory"), NO_FACTORY)
+        ));
+    }
+
+    /**
+     * Write the service index of the processed services.
+     * <p>
+     * The services of the previous index are kept, if they were not processed in this compilation, but they are still
+     * services, such as in case of incremental compilations.
+     *
+     * @return the binary names of the indexed services
+     */
+    private @NotNull Set<@NotNull String> writeIndex() {
+        if (index.isEmpty())
+            return Collections.emptySet();
+
+        Filer filer = processingEnv.getFiler();
+        Map<String, String> lines = new TreeMap<>(index);
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(existing.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty() || line.startsWith("#"))
+                        continue;
+
+                    String name = line.split("\t", 2)[0];
+                    TypeElement type = findType(name);
+                    if (type != null && findAnnotation(type, SERVICE) != null)
+                        lines.putIfAbsent(name, line);
+                }
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            // there is no previous index
+        }
+
+        try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION).openWriter()) {
+            writer.write("# generated by the di-vine annotation processor\n");
+            for (String line : lines.values())
+                writer.write(line + "\n");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                Diagnostic.Kind.ERROR, "Unable to write the service index " + INDEX_LOCATION + ": " + e
+            );
+        }
+        return lines.keySet();
+    }
+
+    /**
+     * Write the native image metadata of the specified services, their generated injectors, and the classes, that
+     * the container instantiates for them reflectively.
+     *
+     * @param services the binary names of the services
+     */
+    private void writeMetadata(@NotNull Set<@NotNull String> services) {
+        if (services.isEmpty())
+            return;
+
+        NativeImageWriter writer = new NativeImageWriter(processingEnv);
+        writer.registerResource(INDEX_LOCATION);
+
+        for (String name : services) {
+            TypeElement type = findType(name);
+            AnnotationMirror descriptor = type != null ? findAnnotation(type, SERVICE) : null;
+            if (descriptor == null)
+                continue;
+
+            writer.registerClass(name, true);
+
+            // the generated injector is instantiated by its no-args constructor
+            TypeElement injector = processingEnv.getElementUtils().getTypeElement(InjectorWriter.injectorName(
+                processingEnv, type
+            ));
+            if (injector != null)
+                writer.registerClass(binaryName(injector.asType(), null), false);
+
+            // the implementations and factories of the service are instantiated reflectively
+            String implementation = binaryName(typeValue(descriptor, "implementation"), NO_IMPLEMENTATION);
+            if (!implementation.equals(NONE))
+                writer.registerClass(implementation, true);
+            String factory = binaryName(typeValue(descriptor, "factory"), NO_FACTORY);
+            if (!factory.equals(NONE))
+                writer.registerClass(factory, true);
+
+            // the property providers and the implementations of the injection points are instantiated as well
+            List<Element> targets = new ArrayList<>(ElementFilter.fieldsIn(type.getEnclosedElements()));
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+                targets.addAll(constructor.getParameters());
+            for (Element target : targets) {
+                AnnotationMirror inject = findAnnotation(target, INJECT);
+                if (inject == null)
+                    continue;
+
+                String provider = binaryName(typeValue(inject, "provider"), NO_PROPERTIES_PROVIDER);
+                if (!provider.equals(NONE))
+                    writer.registerClass(provider, false);
+                String injected = binaryName(typeValue(inject, "implementation"), NO_IMPLEMENTATION);
+                if (!injected.equals(NONE))
+                    writer.registerClass(injected, true);
+            }
+        }
+
+        writer.write();
+    }
+
+    /**
+     * Retrieve the binary name of the specified class.
+     *
+     * @param type the class to retrieve the name of
+     * @param placeholder the name of the placeholder class, that represents an unspecified class
+     * @return the binary name of the class, or {@link #NONE} if it is not specified
+     */
+    private @NotNull String binaryName(@Nullable TypeMirror type, @Nullable String placeholder) {
+        TypeElement element = type != null ? asTypeElement(type) : null;
+        if (element == null || (placeholder != null && element.getQualifiedName().contentEquals(placeholder)))
+            return NONE;
+        return processingEnv.getElementUtils().getBinaryName(element).toString();
+    }
+
+    /**
+     * Find the class of the specified binary name.
+     * <p>
+     * The services processed in this compilation are found by the canonical names, that were collected during the
+     * rounds. The services of a previous index are found by matching the binary names of the member classes, as
+     * a {@code $} in the binary name may either separate a member class, or be part of the source name.
+     *
+     * @param name the binary name of the class
+     * @return the class element, or {@code null} if the class does not exist
+     */
+    private @Nullable TypeElement findType(@NotNull String name) {
+        Elements elements = processingEnv.getElementUtils();
+        String canonicalName = canonicalNames.get(name);
+        if (canonicalName != null)
+            return elements.getTypeElement(canonicalName);
+
+        TypeElement type = elements.getTypeElement(name);
+        if (type != null && elements.getBinaryName(type).contentEquals(name))
+            return type;
+
+        // try each `$` as the separator of a member class, starting from the innermost one
+        for (int i = name.lastIndexOf('$'); i > 0; i = name.lastIndexOf('$', i - 1)) {
+            TypeElement outer = findType(name.substring(0, i));
+            if (outer == null)
+                continue;
+            for (TypeElement member : ElementFilter.typesIn(outer.getEnclosedElements())) {
+                if (elements.getBinaryName(member).contentEquals(name))
+                    return member;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolve the constructor, that the container instantiates the specified class with.
+     *
+     * @param type the class to resolve the constructor of
+     * @return the resolved constructor, or {@code null} if it cannot be decided
+     */
+    static @Nullable ExecutableElement resolveConstructor(@NotNull TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        if (constructors.size() == 1)
+            return constructors.get(0);
+
+        for (ExecutableElement constructor : constructors) {
+            if (findAnnotation(constructor, CONSTRUCT_WITH) != null)
+                return constructor;
+        }
+        return null;
+    }
+
+    /**
+     * Find the annotation of the specified type on the element.
+     *
+     * @param element the element to find the annotation on
+     * @param name the qualified name of the annotation type
+     * @return the annotation mirror, or {@code null} if the element is not annotated with it
+     */
+    static @Nullable AnnotationMirror findAnnotation(@NotNull Element element, @NotNull String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(name))
+                return mirror;
+        }
+        return null;
+    }
+
+    /**
+     * Find the type argument of the specified generic supertype of a type.
+     *
+     * @param type the type to search the supertypes of
+     * @param supertype the qualified name of the generic supertype
+     * @param index the index of the type argument
+     * @return the type argument, or {@code null} if the supertype is not parameterized by the type
+     */
+    private @Nullable TypeMirror findTypeArgument(@NotNull TypeMirror type, @NotNull String supertype, int index) {
+        if (type.getKind() != TypeKind.DECLARED)
+            return null;
+
+        DeclaredType declared = (DeclaredType) type;
+        if (((TypeElement) declared.asElement()).getQualifiedName().contentEquals(supertype)) {
+            List<? extends TypeMirror> arguments = declared.getTypeArguments();
+            return arguments.size() > index ? arguments.get(index) : null;
+        }
+
+        // the direct supertypes are substituted with the type arguments of the type
+        for (TypeMirror parent : processingEnv.getTypeUtils().directSupertypes(type)) {
+            TypeMirror argument = findTypeArgument(parent, supertype, index);
+            if (argument != null)
+                return argument;
+        }
+        return null;
+    }
+
+    /**
+     * Retrieve the value of the specified annotation element, including the default values.
+     *
+     * @param mirror the annotation to retrieve the value of
+     * @param name the name of the annotation element
+     * @return the value of the element, or {@code null} if the element does not exist
+     */
+    private @Nullable Object value(@NotNull AnnotationMirror mirror, @NotNull String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+            processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name))
+                return entry.getValue().getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Retrieve the class value of the specified annotation element.
+     *
+     * @param mirror the annotation to retrieve the value of
+     * @param name the name of the annotation element
+     * @return the class value of the element, or {@code null} if it is not a class
+     */
+    private @Nullable TypeMirror typeValue(@NotNull AnnotationMirror mirror, @NotNull String name) {
+        Object value = value(mirror, name);
+        return value instanceof TypeMirror ? (TypeMirror) value : null;
+    }
+
+    /**
+     * Retrieve the class array value of the specified annotation element.
+     *
+     * @param mirror the annotation to retrieve the value of
+     * @param name the name of the annotation element
+     * @return the class values of the element
+     */
+    private @NotNull List<@NotNull TypeMirror> typeValues(@NotNull AnnotationMirror mirror, @NotNull String name) {
+        List<TypeMirror> types = new ArrayList<>();
+        Object value = value(mirror, name);
+        if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                Object type = ((AnnotationValue) element).getValue();
+                if (type instanceof TypeMirror)
+                    types.add((TypeMirror) type);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Indicate, whether the specified type is the class of the specified name.
+     *
+     * @param type the type to check
+     * @param name the qualified name of the class
+     * @return {@code true} if the type is the class, {@code false} otherwise
+     */
+    private static boolean isType(@NotNull TypeMirror type, @NotNull String name) {
+        TypeElement element = asTypeElement(type);
+        return element != null && element.getQualifiedName().contentEquals(name);
+    }
+
+    /**
+     * Indicate, whether the specified type is a subtype of the service class.
+     *
+     * @param type the type to check
+     * @param service the class of the service
+     * @return {@code true} if the type implements the service, {@code false} otherwise
+     */
+    private boolean isSubtype(@NotNull TypeMirror type, @NotNull TypeElement service) {
+        return processingEnv.getTypeUtils().isSubtype(
+            processingEnv.getTypeUtils().erasure(type), processingEnv.getTypeUtils().erasure(service.asType())
+        );
+    }
+
+    /**
+     * Retrieve the class element of the specified type.
+     *
+     * @param type the type to retrieve the element of
+     * @return the class element, or {@code null} if the type is not a declared type
+     */
+    private static @Nullable TypeElement asTypeElement(@NotNull TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) type).asElement() : null;
+    }
+
+    /**
+     * Report a compilation error on the specified element.
+     *
+     * @param element the element, that the error belongs to
+     * @param annotation the annotation, that the error belongs to, or {@code null} to report it on the element
+     * @param message the message of the error
+     */
+    private void error(@NotNull Element element, @Nullable AnnotationMirror annotation, @NotNull String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element, annotation);
+    }
+}
@@ -0,0 +1,211 @@
+package com.atlas.divine.processor;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceProcessorTest {
+    @TempDir
+    Path output;
+
+    @Test
+    public void test_injector_generation() throws IOException {
+        List<String> errors = compile("test.MyService",
+            "package test;",
+            "import com.atlas.divine.descriptor.generic.Inject;",
+            "import com.atlas.divine.descriptor.generic.Service;",
+            "import com.atlas.divine.runtime.lifecycle.AfterInitialized;",
+            "@Service",
+            "public class MyService {",
+            "    @Inject java.util.List<String> values;",
+            "    @Inject private Object hidden;",
+            "    MyService(int value, String[] names) {}",
+            "    @AfterInitialized void init() {}",
+            "}"
+        );
+        assertEquals(Collections.emptyList(), errors);
+
+        String source = new String(Files.readAllBytes(output.resolve("test/MyService_DiVineInjector.java")), "UTF-8");
+        assertTrue(source.contains("return new test.MyService((int) args[0], (java.lang.String[]) args[1]);"));
+        assertTrue(source.contains("((test.MyService) instance).values = (java.util.List) value;"));
+        assertFalse(source.contains("hidden"));
+        assertTrue(source.contains("((test.MyService) instance).init();"));
+    }
+
+    @Test
+    public void test_service_index_generation() throws IOException {
+        List<String> errors = compile("test.MyService",
+            "package test;",
+            "import com.atlas.divine.descriptor.generic.Service;",
+            "import com.atlas.divine.descriptor.generic.ServiceScope;",
+            "@Service(scope = ServiceScope.TRANSIENT, id = \"handlers\", multiple = true)",
+            "public class MyService {",
+            "    @Service(implementation = Impl.class)",
+            "    public interface Api {}",
+            "    public static class Impl implements Api {}",
+            "}"
+        );
+        assertEquals(Collections.emptyList(), errors);
+
+        List<String> lines = Files.readAllLines(output.resolve("META-INF/divine/services.index"));
+        assertTrue(lines.contains("test.MyService\tTRANSIENT\thandlers\ttrue\t-\t-"));
+        assertTrue(lines.contains("test.MyService$Api\tCONTAINER\t<CLASS NAME>\tfalse\ttest.MyService$Impl\t-"));
+    }
+
+    @Test
+    public void test_native_image_metadata_generation() throws IOException {
+        List<String> errors = compile("test.MyService",
+            "package test;",
+            "import com.atlas.divine.descriptor.generic.Inject;",
+            "import com.atlas.divine.descriptor.generic.Service;",
+            "@Service",
+            "public class MyService {",
+            "    @Inject Other other;",
+            "    MyService() {}",
+            "    @Service(implementation = Impl.class)",
+            "    public interface Other {}",
+            "    public static class Impl implements Other {}",
+            "}"
+        );
+        assertEquals(Collections.emptyList(), errors);
+
+        Path directory = output.resolve("META-INF/native-image/com.atlas.divine/services");
+        String reflection = new String(Files.readAllBytes(directory.resolve("reflect-config.json")), "UTF-8");
+        assertTrue(reflection.contains("\"name\": \"test.MyService\",\n    \"allDeclaredConstructors\": true,\n" +
+            "    \"allDeclaredFields\": true"));
+        assertTrue(reflection.contains("\"name\": \"test.MyService$Impl\""));
+        assertTrue(reflection.contains("\"name\": \"test.MyService_DiVineInjector\""));
+
+        String resources = new String(Files.readAllBytes(directory.resolve("resource-config.json")), "UTF-8");
+        assertTrue(resources.contains("\\\\QMETA-INF/divine/services.index\\\\E"));
+    }
+
+    @Test
+    public void test_native_image_metadata_of_dollar_names() throws IOException {
+        List<String> errors = compile("test.My$Service",
+            "package test;",
+            "import com.atlas.divine.descriptor.generic.Service;",
+            "@Service",
+            "public class My$Service {",
+            "    @Service",
+            "    public static class Inner$Service {}",
+            "}"
+        );
+        assertEquals(Collections.emptyList(), errors);
+
+        // the source names contain `$`, therefore the binary names cannot be converted back to canonical names
+        Path directory = output.resolve("META-INF/native-image/com.atlas.divine/services");
+        String reflection = new String(Files.readAllBytes(directory.resolve("reflect-config.json")), "UTF-8");
+        assertTrue(reflection.contains("\"name\": \"test.My$Service\""));
+        assertTrue(reflection.contains("\"name\": \"test.My$Service$Inner$Service\""));
+    }
+
+    @Test
+    public void test_error_on_multiple_constructors() throws IOException {
+        List<String> errors = compile("test.MyService",
+            "package test;",
+            "@com.atlas.divine.descriptor.generic.Service",
+            "public class MyService {",
+            "    MyService() {}",
+            "    MyService(String value) {}",
+            "}"
+        );
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).contains("@ConstructWith"));
+    }
+
+    @Test
+    public void test_error_on_missing_factory_properties() throws IOException {
+        List<String> errors = compile("test.MyService",
+            "package test;",
+            "import com.atlas.divine.descriptor.factory.Factory;",
+            "import com.atlas.divine.descriptor.generic.Inject;",
+            "import com.atlas.divine.descriptor.generic.Service;",
+            "@Service",
+            "public class MyService {",
+            "    @Inject Dynamic missing;",
+            "    @Inject(properties = \"first\") Dynamic specified;",
+            "    @Service(factory = DynamicFactory.class)",
+            "    public interface Dynamic {}",
+            "    public static class DynamicFactory implements Factory<Dynamic, String> {",
+            "        public Dynamic create(Service d, Class<? extends Dynamic> t, Class<?> c, String p) {",
+            "            return new Dynamic() {};",
+            "        }",
+            "    }",
+            "}"
+        );
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).contains("requires properties of type java.lang.String, but none are specified"));
+    }
+
+    @Test
+    public void test_error_on_invalid_permits() throws IOException {
+        List<String> errors = compile("test.MyService",
+            "package test;",
+            "@com.atlas.divine.descriptor.generic.Service(permits = { MyService.Permitted.class, String.class })",
+            "public interface MyService {",
+            "    class Permitted implements MyService {}",
+            "}"
+        );
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).contains("permits java.lang.String"));
+    }
+
+    /**
+     * Compile the specified source with the service processor.
+     *
+     * @param name the qualified name of the compiled class
+     * @param lines the lines of the source code
+     * @return the messages of the reported errors
+     */
+    private @NotNull List<String> compile(@NotNull String name, @NotNull String... lines) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null);
+        files.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output.toFile()));
+        files.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(output.toFile()));
+
+        JavaFileObject source = new SimpleJavaFileObject(
+            URI.create("string:///" + name.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE
+        ) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return String.join("\n", lines);
+            }
+        };
+
+        JavaCompiler.CompilationTask task = compiler.getTask(
+            null, files, diagnostics, Arrays.asList("-classpath", System.getProperty("java.class.path")), null,
+            Collections.singletonList(source)
+        );
+        task.setProcessors(Collections.singletonList(new ServiceProcessor()));
+        task.call();
+        files.close();
+
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                errors.add(diagnostic.getMessage(null));
+        }
+        return errors;
+    }
+}
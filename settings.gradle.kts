@@ -1 +1,4 @@
 rootProject.name = "di-vine"
+
+// compile-time generator of the service injectors
+include("processor")
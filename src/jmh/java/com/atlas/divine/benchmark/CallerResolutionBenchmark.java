@@ -0,0 +1,74 @@
+package com.atlas.divine.benchmark;
+
+import com.atlas.divine.runtime.context.Contexts;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of resolving the caller class of a container call at different call stack depths.
+ * <p>
+ * The {@code stackTrace} benchmark is the previous implementation, that materializes the whole stack trace and loads
+ * the classes by name. The {@code contexts} benchmark uses {@link Contexts}, that is backed by a stack walker
+ * on Java 9 and above.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallerResolutionBenchmark {
+    /**
+     * The package prefix of the classes that are considered to be framework classes in the benchmark.
+     */
+    private static final String FRAMEWORK_PREFIX = "com.atlas.divine.runtime";
+
+    /**
+     * The number of frames to put on the call stack, before the caller class is resolved.
+     */
+    @Param({ "10", "50", "100", "200" })
+    private int depth;
+
+    @Benchmark
+    public Class<?> stackTrace() throws ClassNotFoundException {
+        return descendStackTrace(depth);
+    }
+
+    @Benchmark
+    public Class<?> contexts() {
+        return descendContexts(depth);
+    }
+
+    @Benchmark
+    public Class<?> contextsFixedDepth() throws ClassNotFoundException {
+        return descendFixedDepth(depth);
+    }
+
+    private Class<?> descendStackTrace(int remaining) throws ClassNotFoundException {
+        if (remaining > 0)
+            return descendStackTrace(remaining - 1);
+
+        for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+            String className = element.getClassName();
+            if (className.startsWith(FRAMEWORK_PREFIX) || className.equals(Thread.class.getName()))
+                continue;
+            return Class.forName(className);
+        }
+        return null;
+    }
+
+    private Class<?> descendContexts(int remaining) {
+        if (remaining > 0)
+            return descendContexts(remaining - 1);
+
+        return Contexts.findCallerClass(FRAMEWORK_PREFIX);
+    }
+
+    private Class<?> descendFixedDepth(int remaining) throws ClassNotFoundException {
+        if (remaining > 0)
+            return descendFixedDepth(remaining - 1);
+
+        return Contexts.getCallerClass();
+    }
+}
@@ -0,0 +1,114 @@
+package com.atlas.divine.benchmark;
+
+import com.atlas.divine.descriptor.generic.Inject;
+import com.atlas.divine.descriptor.generic.Service;
+import com.atlas.divine.descriptor.generic.ServiceScope;
+import com.atlas.divine.impl.DefaultContainerImpl;
+import com.atlas.divine.impl.ServiceMetadata;
+import com.atlas.divine.runtime.inject.InjectableMember;
+import com.atlas.divine.runtime.inject.InjectionBackend;
+import com.atlas.divine.runtime.lifecycle.AfterInitialized;
+import com.atlas.divine.tree.ContainerRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the member accesses of the injection backends, and the cost of creating a transient service
+ * with a constructor dependency, a field injection and an initialization method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectionBackendBenchmark {
+    /**
+     * The injection backend to measure. The benchmark sources are not processed by the annotation processor, therefore
+     * the precompiled backend measures the injectors, that are generated at runtime.
+     */
+    @Param({ "reflection", "methodHandles", "precompiled" })
+    private String backendName;
+
+    private InjectionBackend backend;
+    private ContainerRegistry container;
+
+    private InjectableMember<Constructor<TransientService>> constructor;
+    private InjectableMember<Field> field;
+    private InjectableMember<Method> method;
+
+    private Dependency dependency;
+    private TransientService service;
+
+    @Setup
+    public void setup() {
+        switch (backendName) {
+            case "methodHandles":
+                backend = InjectionBackend.methodHandles();
+                break;
+            case "precompiled":
+                backend = InjectionBackend.precompiled();
+                break;
+            default:
+                backend = InjectionBackend.reflection();
+        }
+
+        container = new DefaultContainerImpl(null);
+        container.setInjectionBackend(backend);
+
+        ServiceMetadata metadata = ServiceMetadata.of(TransientService.class);
+        constructor = metadata.constructorMember();
+        field = metadata.injectFields().get(0).member();
+        method = metadata.initializers().get(0);
+
+        dependency = container.get(Dependency.class);
+        service = container.get(TransientService.class);
+    }
+
+    @Benchmark
+    public Object newInstance() throws ReflectiveOperationException {
+        return backend.newInstance(constructor, dependency);
+    }
+
+    @Benchmark
+    public void setField() throws ReflectiveOperationException {
+        backend.set(field, service, dependency);
+    }
+
+    @Benchmark
+    public void invokeMethod() throws ReflectiveOperationException {
+        backend.invoke(method, service);
+    }
+
+    @Benchmark
+    public Object createTransient() {
+        return container.get(TransientService.class, InjectionBackendBenchmark.class);
+    }
+
+    @Service
+    public static class Dependency {
+    }
+
+    @Service(scope = ServiceScope.TRANSIENT)
+    public static class TransientService {
+        private final Dependency constructed;
+
+        @Inject
+        private Dependency injected;
+
+        private int initialized;
+
+        private TransientService(Dependency constructed) {
+            this.constructed = constructed;
+        }
+
+        @AfterInitialized
+        private void init() {
+            initialized++;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.atlas.divine.benchmark;
+
+import com.atlas.divine.descriptor.generic.Inject;
+import com.atlas.divine.descriptor.generic.Service;
+import com.atlas.divine.descriptor.generic.ServiceScope;
+import com.atlas.divine.impl.DefaultContainerImpl;
+import com.atlas.divine.tree.ContainerRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of handling a batch of requests, that each run on a new thread, and resolve a cached service and
+ * a transient service with dependencies from the container.
+ * <p>
+ * The {@code virtual} executor requires Java 21, as it creates a virtual thread for each request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VirtualThreadResolutionBenchmark {
+    /**
+     * The number of requests to handle in each batch.
+     */
+    private static final int REQUESTS = 1000;
+
+    /**
+     * The executor to run the requests on.
+     */
+    @Param({ "virtual", "platform" })
+    private String executorName;
+
+    private ExecutorService executor;
+    private ContainerRegistry container;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        if (executorName.equals("virtual"))
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        else
+            executor = Executors.newCachedThreadPool();
+
+        container = new DefaultContainerImpl(null);
+        container.get(Dependency.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int handleRequests() throws Exception {
+        List<Future<Request>> futures = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++)
+            futures.add(executor.submit(() -> container.get(Request.class, VirtualThreadResolutionBenchmark.class)));
+
+        int handled = 0;
+        for (Future<Request> future : futures)
+            handled += future.get().dependency != null ? 1 : 0;
+        return handled;
+    }
+
+    @Service
+    public static class Dependency {
+    }
+
+    @Service(scope = ServiceScope.TRANSIENT)
+    public static class Request {
+        private final Dependency dependency;
+
+        @Inject(lazy = true)
+        private Dependency lazy;
+
+        private Request(Dependency dependency) {
+            this.dependency = dependency;
+        }
+    }
+}
@@ -1,15 +1,23 @@
 package com.atlas.divine;
 
+import com.atlas.divine.descriptor.generic.Inject;
 import com.atlas.divine.descriptor.generic.Service;
 import com.atlas.divine.descriptor.generic.ServiceLike;
 import com.atlas.divine.exception.InvalidServiceException;
 import com.atlas.divine.exception.ServiceInitializationException;
 import com.atlas.divine.provider.AnnotationProvider;
 import com.atlas.divine.provider.Ref;
+import com.atlas.divine.runtime.context.ContextExecutor;
+import com.atlas.divine.runtime.context.ContextExecutorService;
+import com.atlas.divine.runtime.context.Contexts;
+import com.atlas.divine.runtime.index.ServiceIndex;
 import com.atlas.divine.tree.cache.ContainerHook;
 import com.atlas.divine.exception.UnknownDependencyException;
+import com.atlas.divine.tree.ContainerInstance;
 import com.atlas.divine.tree.ContainerProvider;
+import com.atlas.divine.tree.ContainerHandle;
 import com.atlas.divine.tree.ContainerRegistry;
+import com.atlas.divine.impl.BoundContainerInstance;
 import com.atlas.divine.impl.ClassLoaderContainerProvider;
 import com.google.gson.JsonObject;
 import lombok.Getter;
@@ -20,7 +28,13 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -88,6 +102,40 @@ public class Container {
         return getContextContainer().getContainer();
     }
 
+    /**
+     * Create a reusable handle for the container registry with the specified name or path. The path is resolved
+     * relative to the root container of the hierarchy, when the handle is first accessed.
+     * <p>
+     * Example:
+     * <pre>
+     *     private static final ContainerHandle CHUNK = Container.handle("world/nether/chunk-12");
+     * </pre>
+     *
+     * @param path the name or the path of the registry, such as {@code "world/nether/chunk-12"}
+     * @return the handle of the container registry
+     */
+    public @NotNull ContainerHandle handle(@NotNull String path) {
+        return ofGlobal().handle(path);
+    }
+
+    /**
+     * Retrieve a view of the container registry, that is associated with the specified context class.
+     * <p>
+     * The context and its container are resolved once, and each call on the returned instance is made on behalf of
+     * the context, without inspecting the call stack. Hot code paths may keep the returned instance in a field.
+     * <p>
+     * Example:
+     * <pre>
+     *     private static final ContainerInstance CONTAINER = Container.forContext(MyPlugin.class);
+     * </pre>
+     *
+     * @param context the class that the container calls will be made on behalf of
+     * @return the container instance bound to the specified context
+     */
+    public @NotNull ContainerInstance forContext(@NotNull Class<?> context) {
+        return new BoundContainerInstance(context, provider.resolveContainer(context));
+    }
+
     /**
      * Register a container instance in the container hierarchy for the specified context.
      *
@@ -161,6 +209,19 @@ public class Container {
         context.getContainer().insert(services);
     }
 
+    /**
+     * Register the services of the specified index in the container, that specify {@link Service#multiple()} =
+     * {@code true} in their descriptor.
+     * <p>
+     * The service classes are not loaded until their group is retrieved using {@link Container#getMany(String)}.
+     *
+     * @param index the service index, that was generated at compile time
+     */
+    public void insert(@NotNull ServiceIndex index) {
+        CallContext context = getContextContainer();
+        context.getContainer().insert(index);
+    }
+
     /**
      * Retrieve multiple instances from the container for the specified unique identifier.
      *
@@ -177,6 +238,35 @@ public class Container {
         return context.getContainer().getMany(id, context.getCaller());
     }
 
+    /**
+     * Instantiate the specified services and their dependencies in advance, so that later lookups hit the cache.
+     * <p>
+     * The dependency graph of the services is resolved from their constructor parameters and the fields annotated
+     * with {@link Inject}. Services, that do not depend on each other, are instantiated in parallel, level by level
+     * in topological order. Transient services are not instantiated.
+     *
+     * @param types the class types of the services to warm up
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    public void warmUp(@NotNull Class<?> @NotNull ... types) {
+        CallContext context = getContextContainer();
+        context.getContainer().warmUp(Arrays.asList(types), context.getCaller());
+    }
+
+    /**
+     * Instantiate all the services, that are registered as multiple services in the container, including the services
+     * of the inserted service indexes, and their dependencies in advance.
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    public void warmUpAll() {
+        CallContext context = getContextContainer();
+        context.getContainer().warmUpAll(context.getCaller());
+    }
+
     /**
      * Retrieve an instance from the container for the specified class type. Based on the service descriptor,
      * a dependency instance may be retrieved from the container cache, or a new instance is created.
@@ -193,6 +283,36 @@ public class Container {
         return context.getContainer().get(type, context.getCaller());
     }
 
+    /**
+     * Retrieve an instance from the container for the specified class type asynchronously. The dependency tree is
+     * resolved on the common fork-join pool, therefore the calling thread never blocks on the creation of a service.
+     * <p>
+     * Concurrent callers share the creation of the same service.
+     *
+     * @param type the class type of the dependency
+     * @return the future, that is completed with the instance of the desired dependency type
+     * @param <T> the type of the dependency
+     */
+    public @NotNull <T> CompletableFuture<@NotNull T> getAsync(@NotNull Class<T> type) {
+        return getAsync(type, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Retrieve an instance from the container for the specified class type asynchronously. The dependency tree is
+     * resolved on the specified executor, therefore the calling thread never blocks on the creation of a service.
+     * <p>
+     * Concurrent callers share the creation of the same service.
+     *
+     * @param type the class type of the dependency
+     * @param executor the executor to resolve the dependency tree on
+     * @return the future, that is completed with the instance of the desired dependency type
+     * @param <T> the type of the dependency
+     */
+    public @NotNull <T> CompletableFuture<@NotNull T> getAsync(@NotNull Class<T> type, @NotNull Executor executor) {
+        CallContext context = getContextContainer();
+        return context.getContainer().getAsync(type, context.getCaller(), executor);
+    }
+
     /**
      * Retrieve an instance from the container for the specified class type. Based on the service descriptor,
      * a dependency instance may be retrieved from the container cache, or a new instance is created.
@@ -400,6 +520,65 @@ public class Container {
         context.getContainer().reset();
     }
 
+    /**
+     * Run the specified action on behalf of the specified context.
+     * <p>
+     * The container calls made by the action, on the current thread, are resolved for the specified context, without
+     * inspecting the call stack. This is useful for framework code, that calls the container on behalf of the user
+     * code.
+     *
+     * @param context the class that the container calls will be made on behalf of
+     * @param action the action to run in the context
+     */
+    public void runWithContext(@NotNull Class<?> context, @NotNull Runnable action) {
+        Contexts.runWithContext(context, action);
+    }
+
+    /**
+     * Call the specified action on behalf of the specified context.
+     * <p>
+     * The container calls made by the action, on the current thread, are resolved for the specified context, without
+     * inspecting the call stack. This is useful for framework code, that calls the container on behalf of the user
+     * code.
+     *
+     * @param context the class that the container calls will be made on behalf of
+     * @param action the action to call in the context
+     * @return the result of the action
+     *
+     * @param <T> the type of the result
+     *
+     * @throws Exception if the action throws an exception
+     */
+    public <T> T callWithContext(@NotNull Class<?> context, @NotNull Callable<T> action) throws Exception {
+        return Contexts.callWithContext(context, action);
+    }
+
+    /**
+     * Wrap the specified executor, so that the submitted tasks are run on behalf of the submitting context.
+     * <p>
+     * The context is resolved when a task is submitted, and it is bound to the worker thread while the task runs.
+     * The wrapped executor may also be passed to the async methods of {@link java.util.concurrent.CompletableFuture}.
+     *
+     * @param executor the executor to wrap
+     * @return the context propagating executor
+     */
+    public @NotNull Executor wrap(@NotNull Executor executor) {
+        return new ContextExecutor(executor, Container::resolveContext);
+    }
+
+    /**
+     * Wrap the specified executor service, so that the submitted tasks are run on behalf of the submitting context.
+     * <p>
+     * The context is resolved when a task is submitted, and it is bound to the worker thread while the task runs.
+     * The lifecycle methods of the executor service are delegated to the wrapped instance.
+     *
+     * @param executor the executor service to wrap
+     * @return the context propagating executor service
+     */
+    public @NotNull ExecutorService wrap(@NotNull ExecutorService executor) {
+        return new ContextExecutorService(executor, Container::resolveContext);
+    }
+
     /**
      * Retrieve the json representation of the container hierarchy.
      *
@@ -417,28 +596,36 @@ public class Container {
     }
 
     /**
-     * Ensure that the container class has been implemented by the framework core.
+     * Resolve the caller class of the container method and the container registry associated with it.
+     * <p>
+     * The caller class is resolved by {@link #resolveContext()}. If it cannot be resolved, the global container is
+     * used.
      *
-     * @return the container registry implementation
-     * @throws IllegalStateException if the container class is not implemented
+     * @return the call context of the current container method call
      */
     private @NotNull CallContext getContextContainer() {
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        int skip = 0; // for now
-        for (int i = skip; i < stackTrace.length; i++) {
-            String className = stackTrace[i].getClassName();
-            if (className.startsWith("com.atlas"))
-                continue;
-            try {
-                Class<?> callerClass = Class.forName(className);
-                return new CallContext(callerClass, provider.resolveContainer(callerClass));
-            } catch (ClassNotFoundException ignored) {
-            }
-        }
+        Class<?> callerClass = resolveContext();
+        if (callerClass != null)
+            return new CallContext(callerClass, provider.resolveContainer(callerClass));
         // fallback to this class, if no caller class is found
         return new CallContext(Container.class, provider.globalContainer());
     }
 
+    /**
+     * Resolve the context class of the current container method call.
+     * <p>
+     * If a context is bound to the current thread, it is used as the caller class. Otherwise, the caller class is the
+     * first class in the call stack, that is not part of the framework.
+     *
+     * @return the context class of the current call, or {@code null} if it cannot be resolved
+     */
+    private @Nullable Class<?> resolveContext() {
+        Class<?> boundContext = Contexts.currentContext();
+        if (boundContext != null)
+            return boundContext;
+        return Contexts.findCallerClass("com.atlas");
+    }
+
     /**
      * Represents a context that is used to resolve a container instance for a specific caller class.
      */
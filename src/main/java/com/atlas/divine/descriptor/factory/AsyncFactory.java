@@ -0,0 +1,64 @@
+package com.atlas.divine.descriptor.factory;
+
+import com.atlas.divine.descriptor.generic.Service;
+import com.atlas.divine.tree.ContainerInstance;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Represents a factory that creates instances of type {@code T} asynchronously, such as services that open files,
+ * connections or caches during their construction.
+ * <p>
+ * The container keeps the future of the creation, therefore concurrent lookups share the same creation. Lookups using
+ * {@link ContainerInstance#getAsync(Class)} compose on the future without blocking any thread, while synchronous
+ * lookups wait for the future to complete.
+ *
+ * @param <TService> the type of the instances to create.
+ * @param <TProperties> the type of the properties to create the instances with.
+ */
+public interface AsyncFactory<TService, TProperties> extends Factory<TService, TProperties> {
+    /**
+     * Start creating a new instance of type {@code T}.
+     * <p>
+     * This method should <b>always</b> create a new instance of the type {@code T}, as the dependency
+     * injector will implicitly cache the instances, as specified in the {@link Service} descriptor.
+     *
+     * @param descriptor the service descriptor of the dependency
+     * @param type the type of the dependency that is passed to the dependency container
+     * @param context the caller class that the container is being called from
+     * @param properties the properties to create the instance with
+     * @return the future, that is completed with a new instance of type {@code T}
+     */
+    @NotNull CompletableFuture<@NotNull TService> createAsync(
+        @NotNull Service descriptor, @NotNull Class<? extends TService> type, @NotNull Class<?> context,
+        @Nullable TProperties properties
+    );
+
+    /**
+     * Create a new instance of type {@code T}, and wait for the asynchronous creation to complete.
+     *
+     * @param descriptor the service descriptor of the dependency
+     * @param type the type of the dependency that is passed to the dependency container
+     * @param context the caller class that the container is being called from
+     * @param properties the properties to create the instance with
+     * @return a new instance of type {@code T}.
+     */
+    @Override
+    default @NotNull TService create(
+        @NotNull Service descriptor, @NotNull Class<? extends TService> type, @NotNull Class<?> context,
+        @Nullable TProperties properties
+    ) {
+        try {
+            return createAsync(descriptor, type, context, properties).join();
+        } catch (CompletionException e) {
+            // report the original failure of the creation
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.atlas.divine.descriptor.factory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Represents an annotation that tells the container, that a {@link Factory} implementation is stateless, therefore
+ * a single instance of it may be shared for creating every service, that specifies the factory.
+ * <p>
+ * Factories without this annotation are instantiated each time a service is created with them. Factories that are
+ * annotated with {@link com.atlas.divine.descriptor.generic.Service} are resolved from the container instead, as
+ * specified by their own service descriptor.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface SharedFactory {
+}
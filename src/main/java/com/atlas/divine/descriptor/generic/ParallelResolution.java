@@ -0,0 +1,21 @@
+package com.atlas.divine.descriptor.generic;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Represents an annotation that tells the container to resolve the constructor arguments of a service concurrently.
+ * This annotation is applied to services, that depend on multiple expensive and independent services.
+ * <p>
+ * The constructor parameters, that are services, which are not cached by the container yet, are resolved on the
+ * common fork-join pool. Circular dependencies are still detected across the threads.
+ * <p>
+ * Parallel resolution can also be enabled for every service of a container using
+ * {@code ContainerRegistry#setParallelResolution(boolean)}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ParallelResolution {
+}
@@ -6,6 +6,10 @@ import org.jetbrains.annotations.NotNull;
 /**
  * Represents a provider functional interface, that is used to pass properties to the factory of a service,
  * when it is injected into a field.
+ * <p>
+ * A single instance of each provider class is shared by the container, therefore implementations should be
+ * thread-safe. Providers that always return the same properties for the same arguments may be annotated with
+ * {@link PureProvider}, to let the container reuse their results.
  *
  * @param <TService> the type of the service to provide properties for
  * @param <TProperties> the type of the properties to provide
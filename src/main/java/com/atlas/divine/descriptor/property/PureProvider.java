@@ -0,0 +1,18 @@
+package com.atlas.divine.descriptor.property;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Represents an annotation that tells the container, that a {@link PropertyProvider} implementation always provides
+ * the same properties for the same dependency type and caller context.
+ * <p>
+ * The container calls a pure provider only once for each dependency type and context pair, and reuses the provided
+ * properties afterward.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PureProvider {
+}
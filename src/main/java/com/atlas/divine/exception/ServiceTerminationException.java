@@ -0,0 +1,61 @@
+package com.atlas.divine.exception;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Represents an error that occurs, whilst terminating the services of a container.
+ * <p>
+ * The container terminates every service, even if some of the termination methods fail, and reports each failure
+ * at once. Services, whose termination methods did not complete in time, are reported with a {@link TimeoutException},
+ * and services, whose termination was never started, because the resetting thread was interrupted, are reported with
+ * a {@link CancellationException}.
+ */
+@Getter
+public class ServiceTerminationException extends ServiceRuntimeException {
+    /**
+     * The map of the services, that failed to terminate, to the error of their termination.
+     */
+    private final @NotNull Map<@NotNull Class<?>, @NotNull Throwable> failures;
+
+    /**
+     * Initialize a new instance of the {@link ServiceTerminationException} class.
+     *
+     * @param failures the map of the services, that failed to terminate, to the error of their termination
+     */
+    public ServiceTerminationException(@NotNull Map<@NotNull Class<?>, @NotNull Throwable> failures) {
+        super(summarize(failures));
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+        for (Throwable failure : failures.values())
+            addSuppressed(failure);
+    }
+
+    /**
+     * Create the summary of the services, that failed to terminate.
+     *
+     * @param failures the map of the services, that failed to terminate, to the error of their termination
+     * @return the message that describes the failures
+     */
+    private static @NotNull String summarize(@NotNull Map<@NotNull Class<?>, @NotNull Throwable> failures) {
+        StringBuilder builder = new StringBuilder("Failed to terminate ").append(failures.size()).append(" service(s):");
+        for (Map.Entry<Class<?>, Throwable> entry : failures.entrySet()) {
+            builder.append("\n - ").append(entry.getKey().getName()).append(": ");
+            Throwable failure = entry.getValue();
+            if (failure instanceof TimeoutException)
+                builder.append("timed out");
+            else if (failure instanceof CancellationException)
+                builder.append("never started");
+            else
+                builder.append("failed");
+            if (failure.getMessage() != null)
+                builder.append(" (").append(failure.getMessage()).append(')');
+        }
+        return builder.toString();
+    }
+}
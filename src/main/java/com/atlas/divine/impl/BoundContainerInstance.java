@@ -0,0 +1,519 @@
+package com.atlas.divine.impl;
+
+import com.atlas.divine.Container;
+import com.atlas.divine.descriptor.generic.Service;
+import com.atlas.divine.descriptor.generic.ServiceLike;
+import com.atlas.divine.exception.InvalidServiceException;
+import com.atlas.divine.exception.ServiceInitializationException;
+import com.atlas.divine.exception.UnknownDependencyException;
+import com.atlas.divine.provider.AnnotationProvider;
+import com.atlas.divine.provider.Ref;
+import com.atlas.divine.runtime.index.ServiceIndex;
+import com.atlas.divine.tree.ContainerInstance;
+import com.atlas.divine.tree.ContainerRegistry;
+import com.atlas.divine.tree.cache.ContainerHook;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Represents a view of a container registry, that is bound to a specific context class.
+ * <p>
+ * The context and its container are resolved once, when the view is created. Each method call without an explicit
+ * context is delegated to the context specific overload of the container, therefore the call stack is never
+ * inspected. The visibility rules of the services are still checked against the bound context.
+ *
+ * @see Container#forContext(Class)
+ */
+@RequiredArgsConstructor
+@Getter
+public class BoundContainerInstance implements ContainerInstance {
+    /**
+     * The class that the container calls are made on behalf of.
+     */
+    private final @NotNull Class<?> context;
+
+    /**
+     * The container registry that is associated with the context.
+     */
+    private final @NotNull ContainerRegistry container;
+
+    /**
+     * Register a hook that will be called when a dependency instance is being created.
+     * The hook will be called with the dependency instance as an argument and should return the modified instance.
+     *
+     * @param id the unique identifier of the hook
+     * @param hook the function that will be called when a dependency instance is being created
+     */
+    @Override
+    public void addHook(@NotNull String id, @NotNull ContainerHook hook) {
+        container.addHook(id, hook);
+    }
+
+    /**
+     * Remove a hook from the container instance.
+     *
+     * @param id the unique identifier of the hook
+     */
+    @Override
+    public void removeHook(@NotNull String id) {
+        container.removeHook(id);
+    }
+
+    /**
+     * Register a new custom annotation for the container instance with the specified implementation provider.
+     *
+     * @param annotation the custom annotation that will be registered
+     * @param provider the implementation provider that will be called when the annotation is present
+     *
+     * @throws InvalidServiceException if the annotation does not have a RUNTIME retention
+     */
+    @Override
+    public void addProvider(
+        @NotNull Class<? extends Annotation> annotation, @NotNull AnnotationProvider<?, ?> provider
+    ) {
+        container.addProvider(annotation, provider);
+    }
+
+    /**
+     * Remove a custom annotation from the container instance.
+     *
+     * @param annotation the custom annotation that will be removed
+     */
+    @Override
+    public void removeProvider(@NotNull Class<? extends Annotation> annotation) {
+        container.removeProvider(annotation);
+    }
+
+    /**
+     * Register services in the container, that specify {@link Service#multiple()} = {@code true} in their descriptor.
+     *
+     * @param services the classes of the services to register
+     *
+     * @throws InvalidServiceException if the service does not specify multiple correctly, or the service is invalid
+     */
+    @Override
+    public void insert(@NotNull @ServiceLike Class<?> @NotNull ... services) {
+        container.insert(services);
+    }
+
+    /**
+     * Register the services of the specified index in the container, that specify {@link Service#multiple()} =
+     * {@code true} in their descriptor.
+     *
+     * @param index the service index, that was generated at compile time
+     */
+    @Override
+    public void insert(@NotNull ServiceIndex index) {
+        container.insert(index);
+    }
+
+    /**
+     * Retrieve multiple instances from the container for the specified unique identifier.
+     *
+     * @param id the unique identifier, that the services are grouped by
+     * @param context the caller class that the container is being called from
+     * @return the list of instances of the desired dependency identifier
+     *
+     * @param <TServices> the base type of the services
+     *
+     * @throws InvalidServiceException if the service descriptor is invalid or the service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing the service
+     */
+    @Override
+    public <TServices> @NotNull List<@NotNull TServices> getMany(@NotNull String id, @NotNull Class<?> context) {
+        return container.getMany(id, context);
+    }
+
+    /**
+     * Retrieve multiple instances from the container for the specified unique identifier, using the bound context.
+     *
+     * @param id the unique identifier, that the services are grouped by
+     * @return the list of instances of the desired dependency identifier
+     *
+     * @param <TServices> the base type of the services
+     *
+     * @throws InvalidServiceException if the service descriptor is invalid or the service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing the service
+     */
+    @Override
+    public <TServices> @NotNull List<@NotNull TServices> getMany(@NotNull String id) {
+        return container.getMany(id, context);
+    }
+
+    /**
+     * Instantiate the specified services and their dependencies in advance, so that later lookups hit the cache.
+     *
+     * @param types the class types of the services to warm up
+     * @param context the caller class that the container is being called from
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    @Override
+    public void warmUp(@NotNull Collection<@NotNull Class<?>> types, @NotNull Class<?> context) {
+        container.warmUp(types, context);
+    }
+
+    /**
+     * Instantiate the specified services and their dependencies in advance, using the bound context.
+     *
+     * @param types the class types of the services to warm up
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    @Override
+    public void warmUp(@NotNull Class<?> @NotNull ... types) {
+        container.warmUp(Arrays.asList(types), context);
+    }
+
+    /**
+     * Instantiate all the services, that are registered as multiple services in the container, and their
+     * dependencies in advance.
+     *
+     * @param context the caller class that the container is being called from
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    @Override
+    public void warmUpAll(@NotNull Class<?> context) {
+        container.warmUpAll(context);
+    }
+
+    /**
+     * Instantiate all the services, that are registered as multiple services in the container, and their
+     * dependencies in advance, using the bound context.
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    @Override
+    public void warmUpAll() {
+        container.warmUpAll(context);
+    }
+
+    /**
+     * Retrieve an instance from the container for the specified class type, using the bound context.
+     *
+     * @param type the class type of the dependency
+     * @return the instance of the desired dependency type
+     * @param <T> the type of the dependency
+     *
+     * @throws InvalidServiceException if the service descriptor is invalid or the service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing the service
+     */
+    @Override
+    public <T> @NotNull T get(@NotNull Class<T> type) {
+        return container.get(type, context);
+    }
+
+    /**
+     * Retrieve an instance from the container for the specified class type.
+     *
+     * @param type the class type of the dependency
+     * @param context the caller class that the container is being called from
+     * @return the instance of the desired dependency type
+     * @param <T> the type of the dependency
+     *
+     * @throws InvalidServiceException if the service descriptor is invalid or the service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing the service
+     */
+    @Override
+    public <T> @NotNull T get(@NotNull Class<T> type, @NotNull Class<?> context) {
+        return container.get(type, context);
+    }
+
+    /**
+     * Retrieve an instance from the container for the specified class type asynchronously, using the bound context.
+     * The dependency tree is resolved on the common fork-join pool.
+     *
+     * @param type the class type of the dependency
+     * @return the future, that is completed with the instance of the desired dependency type
+     *
+     * @param <T> the type of the dependency
+     */
+    @Override
+    public <T> @NotNull CompletableFuture<@NotNull T> getAsync(@NotNull Class<T> type) {
+        return container.getAsync(type, context, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Retrieve an instance from the container for the specified class type asynchronously.
+     * The dependency tree is resolved on the specified executor.
+     *
+     * @param type the class type of the dependency
+     * @param context the caller class that the container is being called from
+     * @param executor the executor to resolve the dependency tree on
+     * @return the future, that is completed with the instance of the desired dependency type
+     *
+     * @param <T> the type of the dependency
+     */
+    @Override
+    public <T> @NotNull CompletableFuture<@NotNull T> getAsync(
+        @NotNull Class<T> type, @NotNull Class<?> context, @NotNull Executor executor
+    ) {
+        return container.getAsync(type, context, executor);
+    }
+
+    /**
+     * Retrieve an instance from the container for the specified class type, using the bound context.
+     *
+     * @param type the class type of the dependency
+     * @param properties the properties to create the instance with
+     * @return the instance of the desired dependency type
+     *
+     * @param <TService> the type of the dependency
+     * @param <TProperties> the type of the properties to pass to the factory
+     *
+     * @throws InvalidServiceException if the service descriptor is invalid or the service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing the service
+     */
+    @Override
+    public <TService, TProperties> @NotNull TService get(
+        @NotNull Class<TService> type, @Nullable TProperties properties
+    ) {
+        return container.get(type, context, properties);
+    }
+
+    /**
+     * Resolve the specified dependency from the container and pass it to the mapper function.
+     *
+     * @param type the class type of the dependency
+     * @param context the caller class that the container is being called from
+     * @param mapper the function to transform the dependency value with
+     *
+     * @return the transformed dependency value
+     *
+     * @param <TResult> the type of the transformed value
+     * @param <TService> the type of the dependency
+     *
+     * @throws InvalidServiceException if the service descriptor is invalid or the service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing the service
+     */
+    @Override
+    public <TResult, TService> @NotNull TResult resolve(
+        @NotNull Class<TService> type, @NotNull Class<?> context, @NotNull Function<@NotNull TService, TResult> mapper
+    ) {
+        return container.resolve(type, context, mapper);
+    }
+
+    /**
+     * Resolve the specified dependency from the container and pass it to the mapper function.
+     *
+     * @param token the token of the dependency
+     * @param mapper the function to transform the dependency value with
+     *
+     * @return the transformed dependency value
+     *
+     * @param <TResult> the type of the transformed value
+     *
+     * @throws InvalidServiceException if the service descriptor is invalid or the service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing the service
+     */
+    @Override
+    public <TDependency, TResult> @NotNull TResult resolve(
+        @NotNull String token, @NotNull Function<TDependency, TResult> mapper
+    ) {
+        return container.resolve(token, mapper);
+    }
+
+    /**
+     * Retrieve an instance from the container for the specified class type.
+     *
+     * @param type the class type of the dependency
+     * @param context the caller class that the container is being called from
+     * @param properties the properties to create the instance with
+     * @return the instance of the desired dependency type
+     *
+     * @param <TService> the type of the dependency
+     * @param <TProperties> the type of the properties to pass to the factory
+     *
+     * @throws InvalidServiceException if the service descriptor is invalid or the service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing the service
+     */
+    @Override
+    public <TService, TProperties> @NotNull TService get(
+        @NotNull Class<TService> type, @NotNull Class<?> context, @Nullable TProperties properties
+    ) {
+        return container.get(type, context, properties);
+    }
+
+    /**
+     * Create a reference to a dependency that will be lazily initialized when the reference is accessed,
+     * using the bound context.
+     *
+     * @param type the class type of the dependency
+     * @return the reference to the desired dependency type
+     *
+     * @param <TService> the type of the dependency
+     */
+    @Override
+    public <TService> @NotNull Ref<TService> getRef(@NotNull Class<TService> type) {
+        return container.getRef(type, context);
+    }
+
+    /**
+     * Create a reference to a dependency that will be lazily initialized when the reference is accessed.
+     *
+     * @param type the class type of the dependency
+     * @param context the caller class that the container is being called from
+     * @return the reference to the desired dependency type
+     *
+     * @param <TService> the type of the dependency
+     */
+    @Override
+    public <TService> @NotNull Ref<TService> getRef(@NotNull Class<TService> type, @NotNull Class<?> context) {
+        return container.getRef(type, context);
+    }
+
+    /**
+     * Register a dependency instance in the container cache for the specified class type.
+     *
+     * @param type the class type of the dependency
+     * @param implementationType the type of the implementation
+     *
+     * @return the registered instance of the dependency
+     *
+     * @param <TService> the type of the dependency
+     * @param <TImplementation> the type of the implementation
+     *
+     * @throws InvalidServiceException if the service descriptor is invalid or the service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing the service
+     */
+    @Override
+    public <TService, TImplementation extends TService> @NotNull TService implement(
+        @NotNull Class<TService> type, @NotNull Class<TImplementation> implementationType
+    ) {
+        return container.implement(type, implementationType);
+    }
+
+    /**
+     * Retrieve a global value from the container for the specified token.
+     *
+     * @param token the unique identifier of the value
+     * @return the value of the desired token
+     * @param <T> the type of the value
+     *
+     * @throws UnknownDependencyException if the value is not found, invalid, or the caller context
+     */
+    @Override
+    public <T> @NotNull T get(@NotNull String token) {
+        return container.get(token);
+    }
+
+    /**
+     * Manually update the value of the specified dependency type in the container cache, using the bound context.
+     *
+     * @param type the class type of the dependency
+     * @param dependency the new instance of the dependency
+     * @param <T> the type of the dependency
+     */
+    @Override
+    public <T> void set(@NotNull Class<T> type, @NotNull T dependency) {
+        container.set(type, dependency, context);
+    }
+
+    /**
+     * Manually update the value of the specified dependency type in the container cache.
+     *
+     * @param type the class type of the dependency
+     * @param dependency the new instance of the dependency
+     * @param context the class that the dependency was instantiated for
+     * @param <T> the type of the dependency
+     */
+    @Override
+    public <T> void set(@NotNull Class<T> type, @NotNull T dependency, Class<?> context) {
+        container.set(type, dependency, context);
+    }
+
+    /**
+     * Update the value of the specified token in the container cache.
+     *
+     * @param token the unique identifier of the value
+     * @param value the new value of the token
+     * @param <T> the type of the value
+     */
+    @Override
+    public <T> void set(@NotNull String token, @NotNull T value) {
+        container.set(token, value);
+    }
+
+    /**
+     * Check if the container has a dependency instance for the specified class type.
+     *
+     * @param type the class type of the dependency
+     * @return true if the container has the dependency, otherwise false
+     * @param <T> the type of the dependency
+     */
+    @Override
+    public <T> boolean has(@NotNull Class<T> type) {
+        return container.has(type);
+    }
+
+    /**
+     * Check if the container has a global value for the specified token.
+     *
+     * @param token the unique identifier of the value
+     * @return true if the container has the value, otherwise false
+     */
+    @Override
+    public boolean has(@NotNull String token) {
+        return container.has(token);
+    }
+
+    /**
+     * Remove the dependency instance from the container cache for the specified class type.
+     *
+     * @param type the class type of the dependency
+     * @param <T> the type of the dependency
+     */
+    @Override
+    public <T> void unset(@NotNull Class<T> type) {
+        container.unset(type);
+    }
+
+    /**
+     * Remove the dependency instance from the container cache for the specified class type.
+     *
+     * @param type the class type of the dependency
+     * @param callback the callback that will be called with the dependency instance
+     * @param <T> the type of the dependency
+     */
+    @Override
+    public <T> void unset(@NotNull Class<T> type, @NotNull Consumer<T> callback) {
+        container.unset(type, callback);
+    }
+
+    /**
+     * Remove the global value from the container cache for the specified token.
+     *
+     * @param token the unique identifier of the value
+     */
+    @Override
+    public void unset(@NotNull String token) {
+        container.unset(token);
+    }
+
+    /**
+     * Reset the container instance to its initial state.
+     * <p>
+     * Invalidate the cache for all the registered dependencies and values.
+     */
+    @Override
+    public void reset() {
+        container.reset();
+    }
+}
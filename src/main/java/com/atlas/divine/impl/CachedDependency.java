@@ -13,6 +13,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a data holder for a dependency instance that is being cached in a container.
@@ -23,6 +24,11 @@ import java.util.List;
 @Accessors(fluent = true)
 @Getter
 public class CachedDependency<T> {
+    /**
+     * The counter of the sequence numbers assigned to the cached dependencies.
+     */
+    private static final @NotNull AtomicLong SEQUENCE = new AtomicLong();
+
     /**
      * The dependency instance that is being cached.
      */
@@ -43,6 +49,12 @@ public class CachedDependency<T> {
      */
     private final @NotNull List<Method> terminators;
 
+    /**
+     * The sequence number of the dependency, that tells the order, in which the dependencies were cached. The
+     * dependencies of a service are cached before the service itself.
+     */
+    private final long sequence = SEQUENCE.incrementAndGet();
+
     /**
      * Retrieve the json representation of this cached dependency.
      *
@@ -1,5 +1,6 @@
 package com.atlas.divine.impl;
 
+import com.atlas.divine.runtime.index.ServiceIndex;
 import com.atlas.divine.tree.ContainerProvider;
 import com.atlas.divine.tree.ContainerRegistry;
 import lombok.Getter;
@@ -7,6 +8,7 @@ import lombok.experimental.Accessors;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.UncheckedIOException;
 import java.util.function.Function;
 
 /**
@@ -24,8 +26,8 @@ public class ClassLoaderContainerProvider extends ContainerProvider {
      * The global container to be used for dependency resolving, when the context is not specified explicitly, or the
      * context does not have a container associated with it.
      */
-    private final @NotNull ContainerRegistry globalContainer = new DefaultContainerImpl(
-        null, "global-container"
+    private final @NotNull ContainerRegistry globalContainer = createContainer(
+        null, "global-container", ClassLoaderContainerProvider.class.getClassLoader()
     );
 
     /**
@@ -44,5 +46,40 @@ public class ClassLoaderContainerProvider extends ContainerProvider {
      * By default, the global container is returned for all contexts.
      */
     private final @NotNull Function<@NotNull Object, @Nullable ContainerRegistry> contextContainerMapper = key ->
-        new DefaultContainerImpl(globalContainer, "context-container-" + key);
+        createContainer(
+            globalContainer, "context-container-" + key, key instanceof ClassLoader ? (ClassLoader) key : null
+        );
+
+    /**
+     * Create a new container, that registers the services of the index, that is visible to the specified class loader.
+     * <p>
+     * The global container registers every index, that is visible to its class loader. A context container only
+     * registers the indexes, that the parent class loader cannot see, as the parent indexes are registered by the
+     * containers above it. The index only describes the services, therefore the service classes are not loaded by
+     * the container creation.
+     *
+     * @param rootContainer the root container of the container hierarchy
+     * @param name the unique identifier of the container instance
+     * @param loader the class loader of the context, or {@code null} if the context is not a class loader
+     * @return the created container
+     */
+    private static @NotNull ContainerRegistry createContainer(
+        @Nullable ContainerRegistry rootContainer, @NotNull String name, @Nullable ClassLoader loader
+    ) {
+        ContainerRegistry container = new DefaultContainerImpl(rootContainer, name);
+        if (loader == null)
+            return container;
+
+        // an unreadable index should not prevent the container from being used, as the services can still be
+        // registered explicitly, and the global container is created by the static initializer of the Container
+        try {
+            container.insert(rootContainer == null ? ServiceIndex.load(loader) : ServiceIndex.loadLocal(loader));
+        } catch (UncheckedIOException e) {
+            System.err.println(
+                "Unable to read the service index of container " + name + ": " + e.getCause() + ". The indexed " +
+                "services are not registered, therefore they are only resolved, when they are requested explicitly."
+            );
+        }
+        return container;
+    }
 }
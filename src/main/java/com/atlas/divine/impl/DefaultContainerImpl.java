@@ -10,10 +10,15 @@ import com.atlas.divine.tree.cache.Dependency;
 import com.atlas.divine.descriptor.generic.*;
 import com.atlas.divine.runtime.lifecycle.AfterInitialized;
 import com.atlas.divine.runtime.lifecycle.BeforeTerminate;
-import com.atlas.divine.descriptor.property.PropertyProvider;
 import com.atlas.divine.runtime.context.Contexts;
+import com.atlas.divine.runtime.index.ServiceIndex;
+import com.atlas.divine.runtime.index.ServiceIndex.IndexedService;
+import com.atlas.divine.runtime.inject.InjectableMember;
+import com.atlas.divine.runtime.inject.InjectionBackend;
+import com.atlas.divine.descriptor.factory.AsyncFactory;
 import com.atlas.divine.descriptor.factory.Factory;
 import com.atlas.divine.descriptor.factory.NoFactory;
+import com.atlas.divine.descriptor.factory.SharedFactory;
 import com.atlas.divine.descriptor.implementation.NoImplementation;
 import com.atlas.divine.descriptor.property.NoProperties;
 import com.atlas.divine.descriptor.property.NoPropertiesProvider;
@@ -21,7 +26,7 @@ import com.atlas.divine.tree.ContainerRegistry;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -29,9 +34,23 @@ import java.lang.annotation.Annotation;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -39,19 +58,49 @@ import java.util.stream.Collectors;
 /**
  * Represents a scope specific container instance that manages dependencies and token values.
  */
-@RequiredArgsConstructor
 public class DefaultContainerImpl implements ContainerRegistry {
     /**
      * The static counter that increments the container identifier for each new container instance.
      */
     private static final @NotNull AtomicInteger CONTAINER_ID = new AtomicInteger(0);
 
+    /**
+     * The default time, that each service is given to complete its termination methods.
+     */
+    private static final @NotNull Duration DEFAULT_TERMINATION_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The maximum number of services, that are terminated at the same time.
+     */
+    private static final int TERMINATION_PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The cache of the factory instances, that are annotated with {@link SharedFactory}, and therefore can be shared
+     * between each service creation of every container.
+     */
+    private static final @NotNull ClassValue<@NotNull Factory<?, ?>> SHARED_FACTORIES =
+        new ClassValue<Factory<?, ?>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            protected Factory<?, ?> computeValue(@NotNull Class<?> type) {
+                return instantiateFactory((Class<? extends Factory<?, ?>>) type);
+            }
+        };
+
     /**
      * The map of the registered dependency implementations in the container.
      */
     private final @NotNull Map<@NotNull Class<?>, @NotNull CachedDependency<?>> dependencies =
         new ConcurrentHashMap<>();
 
+    /**
+     * The map of the dependencies, that are currently being created by a thread in the container.
+     * <p>
+     * Other threads wait for the pending dependency to be completed, therefore each dependency is created exactly once.
+     */
+    private final @NotNull Map<@NotNull Class<?>, @NotNull PendingDependency> pendingDependencies =
+        new ConcurrentHashMap<>();
+
     /**
      * The map of the globally registered values in the container.
      */
@@ -75,44 +124,39 @@ public class DefaultContainerImpl implements ContainerRegistry {
         new ConcurrentHashMap<>();
 
     /**
-     * The map of registered services that are grouped by their unique identifier.
+     * The version of the registered implementation providers. It is incremented each time a provider is added or
+     * removed, in order to invalidate the {@link #providerIndexes}.
      */
-    private final @NotNull Map<@NotNull String, @NotNull List<@NotNull Class<?>>> multiServices =
-        new ConcurrentHashMap<>();
+    private final @NotNull AtomicInteger providersVersion = new AtomicInteger();
 
     /**
-     * The stack of classes that are currently being resolved in the container.
+     * The cache of the fields and constructor parameters of each class, that have a registered implementation provider.
      */
-    private final @NotNull ThreadLocal<@NotNull Stack<@NotNull Class<?>>> resolvingStack =
-        ThreadLocal.withInitial(Stack::new);
+    private final @NotNull ClassValue<@NotNull AtomicReference<@Nullable ProviderIndex>> providerIndexes =
+        ProviderIndex.newCache();
 
     /**
-     * The map of fields to be lazily injected by the container.
-     * <p>
-     * All fields annotated with {@link Inject} that specify {@code lazy = true} will be injected by the container,
-     * after the whole dependency tree for a service is resolved.
+     * The map of registered services that are grouped by their unique identifier.
      */
-    private final @NotNull ThreadLocal<@NotNull Map<@NotNull Field, @NotNull LazyFieldAccess>> lazyFields =
-        ThreadLocal.withInitial(LinkedHashMap::new);
+    private final @NotNull Map<@NotNull String, @NotNull ServiceGroup> multiServices = new ConcurrentHashMap<>();
 
     /**
-     * The indication, whether the container is currently injecting lazy fields.
+     * The map of generations of the cached members of each service group, that are mapped by the unique identifier of
+     * the group. A generation is incremented each time a cached member of the group is replaced or removed.
      */
-    private final @NotNull ThreadLocal<@NotNull Boolean> injectingLazyFields = ThreadLocal.withInitial(() -> false);
+    private final @NotNull Map<@NotNull String, @NotNull AtomicLong> groupGenerations = new ConcurrentHashMap<>();
 
     /**
-     * The map of initialization methods to be lazily invoked by the container.
-     * <p>
-     * All methods annotated with {@link AfterInitialized} that specify {@code lazy = true} will be invoked by the
-     * container, after the whole dependency tree for a service is resolved.
+     * The map of indexed services, that are grouped by their unique identifier, and have not been loaded yet.
      */
-    private final @NotNull ThreadLocal<@NotNull Map<@NotNull Method, @NotNull Object>> lazyMethods =
-        ThreadLocal.withInitial(LinkedHashMap::new);
+    private final @NotNull Map<@NotNull String, @NotNull List<@NotNull IndexedService>> indexedServices =
+        new ConcurrentHashMap<>();
 
     /**
-     * The indication, whether the container is currently invoking lazy methods.
+     * The lock, that is held while the indexed services are registered or loaded. An explicit lock is used instead of
+     * a monitor, so that virtual threads loading the service classes do not pin their carrier threads.
      */
-    private final @NotNull ThreadLocal<@NotNull Boolean> invokingLazyMethods = ThreadLocal.withInitial(() -> false);
+    private final @NotNull Lock indexLock = new ReentrantLock();
 
     /**
      * The root container of the container hierarchy. It is {@code null} if {@code this} container is the root.
@@ -125,34 +169,118 @@ public class DefaultContainerImpl implements ContainerRegistry {
     @Getter
     private final @NotNull String name;
 
+    /**
+     * The backend that the container uses to access the members of the services.
+     */
+    @Getter
+    @Setter
+    private volatile @NotNull InjectionBackend injectionBackend;
+
+    /**
+     * The indication, whether the container resolves the constructor arguments of every service concurrently.
+     *
+     * @see ParallelResolution
+     */
+    @Getter
+    @Setter
+    private volatile boolean parallelResolution;
+
+    /**
+     * The time, that each service is given to complete its termination methods, when the container is reset.
+     * Services, that do not terminate in time, are reported as timed out, and the reset continues with the rest of the
+     * services.
+     * <p>
+     * The containers that are created by this container afterward inherit the setting.
+     */
+    @Getter
+    @Setter
+    private volatile @NotNull Duration terminationTimeout;
+
     /**
      * Initialize the container instance with the specified root container.
      *
      * @param rootContainer the root container of the container hierarchy
      */
     public DefaultContainerImpl(@Nullable ContainerRegistry rootContainer) {
+        this(rootContainer, "container-" + CONTAINER_ID.incrementAndGet());
+    }
+
+    /**
+     * Initialize the container instance with the specified root container and name.
+     * <p>
+     * The container inherits the injection backend, the parallel resolution and the termination timeout settings of
+     * the root container.
+     *
+     * @param rootContainer the root container of the container hierarchy
+     * @param name the unique identifier of the container instance
+     */
+    public DefaultContainerImpl(@Nullable ContainerRegistry rootContainer, @NotNull String name) {
         this.rootContainer = rootContainer;
-        name = "container-" + CONTAINER_ID.incrementAndGet();
+        this.name = name;
+        injectionBackend = rootContainer != null
+            ? rootContainer.getInjectionBackend()
+            : InjectionBackend.precompiled();
+        parallelResolution = rootContainer != null && rootContainer.isParallelResolution();
+        terminationTimeout = rootContainer != null
+            ? rootContainer.getTerminationTimeout()
+            : DEFAULT_TERMINATION_TIMEOUT;
     }
 
     /**
      * Retrieve a container registry by its specific name.
      * If the parent registry already contains a registry with the specified name, it will be returned.
      * Otherwise, a new registry will be created and registered in the parent registry.
+     * <p>
+     * The name may be a path of nested registries separated by {@code /}, such as {@code "world/nether/chunk-12"}.
      *
-     * @param name the name of the registry
+     * @param name the name or the path of the registry
      * @return the container registry with the specified name
+     *
+     * @throws IllegalArgumentException if the path contains an empty name
      */
     @Override
     public @NotNull ContainerRegistry of(@NotNull String name) {
+        // fast path, the name is not a path of nested containers
+        int separator = name.indexOf('/');
+        if (separator < 0)
+            return child(name);
+
+        // walk the path, creating the missing containers along the way
+        DefaultContainerImpl container = this;
+        int start = 0;
+        while (separator >= 0) {
+            container = container.child(name.substring(start, separator));
+            start = separator + 1;
+            separator = name.indexOf('/', start);
+        }
+        return container.child(name.substring(start));
+    }
+
+    /**
+     * Retrieve the direct child container with the specified name, or create it atomically if it does not exist.
+     *
+     * @param name the name of the child container
+     * @return the child container with the specified name
+     *
+     * @throws IllegalArgumentException if the name is empty
+     */
+    private @NotNull DefaultContainerImpl child(@NotNull String name) {
         // resolve the container by name from the cache
         DefaultContainerImpl container = containers.get(name);
-        // create the container if it does not exist
-        if (container == null) {
-            container = new DefaultContainerImpl(rootContainer != null ? rootContainer : this, name);
-            containers.put(name, container);
-        }
-        return container;
+        if (container != null)
+            return container;
+
+        if (name.isEmpty())
+            throw new IllegalArgumentException("Container name must not be empty in the path of " + this.name);
+
+        // create the container if it does not exist, so that concurrent callers receive the same container
+        return containers.computeIfAbsent(name, key -> {
+            DefaultContainerImpl created = new DefaultContainerImpl(rootContainer != null ? rootContainer : this, key);
+            created.setInjectionBackend(injectionBackend);
+            created.setParallelResolution(parallelResolution);
+            created.setTerminationTimeout(terminationTimeout);
+            return created;
+        });
     }
 
     /**
@@ -233,6 +361,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
                 "Annotation " + annotation.getName() + " must have a RUNTIME retention"
             );
         providers.put(annotation, provider);
+        providersVersion.incrementAndGet();
     }
 
     /**
@@ -243,6 +372,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
     @Override
     public void removeProvider(@NotNull Class<? extends Annotation> annotation) {
         providers.remove(annotation);
+        providersVersion.incrementAndGet();
     }
 
     /**
@@ -275,8 +405,69 @@ public class DefaultContainerImpl implements ContainerRegistry {
                     "Service " + service.getName() + " does not have a unique identifier"
                 );
 
-            // register the service in the container
-            multiServices.computeIfAbsent(id, key -> new ArrayList<>()).add(service);
+            // register the service in the container, unless it is already registered, such as by the service index
+            // the group is replaced with a copy, so that concurrent lookups never see a partially updated group
+            multiServices.compute(
+                id, (key, group) -> (group != null ? group : ServiceGroup.EMPTY).with(service, descriptor)
+            );
+        }
+    }
+
+    /**
+     * Register the services of the specified index in the container, that specify {@link Service#multiple()} =
+     * {@code true} in their descriptor.
+     * <p>
+     * The service classes are not loaded until their group is retrieved using {@link #getMany(String)}.
+     *
+     * @param index the service index, that was generated at compile time
+     */
+    @Override
+    public void insert(@NotNull ServiceIndex index) {
+        indexLock.lock();
+        try {
+            index.groups().forEach((id, services) ->
+                indexedServices.computeIfAbsent(id, key -> new ArrayList<>()).addAll(services)
+            );
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Load the indexed services of the specified group, and register them in the container.
+     *
+     * @param id the unique identifier, that the services are grouped by
+     *
+     * @throws InvalidServiceException if an indexed service cannot be loaded, or the service is invalid
+     */
+    private void loadIndexedServices(@NotNull String id) {
+        // fast path, the group has already been loaded, or it was not indexed
+        if (!indexedServices.containsKey(id))
+            return;
+
+        // hold the lock while loading, so that concurrent lookups do not see a partially loaded group
+        indexLock.lock();
+        try {
+            List<IndexedService> services = indexedServices.get(id);
+            if (services == null)
+                return;
+
+            Class<?>[] types = new Class<?>[services.size()];
+            for (int i = 0; i < types.length; i++) {
+                IndexedService service = services.get(i);
+                try {
+                    types[i] = service.load();
+                } catch (ClassNotFoundException e) {
+                    throw new InvalidServiceException(
+                        "Indexed service " + service.className() + " of group " + id + " cannot be loaded"
+                    );
+                }
+            }
+
+            insert(types);
+            indexedServices.remove(id);
+        } finally {
+            indexLock.unlock();
         }
     }
 
@@ -294,14 +485,36 @@ public class DefaultContainerImpl implements ContainerRegistry {
      */
     @Override
     public <TServices> @NotNull List<@NotNull TServices> getMany(@NotNull String id, @NotNull Class<?> context) {
-        List<TServices> services = new ArrayList<>();
+        loadIndexedServices(id);
+
+        ServiceGroup group = multiServices.get(id);
+        if (group == null)
+            return Collections.emptyList();
+
+        // singleton members are cached by the root container, therefore both generations are tracked
+        // read the generation before resolving, so that concurrent changes invalidate the resolved instances
+        long generation = groupGeneration(id);
+        if (rootContainer instanceof DefaultContainerImpl)
+            generation += ((DefaultContainerImpl) rootContainer).groupGeneration(id);
+
+        // return the cached instances of the group, if none of its members has changed since they were resolved
+        @SuppressWarnings("unchecked")
+        List<TServices> cached = (List<TServices>) group.cached(generation);
+        if (cached != null)
+            return cached;
+
+        Class<?>[] members = group.members();
+        List<TServices> services = new ArrayList<>(members.length);
         // iterate over each service registered with the specified identifier
-        for (Class<?> service : multiServices.getOrDefault(id, new ArrayList<>())) {
+        for (Class<?> service : members) {
             // retrieve the instance of the service type
             @SuppressWarnings("unchecked")
             TServices instance = (TServices) get(service, context, null, true);
             services.add(instance);
         }
+
+        services = Collections.unmodifiableList(services);
+        group.cache(generation, services);
         return services;
     }
 
@@ -319,12 +532,159 @@ public class DefaultContainerImpl implements ContainerRegistry {
     @Override
     public <TServices> @NotNull List<@NotNull TServices> getMany(@NotNull String id) {
         try {
-            return getMany(id, Contexts.getCallerClass(Thread.currentThread().getStackTrace()));
+            return getMany(id, Contexts.getCallerClass());
         } catch (ClassNotFoundException e) {
             return getMany(id, Container.class);
         }
     }
 
+    /**
+     * Retrieve the generation of the cached members of the specified service group in this container.
+     *
+     * @param id the unique identifier of the service group
+     * @return the current generation of the group, or {@code 0} if none of its members has changed yet
+     */
+    private long groupGeneration(@NotNull String id) {
+        AtomicLong generation = groupGenerations.get(id);
+        return generation != null ? generation.get() : 0;
+    }
+
+    /**
+     * Invalidate the resolved instances of the service group, that the replaced or removed service is a member of.
+     * The groups of other identifiers keep their resolved instances.
+     *
+     * @param descriptor the service descriptor of the replaced or removed service
+     */
+    private void invalidateGroup(@NotNull Service descriptor) {
+        if (descriptor.multiple())
+            groupGenerations.computeIfAbsent(descriptor.id(), key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Instantiate the specified services and their dependencies in advance, so that later lookups hit the cache.
+     * <p>
+     * The dependency graph of the services is resolved from their constructor parameters and the fields annotated
+     * with {@link Inject}. Services, that do not depend on each other, are instantiated in parallel on the common
+     * fork-join pool, level by level in topological order. Transient services are not instantiated.
+     *
+     * @param types the class types of the services to warm up
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    @Override
+    public void warmUp(@NotNull Class<?> @NotNull ... types) {
+        try {
+            warmUp(Arrays.asList(types), Contexts.getCallerClass());
+        } catch (ClassNotFoundException e) {
+            warmUp(Arrays.asList(types), Container.class);
+        }
+    }
+
+    /**
+     * Instantiate the specified services and their dependencies in advance, so that later lookups hit the cache.
+     * <p>
+     * The dependency graph of the services is resolved from their constructor parameters and the fields annotated
+     * with {@link Inject}. Services, that do not depend on each other, are instantiated in parallel on the common
+     * fork-join pool, level by level in topological order. Transient services are not instantiated.
+     *
+     * @param types the class types of the services to warm up
+     * @param context the caller class that the container is being called from
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    @Override
+    public void warmUp(@NotNull Collection<@NotNull Class<?>> types, @NotNull Class<?> context) {
+        WarmUpPlan plan = WarmUpPlan.of(types);
+        for (List<Class<?>> services : plan.levels()) {
+            List<Class<?>> level = cachedServices(services);
+            if (level.size() == 1) {
+                get(level.get(0), context, null, true);
+                continue;
+            }
+
+            // instantiate the independent services of the level in parallel, and wait for all of them to finish
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[level.size()];
+            for (int i = 0; i < futures.length; i++) {
+                Class<?> type = level.get(i);
+                futures[i] = CompletableFuture.runAsync(
+                    () -> get(type, context, null, true), ForkJoinPool.commonPool()
+                );
+            }
+
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                throw e;
+            }
+        }
+
+        // the services of dependency cycles must be resolved on a single thread
+        for (Class<?> type : cachedServices(plan.cyclic()))
+            get(type, context, null, true);
+    }
+
+    /**
+     * Filter the services, that are cached by the container, therefore they are worth warming up.
+     *
+     * @param services the class types of the services to filter
+     * @return the services, that are not transient
+     */
+    private static @NotNull List<@NotNull Class<?>> cachedServices(@NotNull List<@NotNull Class<?>> services) {
+        List<Class<?>> cached = new ArrayList<>(services.size());
+        for (Class<?> type : services) {
+            Service service = type.getAnnotation(Service.class);
+            if (service != null && service.scope() != ServiceScope.TRANSIENT)
+                cached.add(type);
+        }
+        return cached;
+    }
+
+    /**
+     * Instantiate all the services, that are registered as multiple services in the container, including the services
+     * of the inserted service indexes, and their dependencies in advance.
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     *
+     * @see #warmUp(Class[])
+     */
+    @Override
+    public void warmUpAll() {
+        try {
+            warmUpAll(Contexts.getCallerClass());
+        } catch (ClassNotFoundException e) {
+            warmUpAll(Container.class);
+        }
+    }
+
+    /**
+     * Instantiate all the services, that are registered as multiple services in the container, including the services
+     * of the inserted service indexes, and their dependencies in advance.
+     *
+     * @param context the caller class that the container is being called from
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     *
+     * @see #warmUp(Collection, Class)
+     */
+    @Override
+    public void warmUpAll(@NotNull Class<?> context) {
+        // load the indexed groups, that have not been looked up yet
+        for (String id : new ArrayList<>(indexedServices.keySet()))
+            loadIndexedServices(id);
+
+        List<Class<?>> types = new ArrayList<>();
+        for (ServiceGroup group : multiServices.values())
+            Collections.addAll(types, group.members());
+        warmUp(types, context);
+    }
+
     /**
      * Retrieve an instance from the container for the specified class type. Based on the service descriptor,
      * a dependency instance may be retrieved from the container cache, or a new instance is created.
@@ -338,7 +698,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
     @Override
     public <T> @NotNull T get(@NotNull Class<T> type) {
         try {
-            return get(type, Contexts.getCallerClass(Thread.currentThread().getStackTrace()));
+            return get(type, Contexts.getCallerClass());
         } catch (ClassNotFoundException e) {
             return get(type, Container.class);
         }
@@ -360,6 +720,258 @@ public class DefaultContainerImpl implements ContainerRegistry {
         return get(type, context, null);
     }
 
+    /**
+     * Retrieve an instance from the container for the specified class type asynchronously. The dependency tree is
+     * resolved on the common fork-join pool, therefore the calling thread never blocks on the creation of a service.
+     *
+     * @param type the class type of the dependency
+     * @return the future, that is completed with the instance of the desired dependency type
+     *
+     * @param <T> the type of the dependency
+     */
+    @Override
+    public <T> @NotNull CompletableFuture<@NotNull T> getAsync(@NotNull Class<T> type) {
+        try {
+            return getAsync(type, Contexts.getCallerClass(), ForkJoinPool.commonPool());
+        } catch (ClassNotFoundException e) {
+            return getAsync(type, Container.class, ForkJoinPool.commonPool());
+        }
+    }
+
+    /**
+     * Retrieve an instance from the container for the specified class type asynchronously. The dependency tree is
+     * resolved on the specified executor, therefore the calling thread never blocks on the creation of a service.
+     * <p>
+     * If the service is already cached, or it is being created by another thread, the returned future shares the
+     * existing instance or creation. The resolution path of the calling thread is inherited by the executor, so
+     * circular dependencies are still detected, when this method is called while a service is being created.
+     *
+     * @param type the class type of the dependency
+     * @param context the caller class that the container is being called from
+     * @param executor the executor to resolve the dependency tree on
+     * @return the future, that is completed with the instance of the desired dependency type
+     *
+     * @param <T> the type of the dependency
+     */
+    @Override
+    public <T> @NotNull CompletableFuture<@NotNull T> getAsync(
+        @NotNull Class<T> type, @NotNull Class<?> context, @NotNull Executor executor
+    ) {
+        ResolutionFrame frame = ResolutionFrame.current();
+        Class<?>[] ancestors;
+        try {
+            if (!frame.contains(type)) {
+                CompletableFuture<T> shared = shareAsync(type);
+                if (shared != null)
+                    return shared;
+
+                // compose on the future of the asynchronous factory, instead of waiting for it on the executor
+                Service service = type.getAnnotation(Service.class);
+                if (service != null && AsyncFactory.class.isAssignableFrom(service.factory())) {
+                    CompletableFuture<T> created = getOrCreateAsync(type, service, context);
+                    if (created != null)
+                        return created;
+                }
+            }
+
+            // let the resolution path of the calling thread follow the work to the executor
+            ancestors = frame.snapshot();
+        } finally {
+            // unbind the frame of the calling thread, if it is not resolving anything
+            frame.leave();
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            ResolutionFrame worker = ResolutionFrame.current();
+            ResolutionFrame.Inheritance inheritance = worker.inherit(ancestors);
+            try {
+                return get(type, context);
+            } finally {
+                worker.release(inheritance);
+                worker.leave();
+            }
+        }, executor);
+    }
+
+    /**
+     * Retrieve the cached instance, or the pending creation of the specified service type, without blocking.
+     * <p>
+     * Only services, that can be accessed from any context, are shared, as the access of the caller is not checked.
+     *
+     * @param type the class type of the dependency
+     * @return the future of the existing instance, or {@code null} if the dependency tree must be resolved
+     *
+     * @param <T> the type of the dependency
+     */
+    private <T> @Nullable CompletableFuture<@NotNull T> shareAsync(@NotNull Class<T> type) {
+        Service service = type.getAnnotation(Service.class);
+        if (
+            service == null || service.multiple() || service.scope() == ServiceScope.TRANSIENT ||
+            service.visibility() != ServiceVisibility.GLOBAL
+        )
+            return null;
+
+        // singletons are cached by the root container
+        DefaultContainerImpl owner = this;
+        if (service.scope() == ServiceScope.SINGLETON && rootContainer != null) {
+            if (!(rootContainer instanceof DefaultContainerImpl))
+                return null;
+            owner = (DefaultContainerImpl) rootContainer;
+        }
+
+        CachedDependency<?> cached = owner.dependencies.get(type);
+        if (cached != null)
+            return CompletableFuture.completedFuture(type.cast(cached.value()));
+
+        PendingDependency pending = owner.pendingDependencies.get(type);
+        return pending != null ? share(type, pending) : null;
+    }
+
+    /**
+     * Create a future, that is completed with the instance of the specified pending dependency.
+     *
+     * @param type the class type of the dependency
+     * @param pending the pending creation of the dependency
+     * @return the future of the pending dependency
+     *
+     * @param <T> the type of the dependency
+     */
+    private static <T> @NotNull CompletableFuture<@NotNull T> share(
+        @NotNull Class<T> type, @NotNull PendingDependency pending
+    ) {
+        // report the failures of the shared creation the same way, as the synchronous lookups do
+        CompletableFuture<T> future = new CompletableFuture<>();
+        pending.future().whenComplete((value, error) -> {
+            if (error == null)
+                future.complete(type.cast(value));
+            else if (error instanceof GenericServiceException)
+                future.completeExceptionally(error);
+            else
+                future.completeExceptionally(new ServiceInitializationException(
+                    "Error whilst initializing service " + type.getName(), error
+                ));
+        });
+        return future;
+    }
+
+    /**
+     * Retrieve the cached instance of the specified service type, that is created by an {@link AsyncFactory}, or
+     * start creating it, if it does not exist. The future of the creation is shared by the concurrent lookups.
+     *
+     * @param type the class type of the dependency
+     * @param service the dependency service descriptor
+     * @param context the class that requested the dependency
+     * @return the future of the instance, or {@code null} if the root container cannot create the instance
+     * asynchronously
+     *
+     * @param <T> the type of the dependency
+     */
+    private <T> @Nullable CompletableFuture<@NotNull T> getOrCreateAsync(
+        @NotNull Class<T> type, @NotNull Service service, @NotNull Class<?> context
+    ) {
+        // singletons are created by the root container
+        if (service.scope() == ServiceScope.SINGLETON && rootContainer != null) {
+            return rootContainer instanceof DefaultContainerImpl
+                ? ((DefaultContainerImpl) rootContainer).getOrCreateAsync(type, service, context)
+                : null;
+        }
+
+        PendingDependency pending;
+        try {
+            if (service.multiple())
+                throw new InvalidServiceAccessException(
+                    "Service " + type.getName() + " is registered as multiple, use getMany instead"
+                );
+
+            // create an instance each time the dependency is accessed
+            if (service.scope() == ServiceScope.TRANSIENT)
+                return createAsync(type, service, context);
+
+            // validate that the context class has permission to access the service type
+            checkAccess(type, service.visibility(), context);
+
+            CachedDependency<?> cached = dependencies.get(type);
+            if (cached != null)
+                return CompletableFuture.completedFuture(type.cast(cached.value()));
+
+            // share the creation, if it has already been started
+            pending = new PendingDependency(type, null);
+            PendingDependency existing = pendingDependencies.putIfAbsent(type, pending);
+            if (existing != null)
+                return share(type, existing);
+
+            cached = dependencies.get(type);
+            if (cached != null) {
+                pendingDependencies.remove(type, pending);
+                pending.future().complete(cached.value());
+                return CompletableFuture.completedFuture(type.cast(cached.value()));
+            }
+        } catch (RuntimeException e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        // cache the instance, when the factory completes, and let the next request retry, if it fails
+        CompletableFuture<T> creation;
+        try {
+            creation = createAsync(type, service, context);
+        } catch (RuntimeException e) {
+            creation = new CompletableFuture<>();
+            creation.completeExceptionally(e);
+        }
+        creation.whenComplete((value, error) -> {
+            if (error == null) {
+                dependencies.put(
+                    type, new CachedDependency<>(value, service, context, ServiceMetadata.of(type).terminators())
+                );
+                pending.future().complete(value);
+            } else
+                pending.future().completeExceptionally(
+                    error instanceof CompletionException && error.getCause() != null ? error.getCause() : error
+                );
+            pendingDependencies.remove(type, pending);
+        });
+        return share(type, pending);
+    }
+
+    /**
+     * Start creating a new instance of the specified service type, using its {@link AsyncFactory}.
+     *
+     * @param type the class type of the dependency
+     * @param service the dependency service descriptor
+     * @param context the class that requested the dependency
+     * @return the future, that is completed with the initialized instance
+     *
+     * @param <T> the type of the dependency
+     */
+    @SuppressWarnings("unchecked")
+    private <T> @NotNull CompletableFuture<@NotNull T> createAsync(
+        @NotNull Class<T> type, @NotNull Service service, @NotNull Class<?> context
+    ) {
+        validateProperties(service, null);
+        AsyncFactory<T, Object> factory = (AsyncFactory<T, Object>) Objects.requireNonNull(
+            createFactory(service.factory(), context)
+        );
+
+        // initialize the instance on the thread, that completes the creation
+        return factory.createAsync(service, type, context, null).thenApply(value -> {
+            ResolutionFrame frame = ResolutionFrame.current();
+            boolean resolving = frame.contains(type);
+            if (!resolving)
+                frame.push(type);
+            try {
+                return initialize(frame, type, service, value, context);
+            } finally {
+                if (!resolving)
+                    frame.pop();
+                injectLazyFields(frame);
+                invokeLazyMethods(frame);
+                frame.leave();
+            }
+        });
+    }
+
     /**
      * Retrieve an instance from the container for the specified class type. Based on the service descriptor,
      * a dependency instance may be retrieved from the container cache, or a new instance is created.
@@ -376,7 +988,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
         @NotNull Class<TService> type, @Nullable TProperties properties
     ) {
         try {
-            return get(type, Contexts.getCallerClass(Thread.currentThread().getStackTrace()), properties);
+            return get(type, Contexts.getCallerClass(), properties);
         } catch (ClassNotFoundException e) {
             return get(type, Container.class, properties);
         }
@@ -464,23 +1076,23 @@ public class DefaultContainerImpl implements ContainerRegistry {
         @NotNull Class<TService> type, @NotNull Class<?> context, @Nullable TProperties properties,
         boolean allowMultiple
     ) {
-        // get the stack of classes that are currently being resolved in the container
-        Stack<Class<?>> stack = resolvingStack.get();
+        // get the resolution frame of the current thread, that is shared by the whole container hierarchy
+        ResolutionFrame frame = ResolutionFrame.current();
 
         // check if the requested dependency is already initialized in the dependency tree
-        if (stack.contains(type))
+        if (frame.contains(type))
             throw new CircularDependencyException(
                 "Circular dependency detected for service " + type.getName() + " in context " + context.getName() +
-                ". If you are certain, this is not a bug, consider using Ref<T>, or @Inject(lazy=true) to lazily " +
-                "inject the dependency."
+                " (" + frame.describe(type) + "). If you are certain, this is not a bug, consider using Ref<T>, " +
+                "or @Inject(lazy=true) to lazily inject the dependency."
             );
 
-        // push the current class type to the stack
-        stack.push(type);
+        // push the current class type to the resolution path
+        frame.push(type);
 
         // resolve the dependency tree from the container
         try {
-            return resolveDependency(type, context, properties, allowMultiple);
+            return resolveDependency(frame, type, context, properties, allowMultiple);
         }
         // re-throw generic service exceptions
         catch (GenericServiceException e) {
@@ -493,11 +1105,12 @@ public class DefaultContainerImpl implements ContainerRegistry {
                 "Error whilst initializing service " + type.getName() + " in context " + context.getName(), e
             );
         }
-        // finally clean up the stack and inject lazy field dependencies
+        // finally clean up the resolution path and inject lazy field dependencies
         finally {
-            stack.pop();
-            injectLazyFields();
-            invokeLazyMethods();
+            frame.pop();
+            injectLazyFields(frame);
+            invokeLazyMethods(frame);
+            frame.leave();
         }
     }
 
@@ -593,6 +1206,35 @@ public class DefaultContainerImpl implements ContainerRegistry {
     public <TService, TProperties> @NotNull TService resolveDependency(
         @NotNull Class<TService> type, @NotNull Class<?> context, @Nullable TProperties properties,
         boolean allowMultiple
+    ) {
+        ResolutionFrame frame = ResolutionFrame.current();
+        try {
+            return resolveDependency(frame, type, context, properties, allowMultiple);
+        } finally {
+            frame.leave();
+        }
+    }
+
+    /**
+     * Retrieve an instance from the container for the specified class type, using the resolution frame of the
+     * current thread, that is passed down the resolution chain of the dependency.
+     *
+     * @param frame the resolution frame of the current thread
+     * @param type the class type of the dependency
+     * @param context the caller class that the container is being called from
+     * @param properties the properties to create the instance with
+     * @param allowMultiple whether to allow services that specifies {@link Service#multiple()} = {@code true}
+     * @return the instance of the desired dependency type
+     *
+     * @param <TService> the type of the dependency
+     * @param <TProperties> the type of the properties to pass to the factory
+     *
+     * @throws InvalidServiceException if the service descriptor is invalid or the service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing the service
+     */
+    private <TService, TProperties> @NotNull TService resolveDependency(
+        @NotNull ResolutionFrame frame, @NotNull Class<TService> type, @NotNull Class<?> context,
+        @Nullable TProperties properties, boolean allowMultiple
     ) {
         // resolve the service descriptor of the dependency type
         Service service = resolveDescriptor(type, true);
@@ -606,20 +1248,49 @@ public class DefaultContainerImpl implements ContainerRegistry {
         // resolve the dependency from the root container if it has a singleton scope
         ServiceScope scope = service.scope();
         if (scope == ServiceScope.SINGLETON && rootContainer != null)
-            return rootContainer.get(type, context);
+            return getFromRoot(frame, rootContainer, type, context);
         // if the root container is null, that means that the current container is the root, fall through the next case
 
         // create an instance each time the dependency is accessed
         else if (scope == ServiceScope.TRANSIENT)
-            return createInstance(type, service, context, properties);
+            return createInstance(frame, type, service, context, properties);
 
         // let `CONTAINER` scope fall through to the default case
 
         // validate that the context class has permission to access the service type
         checkAccess(type, service.visibility(), context);
 
-        // return the cached instance of the service, or create a new one if it does not exist
-        return getCachedOrCreate(type, service, context, properties);
+        // return the cached instance of the service, or create a new one if it does not exist
+        return getCachedOrCreate(frame, type, service, context, properties);
+    }
+
+    /**
+     * Retrieve a singleton instance from the root container for the specified class type.
+     * <p>
+     * The resolution frame is shared by the whole container hierarchy, therefore the type is removed from the
+     * resolution path while the root container resolves it, so that it is not reported as a circular dependency.
+     *
+     * @param frame the resolution frame of the current thread
+     * @param root the root container of the container hierarchy
+     * @param type the class type of the dependency
+     * @param context the caller class that the container is being called from
+     * @return the instance of the desired dependency type
+     *
+     * @param <TService> the type of the dependency
+     */
+    private <TService> @NotNull TService getFromRoot(
+        @NotNull ResolutionFrame frame, @NotNull ContainerRegistry root, @NotNull Class<TService> type,
+        @NotNull Class<?> context
+    ) {
+        if (frame.peek() != type)
+            return root.get(type, context);
+
+        frame.pop();
+        try {
+            return root.get(type, context);
+        } finally {
+            frame.push(type);
+        }
     }
 
     /**
@@ -683,7 +1354,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
         @NotNull Class<T> type, boolean validate
     ) throws InvalidServiceException {
         // validate that the service type annotates the service descriptor annotation
-        Service service = type.getAnnotation(Service.class);
+        Service service = ServiceMetadata.of(type).descriptor();
         if (service == null)
             throw new InvalidServiceException("Class " + type.getName() + " is not a service");
 
@@ -725,6 +1396,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
     /**
      * Retrieve the cached instance of the specified service type, or create a new one if it does not exist.
      *
+     * @param frame the resolution frame of the current thread
      * @param type the class type of the dependency
      * @param service the dependency service descriptor
      * @param context the class that requested the dependency
@@ -738,25 +1410,50 @@ public class DefaultContainerImpl implements ContainerRegistry {
      * @throws ServiceInitializationException if an error occurs while initializing the service
      */
     private <TService, TProperties> @NotNull TService getCachedOrCreate(
-        @NotNull Class<TService> type, @NotNull Service service, @NotNull Class<?> context,
-        @Nullable TProperties properties
+        @NotNull ResolutionFrame frame, @NotNull Class<TService> type, @NotNull Service service,
+        @NotNull Class<?> context, @Nullable TProperties properties
     ) {
         // resolve the dependency from the container cache
         CachedDependency<?> cachedDependency = dependencies.get(type);
         if (cachedDependency != null)
             return type.cast(cachedDependency.value());
 
-        // instantiate the service for the current context
-        TService instance = createInstance(type, service, context, properties);
-        // service has container scope, cache it in the container
-        dependencies.put(type, new CachedDependency<>(instance, service, context, resolveTerminators(type)));
+        // wait for the dependency, if another thread is already creating it
+        PendingDependency pending = new PendingDependency(type, Thread.currentThread());
+        PendingDependency existing = pendingDependencies.putIfAbsent(type, pending);
+        if (existing != null)
+            return type.cast(existing.await());
+
+        try {
+            // the previous owner might have completed the dependency, before this thread claimed it
+            cachedDependency = dependencies.get(type);
+            if (cachedDependency != null) {
+                pending.future().complete(cachedDependency.value());
+                return type.cast(cachedDependency.value());
+            }
+
+            // instantiate the service for the current context
+            TService instance = createInstance(frame, type, service, context, properties);
+            // service has container scope, cache it in the container
+            dependencies.put(
+                type, new CachedDependency<>(instance, service, context, ServiceMetadata.of(type).terminators())
+            );
 
-        return instance;
+            pending.future().complete(instance);
+            return instance;
+        } catch (Throwable e) {
+            // let the waiting threads fail as well, and let the next request retry the creation
+            pending.future().completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingDependencies.remove(type, pending);
+        }
     }
 
     /**
      * Create an instance of the specified service type.
      *
+     * @param frame the resolution frame of the current thread
      * @param type the type of the dependency to be instantiated
      * @param service the dependency service descriptor
      * @param context the class that requested the dependency
@@ -769,8 +1466,8 @@ public class DefaultContainerImpl implements ContainerRegistry {
      */
     @SuppressWarnings("unchecked")
     private <TService, TProperties> @NotNull TService createInstance(
-        @NotNull Class<TService> type, @NotNull Service service, @NotNull Class<?> context,
-        @Nullable TProperties properties
+        @NotNull ResolutionFrame frame, @NotNull Class<TService> type, @NotNull Service service,
+        @NotNull Class<?> context, @Nullable TProperties properties
     ) {
         TService value;
         Class<?> implementation = service.implementation();
@@ -780,7 +1477,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
 
         // resolve the factory from the service descriptor
         // use the factory to instantiate the service, if it is specified
-        Factory<TService, TProperties> factory = createFactory(service.factory());
+        Factory<TService, TProperties> factory = createFactory(service.factory(), context);
         if (factory != null)
             value = factory.create(service, type, context, properties);
 
@@ -792,23 +1489,47 @@ public class DefaultContainerImpl implements ContainerRegistry {
                     " does not implement the service type " + type.getName()
                 );
             type = (Class<TService>) implementation;
-            value = createInstanceWithDependencies(type, context);
+            value = createInstanceWithDependencies(frame, type, context);
         }
         // let the dependency injector instantiate the service and resolve its constructor dependencies
         else
-            value = createInstanceWithDependencies(type, context);
+            value = createInstanceWithDependencies(frame, type, context);
+
+        return initialize(frame, type, service, value, context);
+    }
+
+    /**
+     * Initialize the specified instance of a service, after it has been instantiated.
+     *
+     * @param frame the resolution frame of the current thread
+     * @param type the type of the instance
+     * @param service the dependency service descriptor
+     * @param value the instance to initialize
+     * @param context the class that requested the dependency
+     * @return the initialized instance, that may be replaced by the hooks of the container
+     *
+     * @param <TService> the type of the dependency
+     *
+     * @throws ServiceInitializationException if an error occurs while initializing the service
+     */
+    private <TService> @NotNull TService initialize(
+        @NotNull ResolutionFrame frame, @NotNull Class<?> type, @NotNull Service service, @NotNull TService value,
+        @NotNull Class<?> context
+    ) {
+        // resolve the reflective metadata of the instantiated type
+        ServiceMetadata metadata = ServiceMetadata.of(type);
 
         // inject the dependencies for the instance's fields
-        injectFields(type, value, context);
+        injectFields(frame, metadata, value, context);
 
         // inject the implementations for custom annotations into the service instance
-        injectProviders(type, value);
+        injectProviders(metadata, value);
 
         // apply the registered hooks to the instance
         value = applyHooks(value, service);
 
         // call each method of the service annotated with @AfterInitialized
-        handleServiceInit(value, type);
+        handleServiceInit(frame, value, metadata);
 
         return value;
     }
@@ -816,68 +1537,37 @@ public class DefaultContainerImpl implements ContainerRegistry {
     /**
      * Handle post creation of a service and call each service method that is annotated with {@link AfterInitialized}.
      *
+     * @param frame the resolution frame of the current thread
      * @param service the service instance to handle
-     * @param type the class type of the service
+     * @param metadata the reflective metadata of the service class
      *
      * @param <TService> the type of the service
      *
      * @throws ServiceRuntimeException if an error occurs while invoking the service initialization method
      */
     private <TService> void handleServiceInit(
-        @NotNull TService service, @NotNull Class<TService> type
+        @NotNull ResolutionFrame frame, @NotNull TService service, @NotNull ServiceMetadata metadata
     ) throws ServiceRuntimeException {
-        // iterate over each method of the service class
-        for (Method method : type.getDeclaredMethods()) {
-            // skip methods that are not annotated with @AfterInitialized
-            AfterInitialized init = method.getDeclaredAnnotation(AfterInitialized.class);
-            if (init == null)
-                continue;
-
-            // make the method accessible for the dependency injector
-            method.setAccessible(true);
-
-            // register the method to be lazily invoked by the container
-            if (init.lazy()) {
-                lazyMethods.get().put(method, service);
-                continue;
-            }
+        // register the lazy methods to be invoked by the container, after the dependency tree is resolved
+        if (!metadata.lazyInitializers().isEmpty()) {
+            Map<Method, ResolutionFrame.LazyMethod> lazyMethods = frame.lazyMethods();
+            for (InjectableMember<Method> method : metadata.lazyInitializers())
+                lazyMethods.put(method.member(), new ResolutionFrame.LazyMethod(this, method, service));
+        }
 
-            // invoke the method on the service instance
+        // invoke the initialization methods on the service instance
+        for (InjectableMember<Method> method : metadata.initializers()) {
             try {
-                method.invoke(service);
-            } catch (InvocationTargetException | IllegalAccessException e) {
+                injectionBackend.invoke(method, service);
+            } catch (ReflectiveOperationException e) {
                 throw new ServiceRuntimeException(
-                    "Error whilst invoking initialization method `" + method.getName() + "` of service " +
-                    type.getName(), e
+                    "Error whilst invoking initialization method `" + method.member().getName() + "` of service " +
+                    metadata.type().getName(), e
                 );
             }
         }
     }
 
-    /**
-     * Resolve the list of methods that should be called before the service is terminated and is removed from
-     * the container.
-     *
-     * @param type the class type of the dependency
-     * @return the list of methods that should be called before the service is terminated
-     *
-     * @param <TService> the type of the dependency
-     */
-    private <TService> @NotNull List<Method> resolveTerminators(@NotNull Class<TService> type) {
-        List<Method> terminators = new ArrayList<>();
-        // iterate over each method of the service class
-        for (Method method : type.getDeclaredMethods()) {
-            // skip methods that are not annotated with @BeforeTerminate
-            if (!method.isAnnotationPresent(BeforeTerminate.class))
-                continue;
-
-            // register the method as a terminator
-            method.setAccessible(true);
-            terminators.add(method);
-        }
-        return terminators;
-    }
-
     /**
      * Validate the specified properties of the service on service initialization
      *
@@ -906,7 +1596,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
         }
 
         // resolve the required properties type from the service factory
-        Class<?> propertiesType = getFactoryPropertiesType(factoryType);
+        Class<?> propertiesType = FactoryTypes.getPropertiesType(factoryType);
 
         // return if the service factory has no properties specified
         if (propertiesType == NoProperties.class) {
@@ -935,81 +1625,6 @@ public class DefaultContainerImpl implements ContainerRegistry {
             );
     }
 
-    /**
-     * Resolve the type of the properties, that the service's factory has specified.
-     *
-     * @param factoryType the factory type of the service descriptor
-     * @return the generic properties type of the factory
-     *
-     * @throws InvalidServiceAccessException if the factory type is invalid or the properties type cannot be resolved
-     */
-    private @NotNull Class<?> getFactoryPropertiesType(
-        @NotNull Class<? extends Factory<?, ?>> factoryType
-    ) throws InvalidServiceAccessException {
-        // resolve the implementing interfaces of the factory type
-        Type[] genericInterfaces = factoryType.getGenericInterfaces();
-        if (genericInterfaces.length == 0)
-            throw new InvalidServiceAccessException(
-                "Factory " + factoryType.getName() + " requires generic types: <TService, TProperties>, but found none"
-            );
-
-        // TODO instead of assuming the factory implementation has `Factory` as its first element in the interface list
-        //  loop through each type, and check which one actually is assignable from `Factory`
-        Type genericInterface = genericInterfaces[0];
-
-        // resolve the generic arguments of the factory type
-        Type[] actualTypeArguments = getGenericTypes(factoryType, genericInterface);
-
-        return (Class<?>) actualTypeArguments[1];
-    }
-
-    /**
-     * Resolve the generic types of the specified type.
-     *
-     * @param factoryType the type of the factory
-     * @param genericInterface the factory interface of the factory implementation type
-     * @return the generic types of the factory interface
-     *
-     * @throws InvalidServiceAccessException if the factory type is invalid or the generic types cannot be resolved
-     */
-    private @NotNull Type @NotNull [] getGenericTypes(
-        @NotNull Class<? extends Factory<?, ?>> factoryType, @NotNull Type genericInterface
-    ) throws InvalidServiceAccessException {
-        // check if the implemented factory type is not a parameterized type, however, this should never happen
-        Type[] actualTypeArguments = getActualTypes(factoryType, genericInterface);
-        // validate that the interface has two generic types: TService and TProperties, however, this should never happen
-        if (actualTypeArguments.length != 2)
-            throw new InvalidServiceAccessException(
-                "Factory " + factoryType + " requires one actual type argument for TProperties, but found: " +
-                actualTypeArguments.length
-            );
-
-        return actualTypeArguments;
-    }
-
-    /**
-     * Resolve the actual generic types from the factory interface type.
-     *
-     * @param factoryType the type of the factory
-     * @param genericInterface the factory interface of the factory implementation type
-     * @return the actual generic types of the factory interface
-     *
-     * @throws InvalidServiceAccessException if the factory type is invalid or the generic types cannot be resolved
-     */
-    private @NotNull Type @NotNull [] getActualTypes(
-        @NotNull Class<? extends Factory<?, ?>> factoryType, @NotNull Type genericInterface
-    ) throws InvalidServiceAccessException {
-        // check if the implemented factory type is not a parameterized type, however, this should never happen
-        if (!(genericInterface instanceof ParameterizedType))
-            throw new InvalidServiceAccessException(
-                "Factory " + factoryType + " requires a parameterized type for TProperties, but found: " +
-                genericInterface
-            );
-
-        // resolve the generic types of the implemented factory interface
-        return ((ParameterizedType) genericInterface).getActualTypeArguments();
-    }
-
     /**
      * Apply the registered hooks to the specified dependency value.
      *
@@ -1104,16 +1719,11 @@ public class DefaultContainerImpl implements ContainerRegistry {
                     targetClass.getName() + " has both properties and a provider specified"
                 );
 
-            // create a new instance of the property provider and provide the properties for the factory
-            PropertyProvider provider;
-            try {
-                provider = getConstructor(inject.provider()).newInstance();
-            } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
-                throw new ServiceInitializationException(
-                    "Error while creating a new instance of the property provider " + inject.provider(), e
-                );
-            }
-            properties = provider.provide(resolveDescriptor(fieldType, true), fieldType, context);
+            // provide the properties for the factory, using the shared instance of the property provider
+            Service descriptor = ServiceMetadata.of(fieldType).descriptor();
+            if (descriptor == null)
+                throw new InvalidServiceException("Class " + fieldType.getName() + " is not a service");
+            properties = PropertyProviders.provide(inject.provider(), descriptor, fieldType, context);
         }
 
         Class<?> dependencyType = fieldType;
@@ -1135,149 +1745,133 @@ public class DefaultContainerImpl implements ContainerRegistry {
 
     /**
      * Inject the lazy fields that are stored for the current dependency tree.
+     *
+     * @param frame the resolution frame of the current thread
      */
-    private void injectLazyFields() {
+    private static void injectLazyFields(@NotNull ResolutionFrame frame) {
         // return if the dependency resolving tree is still being resolved
-        if (!resolvingStack.get().isEmpty())
+        if (!frame.isEmpty())
             return;
 
-        // return and clean up if the lazy fields had been already injected
+        // return if the lazy fields are already being injected, the outer call will process the remaining fields
         // this prevents infinite loops when resolving circular dependencies
-        if (injectingLazyFields.get()) {
-            clearLazyFields();
+        if (frame.injectingLazyFields() || frame.lazyFields().isEmpty())
             return;
-        }
 
         // begin injecting the lazy fields
-        injectingLazyFields.set(true);
-
-        // resolve the lazy fields to be injected
-        Map<Field, LazyFieldAccess> fields = lazyFields.get();
-
-        // iterate over the lazy fields to be injected
-        for (Map.Entry<Field, LazyFieldAccess> entry : fields.entrySet()) {
-            // resolve the field and the access to the field
-            Field field = entry.getKey();
-            LazyFieldAccess access = entry.getValue();
-
-            // inject the field into the instance
-            injectField(
-                field, access.getInstance(), field.getType(), field.getGenericType(), field.getName(), access.getType(),
-                access.getDescriptor(), access.getContext()
-            );
+        frame.injectingLazyFields(true);
+        try {
+            Map<Field, ResolutionFrame.LazyField> fields = frame.lazyFields();
+            while (!fields.isEmpty()) {
+                // take the next lazy field to be injected
+                Iterator<Map.Entry<Field, ResolutionFrame.LazyField>> iterator = fields.entrySet().iterator();
+                Map.Entry<Field, ResolutionFrame.LazyField> entry = iterator.next();
+                iterator.remove();
+
+                // resolve the field and the access to the field
+                Field field = entry.getKey();
+                LazyFieldAccess access = entry.getValue().access();
+
+                // inject the field into the instance using the container, that registered the field
+                entry.getValue().container().injectField(
+                    entry.getValue().field(), access.getInstance(), field.getType(), field.getGenericType(),
+                    field.getName(), access.getType(), access.getDescriptor(), access.getContext()
+                );
+            }
+        } finally {
+            // clear the lazy fields and end injecting them
+            frame.lazyFields().clear();
+            frame.injectingLazyFields(false);
         }
-
-        // clear the lazy fields after injecting them
-        clearLazyFields();
-
-        // end injecting the lazy fields
-        injectingLazyFields.set(false);
-    }
-
-    /**
-     * Clear the lazy fields that are stored for the current dependency tree.
-     */
-    private void clearLazyFields() {
-        // clear any pending lazy fields that are stored in the thread-local map
-        lazyFields.get().clear();
-        // remove the thread-local map from the thread
-        lazyFields.remove();
     }
 
     /**
      * Invoke the lazy methods that are stored for the current dependency tree.
+     *
+     * @param frame the resolution frame of the current thread
      */
-    private void invokeLazyMethods() {
+    private static void invokeLazyMethods(@NotNull ResolutionFrame frame) {
         // return if the dependency resolving tree is still being resolved
-        if (!resolvingStack.get().isEmpty())
+        if (!frame.isEmpty())
             return;
 
         // return if currently injecting lazy fields
         // this prevents the lazy methods from being invoked before the lazy fields are injected
-        if (injectingLazyFields.get())
+        if (frame.injectingLazyFields())
             return;
 
-        // return if the lazy methods have already been invoked
+        // return if the lazy methods are already being invoked, the outer call will process the remaining methods
         // this prevents infinite loops when resolving circular dependencies
-        if (invokingLazyMethods.get()) {
-            clearLazyMethods();
+        if (frame.invokingLazyMethods() || frame.lazyMethods().isEmpty())
             return;
-        }
 
         // begin invoking the lazy methods
-        invokingLazyMethods.set(true);
-
-        // resolve the lazy methods to be invoked
-        Map<Method, Object> methods = lazyMethods.get();
-
-        // iterate over the lazy methods to be invoked
-        for (Map.Entry<Method, Object> entry : methods.entrySet()) {
-            // resolve the method and the instance to invoke the method on
-            Method method = entry.getKey();
-            Object instance = entry.getValue();
-
-            // invoke the method on the instance
-            try {
-                method.invoke(instance);
-            } catch (InvocationTargetException | IllegalAccessException e) {
-                throw new ServiceInitializationException(
-                    "Error whilst invoking initialization method `" + method.getName() + "` of service " +
-                    instance.getClass().getName(), e
-                );
+        frame.invokingLazyMethods(true);
+        try {
+            Map<Method, ResolutionFrame.LazyMethod> methods = frame.lazyMethods();
+            while (!methods.isEmpty()) {
+                // take the next lazy method to be invoked
+                Iterator<Map.Entry<Method, ResolutionFrame.LazyMethod>> iterator = methods.entrySet().iterator();
+                Map.Entry<Method, ResolutionFrame.LazyMethod> entry = iterator.next();
+                iterator.remove();
+
+                // resolve the method and the instance to invoke the method on
+                Method method = entry.getKey();
+                Object instance = entry.getValue().instance();
+
+                // invoke the method on the instance
+                try {
+                    entry.getValue().container().injectionBackend.invoke(entry.getValue().method(), instance);
+                } catch (ReflectiveOperationException e) {
+                    throw new ServiceInitializationException(
+                        "Error whilst invoking initialization method `" + method.getName() + "` of service " +
+                        instance.getClass().getName(), e
+                    );
+                }
             }
+        } finally {
+            // clear the lazy methods and end invoking them
+            frame.lazyMethods().clear();
+            frame.invokingLazyMethods(false);
         }
-
-        // clear the lazy methods after invoking them
-        clearLazyMethods();
-
-        // end invoking the lazy methods
-        invokingLazyMethods.set(false);
-    }
-
-    /**
-     * Clear the lazy methods that are stored for the current dependency tree.
-     */
-    private void clearLazyMethods() {
-        // clear any pending lazy methods that are stored in the thread-local map
-        lazyMethods.get().clear();
-        // remove the thread-local map from the thread
-        lazyMethods.remove();
     }
 
     /**
      * Inject the fields of the specified instance.
      *
-     * @param clazz the class of the instance
+     * @param frame the resolution frame of the current thread
+     * @param metadata the reflective metadata of the instance's class
      * @param instance the instance to inject the fields of
      * @param context the class that requested the dependency
      *
      * @param <T> the type of the instance
      */
     private <T> void injectFields(
-        @NotNull Class<T> clazz, @NotNull T instance, @NotNull Class<?> context
+        @NotNull ResolutionFrame frame, @NotNull ServiceMetadata metadata, @NotNull T instance,
+        @NotNull Class<?> context
     ) throws ServiceInitializationException {
-        // loop through the fields of the class
-        for (Field field : clazz.getDeclaredFields()) {
-            // resolve the injection descriptor of the field
-            Inject inject = field.getAnnotation(Inject.class);
-            if (inject == null)
-                continue;
+        Class<?> clazz = metadata.type();
 
-            // make sure the field is accessible for the dependency injector
-            field.setAccessible(true);
+        // loop through the fields of the class, that are annotated with @Inject
+        for (ServiceMetadata.FieldInjection injection : metadata.injectFields()) {
+            Field field = injection.field();
+            Inject inject = injection.inject();
 
             // register the field in the lazy fields map, if lazy injection is applied
-            if (inject.lazy() && !injectingLazyFields.get()) {
-                // in order to account for circular dependencies, we need to register the field on the first pass
-                lazyFields.get().computeIfAbsent(field, k -> new LazyFieldAccess(
-                    instance, clazz, inject, context
-                ));
-                continue;
+            if (inject.lazy()) {
+                if (!frame.injectingLazyFields()) {
+                    // in order to account for circular dependencies, we need to register the field on the first pass
+                    frame.lazyFields().computeIfAbsent(field, k -> new ResolutionFrame.LazyField(
+                        this, injection.member(), new LazyFieldAccess(instance, clazz, inject, context)
+                    ));
+                    continue;
+                }
             }
 
             // inject the field into the instance
             injectField(
-                field, instance, field.getType(), field.getGenericType(), field.getName(), clazz, inject, context
+                injection.member(), instance, field.getType(), field.getGenericType(), field.getName(), clazz, inject,
+                context
             );
         }
     }
@@ -1295,7 +1889,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
      * @param context the class that the dependency is being called from
      */
     private void injectField(
-        @NotNull Field field, @NotNull Object instance, @NotNull Class<?> fieldType, @NotNull Type genericType,
+        @NotNull InjectableMember<Field> field, @NotNull Object instance, @NotNull Class<?> fieldType, @NotNull Type genericType,
         @NotNull String fieldName, @NotNull Class<?> targetClass, @NotNull Inject inject, @NotNull Class<?> context
     ) {
         // create an instance of the service to be injected
@@ -1306,11 +1900,11 @@ public class DefaultContainerImpl implements ContainerRegistry {
 
         // try to inject the instance of the service into the field
         try {
-            field.set(instance, injection);
-        } catch (IllegalAccessException e) {
+            injectionBackend.set(field, instance, injection);
+        } catch (ReflectiveOperationException e) {
             throw new ServiceInitializationException(
                 "Error while injecting dependency " + injection.getClass().getName() + " into field " +
-                    field.getName() + " of class " + targetClass.getName(), e
+                    field.member().getName() + " of class " + targetClass.getName(), e
             );
         }
     }
@@ -1318,63 +1912,87 @@ public class DefaultContainerImpl implements ContainerRegistry {
     /**
      * Provide an implementation for a service from a registered custom annotation.
      *
-     * @param annotations the annotations of the field
+     * @param annotation the annotation of the target, that has a registered provider
      * @param target the class that requested the dependency
      *
-     * @return the implementation of the annotation
+     * @return the implementation of the annotation, or {@code null} if the provider is no longer registered
      */
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private @Nullable Object provideAnnotation(@NotNull Annotation @NotNull [] annotations, @NotNull Class<?> target) {
-        // iterate over the annotations of the field
-        for (Annotation annotation : annotations) {
-            // skip annotations that are not registered in the container
-            AnnotationProvider provider = providers.get(annotation.annotationType());
-            if (provider == null)
-                continue;
+    private @Nullable Object provideAnnotation(@NotNull Annotation annotation, @NotNull Class<?> target) {
+        // skip the annotation, if the provider has been removed since the index was built
+        AnnotationProvider provider = providers.get(annotation.annotationType());
+        if (provider == null)
+            return null;
 
-            // provide the implementation of the annotation
-            try {
-                return provider.provide(target, annotation, this);
-            } catch (Exception e) {
-                throw new ServiceInitializationException(
-                    "Error while providing annotation " + annotation.annotationType().getName() + " for " +
-                    target.getName(), e
-                );
-            }
+        // provide the implementation of the annotation
+        try {
+            return provider.provide(target, annotation, this);
+        } catch (Exception e) {
+            throw new ServiceInitializationException(
+                "Error while providing annotation " + annotation.annotationType().getName() + " for " +
+                target.getName(), e
+            );
+        }
+    }
+
+    /**
+     * Retrieve the index of the fields and constructor parameters of the specified class, that have a registered
+     * implementation provider.
+     *
+     * @param metadata the reflective metadata of the class
+     * @return the provider index of the class, or {@code null} if there are no registered providers
+     */
+    private @Nullable ProviderIndex getProviderIndex(@NotNull ServiceMetadata metadata) {
+        // skip the indexing, if there is nothing to provide
+        if (providers.isEmpty())
+            return null;
+
+        // rebuild the index, if the registered providers changed since it was built
+        AtomicReference<ProviderIndex> cache = providerIndexes.get(metadata.type());
+        int version = providersVersion.get();
+        ProviderIndex index = cache.get();
+        if (index == null || index.version() != version) {
+            index = ProviderIndex.build(metadata, providers.keySet(), version);
+            cache.set(index);
         }
 
-        // field does not have a custom annotation provider, return null
-        return null;
+        return index;
     }
 
     /**
      * Inject implementations for custom annotations into the specified service instance.
      *
-     * @param type the class type of the service
+     * @param metadata the reflective metadata of the service class
      * @param instance the instance of the service
      *
      * @param <TService> the type of the service
      */
     private <TService> void injectProviders(
-        @NotNull Class<TService> type, @NotNull TService instance
+        @NotNull ServiceMetadata metadata, @NotNull TService instance
     ) throws ServiceInitializationException {
-        // iterate over each field of the service class
-        for (Field field : type.getDeclaredFields()) {
+        ProviderIndex index = getProviderIndex(metadata);
+        if (index == null)
+            return;
+
+        // iterate over each field of the service class, that has a registered provider
+        List<ServiceMetadata.AnnotatedField> fields = index.fields();
+        for (int i = 0; i < fields.size(); i++) {
+            InjectableMember<Field> member = fields.get(i).member();
+            Field field = member.member();
+
             // resolve the implementation of the service from the provider
-            Object provide = provideAnnotation(field.getAnnotations(), field.getType());
+            Object provide = provideAnnotation(index.fieldAnnotations().get(i), field.getType());
             // skip the field if the provider did not provide an implementation
             if (provide == null)
                 continue;
 
-            // make the field accessible for the dependency injector
-            field.setAccessible(true);
-
             // inject the implementation of the service into the field
             try {
-                field.set(instance, provide);
-            } catch (IllegalAccessException e) {
+                injectionBackend.set(member, instance, provide);
+            } catch (ReflectiveOperationException e) {
                 throw new ServiceInitializationException(
-                    "Error while injecting into field " + field.getName() + " of class " + type.getName(), e
+                    "Error while injecting into field " + field.getName() + " of class " +
+                    metadata.type().getName(), e
                 );
             }
         }
@@ -1383,6 +2001,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
     /**
      * Create an instance of the specified service and inject the required dependencies in the constructor.
      *
+     * @param frame the resolution frame of the current thread
      * @param type the type of the service
      * @param context the class context that requested the dependency
      * @return a new instance of the service type
@@ -1391,72 +2010,73 @@ public class DefaultContainerImpl implements ContainerRegistry {
      * @throws ServiceInitializationException if an error occurs while instantiating the service type
      */
     private <T> @NotNull T createInstanceWithDependencies(
-        @NotNull Class<T> type, @NotNull Class<?> context
+        @NotNull ResolutionFrame frame, @NotNull Class<T> type, @NotNull Class<?> context
     ) throws ServiceInitializationException {
-        // get the first constructor of the class
-        Constructor<T> constructor = getConstructor(type);
+        // get the constructor of the class, that the dependency injector should use
+        ServiceMetadata metadata = ServiceMetadata.of(type);
+        InjectableMember<Constructor<T>> constructor = metadata.constructorMember();
+
+        // resolve the constructor parameters, that have a registered annotation provider
+        ProviderIndex index = getProviderIndex(metadata);
 
         // create the arguments of the constructor call
-        Class<?>[] types = constructor.getParameterTypes();
-        Type[] genericTypes = constructor.getGenericParameterTypes();
-        int parameterCount = constructor.getParameterCount();
+        List<ServiceMetadata.ParameterInjection> parameters = metadata.parameters();
+        int parameterCount = parameters.size();
         // the call arguments are initially `null`, as we have no proper way of resolving non-service-based parameters
         Object[] args = new Object[parameterCount];
 
+        // resolve the independent service arguments on other threads, if parallel resolution is enabled
+        CompletableFuture<?>[] parallel = null;
+        if (parallelResolution || type.isAnnotationPresent(ParallelResolution.class))
+            parallel = resolveParallel(frame, parameters, index, context);
+
         // loop through the constructor parameters
         for (int i = 0; i < parameterCount; i++) {
+            // skip the parameters, that are being resolved by other threads
+            if (parallel != null && parallel[i] != null)
+                continue;
+
             // retrieve the metadata of the constructor parameter
-            Parameter parameter = constructor.getParameters()[i];
-            Class<?> paramType = types[i];
-            Type genericType = genericTypes[i];
-            String paramName = parameter.getName();
-
-            // try to resolve the annotation list of the constructor parameters
-            // sadly, this can fail, due to Java not properly handling this, such as returning an empty array
-            // for that reason, I'm sticking with this workaround, and warning developers of this issue
-            Annotation[] paramAnnotations = null;
-            try {
-                paramAnnotations = parameter.getDeclaredAnnotations();
-            } catch (IndexOutOfBoundsException ignored) {
-                System.err.println(
-                    "Java Reflection API was unable to resolve the parameter annotations of constructor " +
-                    constructor.getName() + " of class " + type.getName() + ". This can happen, when using " +
-                    "non static inner classes, and the parameter annotations are not available. This may change " +
-                    "the behaviour of the dependency injector, and may lead to unexpected results."
-                );
-            }
+            ServiceMetadata.ParameterInjection parameter = parameters.get(i);
+            Class<?> paramType = parameter.type();
+            Annotation[] paramAnnotations = parameter.annotations();
 
             // try to fall back to the default service resolving, if the parameter annotations are not available
             if (paramAnnotations == null) {
-                if (paramType.isAnnotationPresent(Service.class))
+                if (parameter.service())
                     args[i] = get(paramType, context);
                 continue;
             }
 
             // handle custom descriptor injection
-            Inject inject = parameter.getAnnotation(Inject.class);
+            Inject inject = parameter.inject();
             if (inject != null) {
                 args[i] = createInjectionInstance(
-                    paramType, genericType, paramName, type, inject, context,
+                    paramType, parameter.genericType(), parameter.name(), type, inject, context,
                     InjectionTarget.CONSTRUCTOR_PARAMETER
                 );
                 continue;
             }
 
             // handle custom annotation injection
-            Object provide = provideAnnotation(paramAnnotations, paramType);
+            Annotation provided = index != null ? index.parameterAnnotations()[i] : null;
+            Object provide = provided != null ? provideAnnotation(provided, paramType) : null;
             if (provide != null)
                 args[i] = provide;
 
             // handle default service resolving
-            else if (paramType.isAnnotationPresent(Service.class))
+            else if (parameter.service())
                 args[i] = get(paramType, context);
         }
 
+        // wait for the arguments, that are resolved by other threads
+        if (parallel != null)
+            joinParallel(frame, parallel, args);
+
         // create the instance with the resolved service arguments
         try {
-            return constructor.newInstance(args);
-        } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+            return injectionBackend.newInstance(constructor, args);
+        } catch (ReflectiveOperationException e) {
             throw new ServiceInitializationException(
                 "Error while creating a new instance of service " + type.getName(), e
             );
@@ -1464,9 +2084,135 @@ public class DefaultContainerImpl implements ContainerRegistry {
     }
 
     /**
-     * Instantiate the factory of the specified class type.
+     * Start resolving the independent service arguments of a constructor on the common fork-join pool.
+     * <p>
+     * Only the parameters, that are resolved as plain services, and are not cached yet, are resolved in parallel.
+     * The first of them is left for the calling thread, so that it does not idle while the other threads work.
+     *
+     * @param frame the resolution frame of the current thread
+     * @param parameters the constructor parameters of the service
+     * @param index the annotation providers of the constructor parameters, or {@code null} if there are none
+     * @param context the class context that requested the dependency
+     * @return the futures of the arguments indexed by their parameter, or {@code null} if nothing is worth
+     * resolving in parallel
+     */
+    private @NotNull CompletableFuture<?> @Nullable [] resolveParallel(
+        @NotNull ResolutionFrame frame, @NotNull List<ServiceMetadata.ParameterInjection> parameters,
+        @Nullable ProviderIndex index, @NotNull Class<?> context
+    ) {
+        // collect the parameters, that would create a new service instance
+        int parameterCount = parameters.size();
+        boolean[] candidates = new boolean[parameterCount];
+        int count = 0;
+        for (int i = 0; i < parameterCount; i++) {
+            ServiceMetadata.ParameterInjection parameter = parameters.get(i);
+            if (
+                !parameter.service() || parameter.inject() != null ||
+                (parameter.annotations() != null && index != null && index.parameterAnnotations()[i] != null) ||
+                isCached(parameter.type())
+            )
+                continue;
+            candidates[i] = true;
+            count++;
+        }
+
+        // resolving a single argument on another thread would only add overhead
+        if (count < 2)
+            return null;
+
+        // let the resolution path of the calling thread follow the arguments, to detect circular dependencies
+        Class<?>[] ancestors = frame.snapshot();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[parameterCount];
+        boolean first = true;
+        for (int i = 0; i < parameterCount; i++) {
+            if (!candidates[i])
+                continue;
+            if (first) {
+                first = false;
+                continue;
+            }
+
+            Class<?> type = parameters.get(i).type();
+            futures[i] = CompletableFuture.supplyAsync(() -> {
+                ResolutionFrame worker = ResolutionFrame.current();
+                ResolutionFrame.Inheritance inheritance = worker.inherit(ancestors, false);
+                ResolutionFrame.LazyWork lazyWork = null;
+                try {
+                    Object value = get(type, context);
+                    lazyWork = worker.takeLazyWork();
+                    return new ParallelArgument(value, lazyWork);
+                } finally {
+                    // discard the lazy work of a failed resolution, as the instance is not going to be created
+                    if (lazyWork == null)
+                        worker.takeLazyWork();
+                    worker.release(inheritance);
+                    worker.leave();
+                }
+            }, ForkJoinPool.commonPool());
+        }
+        return futures;
+    }
+
+    /**
+     * Wait for the arguments, that are resolved by other threads, and take over their lazy fields and methods.
+     *
+     * @param frame the resolution frame of the current thread
+     * @param futures the futures of the arguments indexed by their parameter
+     * @param args the arguments of the constructor call to fill
+     *
+     * @throws GenericServiceException if any of the arguments could not be resolved
+     */
+    private static void joinParallel(
+        @NotNull ResolutionFrame frame, @NotNull CompletableFuture<?> @NotNull [] futures,
+        @Nullable Object @NotNull [] args
+    ) {
+        RuntimeException failure = null;
+        for (int i = 0; i < futures.length; i++) {
+            if (futures[i] == null)
+                continue;
+
+            // wait for every argument, so that no thread keeps resolving for a failed service
+            try {
+                ParallelArgument argument = (ParallelArgument) futures[i].join();
+                args[i] = argument.value();
+                if (argument.lazyWork() != null)
+                    frame.addLazyWork(argument.lazyWork());
+            } catch (CompletionException e) {
+                if (failure == null)
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Check whether an instance of the specified service type is already cached by the container, that owns it.
+     *
+     * @param type the class type of the service
+     * @return {@code true} if the service is cached, {@code false} if it is going to be created
+     */
+    private boolean isCached(@NotNull Class<?> type) {
+        Service service = type.getAnnotation(Service.class);
+        if (service == null || service.scope() == ServiceScope.TRANSIENT)
+            return false;
+
+        // singletons are cached by the root container
+        DefaultContainerImpl owner = this;
+        if (service.scope() == ServiceScope.SINGLETON && rootContainer instanceof DefaultContainerImpl)
+            owner = (DefaultContainerImpl) rootContainer;
+        return owner.dependencies.containsKey(type);
+    }
+
+    /**
+     * Resolve the factory instance of the specified class type.
+     * <p>
+     * Factories annotated with {@link Service} are resolved from the container, factories annotated with
+     * {@link SharedFactory} are instantiated once, and any other factory is instantiated for each call.
      *
      * @param type the class type of the factory
+     * @param context the class that requested the dependency
      * @return the factory instance of the specified type
      * @param <TService> the service type of the factory
      *
@@ -1474,18 +2220,40 @@ public class DefaultContainerImpl implements ContainerRegistry {
      */
     @SuppressWarnings("unchecked")
     private <TService, TProperties> @Nullable Factory<TService, TProperties> createFactory(
-        @NotNull Class<? extends Factory<?, ?>> type
+        @NotNull Class<? extends Factory<?, ?>> type, @NotNull Class<?> context
     ) throws ServiceInitializationException {
         // return null if the factory was not specified
         if (type == NoFactory.class)
             return null;
 
+        // let the container resolve the factory, if it is a service itself
+        if (ServiceMetadata.of(type).descriptor() != null)
+            return (Factory<TService, TProperties>) get(type, context);
+
+        // reuse the factory instance, if the factory is stateless
+        if (type.isAnnotationPresent(SharedFactory.class))
+            return (Factory<TService, TProperties>) SHARED_FACTORIES.get(type);
+
+        return (Factory<TService, TProperties>) instantiateFactory(type);
+    }
+
+    /**
+     * Instantiate the factory of the specified class type.
+     *
+     * @param type the class type of the factory
+     * @return a new factory instance of the specified type
+     *
+     * @throws ServiceInitializationException if an error occurs while creating the factory instance
+     */
+    private static @NotNull Factory<?, ?> instantiateFactory(
+        @NotNull Class<? extends Factory<?, ?>> type
+    ) throws ServiceInitializationException {
         // resolve the constructor of the factory
-        Constructor<? extends Factory<?, ?>> constructor = getConstructor(type);
+        Constructor<? extends Factory<?, ?>> constructor = ServiceMetadata.of(type).constructor();
 
         // create a new instance of the factory
         try {
-            return (Factory<TService, TProperties>) constructor.newInstance();
+            return constructor.newInstance();
         } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
             throw new ServiceInitializationException(
                 "Error while creating a new instance of factory " + type.getName(), e
@@ -1493,45 +2261,6 @@ public class DefaultContainerImpl implements ContainerRegistry {
         }
     }
 
-    /**
-     * Resolve the constructor of the specified class type, that the dependency injector should use
-     * to instantiate the class type with.
-     *
-     * @param type the class of the type
-     * @return the constructor of the class type
-     *
-     * @param <T> the type of the class
-     */
-    @SuppressWarnings("unchecked")
-    private <T> @NotNull Constructor<T> getConstructor(@NotNull Class<T> type) throws InvalidServiceException {
-        Constructor<T> constructor = null;
-
-        // if the class has only one constructor, use it to create the instance
-        Constructor<T>[] constructors = (Constructor<T>[]) type.getDeclaredConstructors();
-        if (constructors.length == 1)
-            constructor = constructors[0];
-
-        // if the class has multiple constructors, use the one annotated with @ConstructWith
-        else {
-            // check for each constructor declared by the service's class
-            for (Constructor<T> test : constructors) {
-                if (test.isAnnotationPresent(ConstructWith.class)) {
-                    constructor = test;
-                    break;
-                }
-            }
-            // check if no constructor were indicated, for the dependency injector to construct with
-            if (constructor == null)
-                throw new InvalidServiceException(
-                    "Class " + type.getName() + " has multiple constructors, but none of them is annotated with " +
-                    "@ConstructWith, therefore the dependency injector cannot decide, which one to use."
-                );
-        }
-
-        constructor.setAccessible(true);
-        return constructor;
-    }
-
     /**
      * Check if the caller class context has permission to access the specified dependency type.
      *
@@ -1598,7 +2327,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
     @Override
     public <T> void set(@NotNull Class<T> type, @NotNull T dependency) {
         try {
-            set(type, dependency, Contexts.getCallerClass(Thread.currentThread().getStackTrace()));
+            set(type, dependency, Contexts.getCallerClass());
         } catch (ClassNotFoundException e) {
             set(type, dependency, Container.class);
         }
@@ -1616,7 +2345,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
     @Override
     public <T> void set(@NotNull Class<T> type, @NotNull T dependency, Class<?> context) {
         // validate that the service type annotates the service descriptor annotation
-        Service service = type.getAnnotation(Service.class);
+        Service service = ServiceMetadata.of(type).descriptor();
         if (service == null)
             throw new InvalidServiceException("Class " + type.getName() + " is not a service");
 
@@ -1636,7 +2365,10 @@ public class DefaultContainerImpl implements ContainerRegistry {
         unset(type);
 
         // cache the service instance in the container
-        dependencies.put(type, new CachedDependency<>(dependency, service, context, resolveTerminators(type)));
+        dependencies.put(
+            type, new CachedDependency<>(dependency, service, context, ServiceMetadata.of(type).terminators())
+        );
+        invalidateGroup(service);
     }
 
     /**
@@ -1683,6 +2415,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
         CachedDependency<?> dependency = dependencies.remove(type);
         if (dependency == null)
             return;
+        invalidateGroup(dependency.descriptor());
 
         handleTerminate(type.cast(dependency.value()), dependency.terminators());
     }
@@ -1699,6 +2432,7 @@ public class DefaultContainerImpl implements ContainerRegistry {
         CachedDependency<?> dependency = dependencies.remove(type);
         if (dependency == null)
             return;
+        invalidateGroup(dependency.descriptor());
 
         T value = type.cast(dependency.value());
         callback.accept(value);
@@ -1717,8 +2451,8 @@ public class DefaultContainerImpl implements ContainerRegistry {
     ) throws ServiceRuntimeException {
         for (Method method : methods) {
             try {
-                method.invoke(value);
-            } catch (InvocationTargetException | IllegalAccessException e) {
+                injectionBackend.invoke(method, value);
+            } catch (ReflectiveOperationException e) {
                 throw new ServiceRuntimeException(
                     "Error whilst invoking termination method `" + method.getName() + "` of service " +
                     value.getClass().getName(), e
@@ -1741,17 +2475,150 @@ public class DefaultContainerImpl implements ContainerRegistry {
      * Reset the container instance to its initial state.
      * <p>
      * Invalidate the cache for all the registered dependencies and values.
+     * <p>
+     * The services are terminated in the reverse order of their dependencies, therefore a service is terminated
+     * before the services it depends on. Services, that do not depend on each other, are terminated in parallel, and
+     * each service is given {@link #getTerminationTimeout()} to complete its termination methods.
+     *
+     * @throws ServiceTerminationException if any of the services failed to terminate, or timed out
      */
     @Override
     public void reset() {
         // TODO check access to the container
 
         // call termination hooks before the container is cleared
-        for (Class<?> type : dependencies.keySet())
-            unset(type);
+        Map<Class<?>, CachedDependency<?>> removed = new LinkedHashMap<>(dependencies);
+        Map<Class<?>, Throwable> failures = terminateAll(removed);
 
         dependencies.clear();
         values.clear();
+        for (CachedDependency<?> dependency : removed.values())
+            invalidateGroup(dependency.descriptor());
+
+        if (!failures.isEmpty())
+            throw new ServiceTerminationException(failures);
+    }
+
+    /**
+     * Terminate the specified dependencies in the reverse order of their dependency graph.
+     * <p>
+     * Each dependency is removed from the cache right before its termination methods are called, so that the
+     * dependencies, that are terminated later, are still available to the termination methods.
+     *
+     * @param cached the cached dependencies to terminate
+     * @return the map of the services, that failed to terminate, to the error of their termination
+     */
+    private @NotNull Map<@NotNull Class<?>, @NotNull Throwable> terminateAll(
+        @NotNull Map<@NotNull Class<?>, @NotNull CachedDependency<?>> cached
+    ) {
+        Map<Class<?>, Throwable> failures = new LinkedHashMap<>();
+        if (cached.isEmpty())
+            return failures;
+
+        // the services, that are part of a cycle, are terminated first in the reverse order of their creation,
+        // then the levels of the graph are terminated, starting from the services that nothing depends on
+        WarmUpPlan plan = WarmUpPlan.of(cached.keySet());
+        List<List<Class<?>>> stages = new ArrayList<>();
+        List<Class<?>> cyclic = new ArrayList<>(plan.cyclic());
+        cyclic.sort(Comparator.comparingLong((Class<?> type) -> cached.get(type).sequence()).reversed());
+        for (Class<?> type : cyclic)
+            stages.add(Collections.singletonList(type));
+        for (int i = plan.levels().size() - 1; i >= 0; i--)
+            stages.add(plan.levels().get(i));
+
+        AtomicInteger threads = new AtomicInteger();
+        for (List<Class<?>> stage : stages) {
+            // the plan also contains the dependencies, that are not cached by this container
+            List<Class<?>> services = new ArrayList<>();
+            for (Class<?> type : stage) {
+                CachedDependency<?> dependency = cached.get(type);
+                if (dependency == null || !dependencies.remove(type, dependency))
+                    continue;
+                if (!dependency.terminators().isEmpty())
+                    services.add(type);
+            }
+            if (!services.isEmpty())
+                terminateStage(services, cached, failures, threads);
+        }
+
+        return failures;
+    }
+
+    /**
+     * Terminate the specified services, that do not depend on each other, in parallel, and wait for each of them to
+     * complete within the termination timeout.
+     * <p>
+     * Each service is terminated on a fresh thread, and at most {@link #TERMINATION_PARALLELISM} services are
+     * terminated at the same time. The threads of the services, that do not complete in time, are interrupted and
+     * abandoned, therefore they do not hold back the remaining services, even if they ignore the interruption.
+     * Services, that are not started, because the resetting thread is interrupted, are reported with a
+     * {@link CancellationException}.
+     *
+     * @param services the services to terminate
+     * @param cached the cached dependencies of the services
+     * @param failures the map to register the services, that failed to terminate, in
+     * @param threads the counter of the termination threads, that is used to name the threads
+     */
+    private void terminateStage(
+        @NotNull List<@NotNull Class<?>> services, @NotNull Map<@NotNull Class<?>, @NotNull CachedDependency<?>> cached,
+        @NotNull Map<@NotNull Class<?>, @NotNull Throwable> failures, @NotNull AtomicInteger threads
+    ) {
+        long timeout = terminationTimeout.toNanos();
+        Deque<Class<?>> pending = new ArrayDeque<>(services);
+        List<TerminationWorker> running = new ArrayList<>();
+        BlockingQueue<TerminationWorker> completed = new LinkedBlockingQueue<>();
+        try {
+            while (!pending.isEmpty() || !running.isEmpty()) {
+                while (!pending.isEmpty() && running.size() < TERMINATION_PARALLELISM) {
+                    if (Thread.currentThread().isInterrupted())
+                        throw new InterruptedException();
+
+                    Class<?> type = pending.poll();
+                    CachedDependency<?> dependency = cached.get(type);
+                    TerminationWorker worker = new TerminationWorker(
+                        type, () -> handleTerminate(dependency.value(), dependency.terminators()), completed,
+                        name + "-terminator-" + threads.incrementAndGet()
+                    );
+                    worker.start(timeout);
+                    running.add(worker);
+                }
+
+                // wait for a service to complete, or for the earliest deadline of the running services to pass
+                long deadline = running.get(0).deadline();
+                for (TerminationWorker worker : running)
+                    deadline = Math.min(deadline, worker.deadline());
+                TerminationWorker worker = completed.poll(
+                    Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS
+                );
+                // a worker, that completes right after it has been abandoned, is no longer running
+                if (worker != null) {
+                    if (running.remove(worker) && worker.failure() != null)
+                        failures.put(worker.type(), worker.failure());
+                    continue;
+                }
+
+                // abandon the services, that did not complete in time, so that the remaining ones get a fresh thread
+                long now = System.nanoTime();
+                for (Iterator<TerminationWorker> iterator = running.iterator(); iterator.hasNext(); ) {
+                    TerminationWorker expired = iterator.next();
+                    if (expired.deadline() - now > 0)
+                        continue;
+                    iterator.remove();
+                    expired.abandon();
+                    failures.put(expired.type(), new TimeoutException(
+                        "Termination did not complete within " + terminationTimeout.toMillis() + " ms"
+                    ));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (TerminationWorker worker : running) {
+                worker.abandon();
+                failures.put(worker.type(), e);
+            }
+            for (Class<?> type : pending)
+                failures.put(type, new CancellationException("Termination was never started"));
+        }
     }
 
     /**
@@ -0,0 +1,155 @@
+package com.atlas.divine.impl;
+
+import com.atlas.divine.descriptor.factory.Factory;
+import com.atlas.divine.exception.InvalidServiceAccessException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents an internal utility that resolves the generic types of {@link Factory} implementations.
+ * <p>
+ * The types are resolved once per factory class, through the whole superclass and interface hierarchy, therefore
+ * factories may extend generic base classes or implement {@link Factory} through other interfaces.
+ */
+final class FactoryTypes {
+    /**
+     * The index of the {@code TProperties} type parameter of the {@link Factory} interface.
+     */
+    private static final int PROPERTIES_INDEX = 1;
+
+    /**
+     * The cache of the resolved properties types for each factory class.
+     */
+    private static final @NotNull ClassValue<@NotNull Class<?>> PROPERTIES_TYPES = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(@NotNull Class<?> type) {
+            Type propertiesType = findFactoryArgument(type, new HashMap<>());
+            if (propertiesType == null)
+                throw new InvalidServiceAccessException(
+                    "Factory " + type.getName() + " requires generic types: <TService, TProperties>, but found none"
+                );
+            return erase(propertiesType);
+        }
+    };
+
+    /**
+     * Prevent the instantiation of the utility class.
+     */
+    private FactoryTypes() {
+    }
+
+    /**
+     * Resolve the type of the properties, that the specified factory class requires.
+     *
+     * @param factoryType the class of the factory
+     * @return the generic properties type of the factory
+     *
+     * @throws InvalidServiceAccessException if the factory does not specify the generic types of {@link Factory}
+     */
+    static @NotNull Class<?> getPropertiesType(
+        @NotNull Class<? extends Factory<?, ?>> factoryType
+    ) throws InvalidServiceAccessException {
+        return PROPERTIES_TYPES.get(factoryType);
+    }
+
+    /**
+     * Find the {@code TProperties} argument of the {@link Factory} interface in the hierarchy of the specified type.
+     *
+     * @param type the type to search the hierarchy of
+     * @param bindings the resolved type arguments of the type variables declared by the subtypes
+     * @return the resolved properties type, or {@code null} if the hierarchy does not parameterize {@link Factory}
+     */
+    private static @Nullable Type findFactoryArgument(
+        @NotNull Type type, @NotNull Map<@NotNull TypeVariable<?>, @NotNull Type> bindings
+    ) {
+        Class<?> raw;
+        Map<TypeVariable<?>, Type> scope = new HashMap<>();
+
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            raw = (Class<?>) parameterized.getRawType();
+
+            // bind the type parameters of the raw type to the actual arguments of the current scope
+            TypeVariable<?>[] variables = raw.getTypeParameters();
+            Type[] arguments = parameterized.getActualTypeArguments();
+            for (int i = 0; i < variables.length; i++)
+                scope.put(variables[i], substitute(arguments[i], bindings));
+
+            if (raw == Factory.class)
+                return scope.get(variables[PROPERTIES_INDEX]);
+        } else if (type instanceof Class<?>)
+            raw = (Class<?>) type;
+        else
+            return null;
+
+        // the factory interface is implemented as a raw type, the properties type cannot be resolved
+        if (raw == Factory.class || !Factory.class.isAssignableFrom(raw))
+            return null;
+
+        // walk the generic superclass first, then the generic interfaces
+        Type superclass = raw.getGenericSuperclass();
+        if (superclass != null) {
+            Type result = findFactoryArgument(superclass, scope);
+            if (result != null)
+                return result;
+        }
+
+        for (Type genericInterface : raw.getGenericInterfaces()) {
+            Type result = findFactoryArgument(genericInterface, scope);
+            if (result != null)
+                return result;
+        }
+
+        return null;
+    }
+
+    /**
+     * Replace the type variable with its bound argument, if the specified type is a bound type variable.
+     *
+     * @param type the type to substitute
+     * @param bindings the resolved type arguments of the type variables
+     * @return the substituted type
+     */
+    private static @NotNull Type substitute(
+        @NotNull Type type, @NotNull Map<@NotNull TypeVariable<?>, @NotNull Type> bindings
+    ) {
+        if (type instanceof TypeVariable<?>) {
+            Type bound = bindings.get(type);
+            return bound != null ? bound : type;
+        }
+        return type;
+    }
+
+    /**
+     * Resolve the raw class of the specified type.
+     * <p>
+     * Unresolved type variables and wildcards are erased to their upper bounds.
+     *
+     * @param type the type to erase
+     * @return the raw class of the type
+     */
+    private static @NotNull Class<?> erase(@NotNull Type type) {
+        if (type instanceof Class<?>)
+            return (Class<?>) type;
+        if (type instanceof ParameterizedType)
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        if (type instanceof TypeVariable<?>)
+            return erase(((TypeVariable<?>) type).getBounds()[0]);
+        if (type instanceof WildcardType)
+            return erase(((WildcardType) type).getUpperBounds()[0]);
+        if (type instanceof GenericArrayType)
+            return Array.newInstance(
+                erase(((GenericArrayType) type).getGenericComponentType()), 0
+            ).getClass();
+        return Object.class;
+    }
+}
@@ -0,0 +1,28 @@
+package com.atlas.divine.impl;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a constructor argument, that was resolved by another thread than the one creating the service.
+ * <p>
+ * The lazy fields and methods, that were registered while the argument was resolved, belong to the dependency tree
+ * of the service, therefore they are handed over to the thread, that creates the service.
+ */
+@RequiredArgsConstructor
+@Accessors(fluent = true)
+@Getter
+final class ParallelArgument {
+    /**
+     * The resolved instance of the argument.
+     */
+    private final @NotNull Object value;
+
+    /**
+     * The lazy fields and methods registered during the resolution, or {@code null} if there are none.
+     */
+    private final @Nullable ResolutionFrame.LazyWork lazyWork;
+}
@@ -0,0 +1,115 @@
+package com.atlas.divine.impl;
+
+import com.atlas.divine.exception.CircularDependencyException;
+import com.atlas.divine.exception.ServiceInitializationException;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Represents a dependency instance that is currently being created by a thread, or by an asynchronous factory.
+ * <p>
+ * Other threads that request the same dependency wait for the creation to complete the instance, instead of
+ * creating a duplicate instance of the dependency.
+ */
+@Accessors(fluent = true)
+@Getter
+final class PendingDependency {
+    /**
+     * The map of threads, that are currently waiting for a pending dependency, to the dependency they are waiting for.
+     * <p>
+     * It is used to detect threads, that would wait for each other to complete their dependencies.
+     */
+    private static final @NotNull Map<@NotNull Thread, @NotNull PendingDependency> WAITING = new ConcurrentHashMap<>();
+
+    /**
+     * The class type of the dependency that is being created.
+     */
+    private final @NotNull Class<?> type;
+
+    /**
+     * The thread that is creating the dependency instance, or {@code null} if the dependency is created
+     * asynchronously, and no thread owns the creation.
+     */
+    private final @Nullable Thread owner;
+
+    /**
+     * The future that is completed, when the dependency instance is created.
+     */
+    private final @NotNull CompletableFuture<@NotNull Object> future = new CompletableFuture<>();
+
+    /**
+     * Initialize a new pending dependency.
+     *
+     * @param type the class type of the dependency that is being created
+     * @param owner the thread that is creating the dependency, or {@code null} if it is created asynchronously
+     */
+    PendingDependency(@NotNull Class<?> type, @Nullable Thread owner) {
+        this.type = type;
+        this.owner = owner;
+    }
+
+    /**
+     * Wait for the owner thread to complete the dependency instance.
+     *
+     * @return the created dependency instance
+     *
+     * @throws CircularDependencyException if waiting for the dependency would never complete
+     * @throws ServiceInitializationException if the owner thread failed to create the dependency
+     */
+    @NotNull Object await() {
+        // fast path, the dependency might have been completed in the meantime
+        if (future.isDone())
+            return join();
+
+        Thread current = Thread.currentThread();
+        WAITING.put(current, this);
+        try {
+            // walk the chain of threads, that the owner thread is waiting for, and check whether
+            // any of them is waiting for the current thread, which would never complete
+            PendingDependency pending = this;
+            for (int depth = 0; pending != null && pending.owner != null && depth <= WAITING.size(); depth++) {
+                if (pending.owner == current)
+                    throw new CircularDependencyException(
+                        "Circular dependency detected for service " + type.getName() + ", as it is being created " +
+                        "by a thread, that is waiting for service " + pending.type.getName() + " of the current " +
+                        "thread. Consider using Ref<T>, or @Inject(lazy=true) to lazily inject the dependency."
+                    );
+                pending = WAITING.get(pending.owner);
+            }
+
+            return join();
+        } finally {
+            WAITING.remove(current);
+        }
+    }
+
+    /**
+     * Wait for the future of the dependency to complete, and unwrap the failure of the owner thread.
+     *
+     * @return the created dependency instance
+     */
+    private @NotNull Object join() {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceInitializationException(
+                "Interrupted whilst waiting for service " + type.getName() + " to be initialized", e
+            );
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new ServiceInitializationException("Error whilst initializing service " + type.getName(), cause);
+        }
+    }
+}
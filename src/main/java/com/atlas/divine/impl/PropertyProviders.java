@@ -0,0 +1,117 @@
+package com.atlas.divine.impl;
+
+import com.atlas.divine.descriptor.generic.Service;
+import com.atlas.divine.descriptor.property.PropertyProvider;
+import com.atlas.divine.descriptor.property.PureProvider;
+import com.atlas.divine.exception.ServiceInitializationException;
+import com.google.common.collect.MapMaker;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+
+/**
+ * Represents an internal registry of the property provider instances, that are shared between all the containers.
+ * <p>
+ * Each provider class is instantiated once. The results of the providers annotated with {@link PureProvider} are
+ * memoized for each dependency type and caller context pair.
+ */
+final class PropertyProviders {
+    /**
+     * The cache of the provider instances for each provider class.
+     */
+    private static final @NotNull ClassValue<@NotNull CachedProvider> PROVIDERS = new ClassValue<CachedProvider>() {
+        @Override
+        protected CachedProvider computeValue(@NotNull Class<?> type) {
+            return new CachedProvider(
+                instantiate(type), type.isAnnotationPresent(PureProvider.class) ? new ProvidedProperties() : null
+            );
+        }
+    };
+
+    /**
+     * Prevent the instantiation of the utility class.
+     */
+    private PropertyProviders() {
+    }
+
+    /**
+     * Provide the properties for the specified dependency, using the specified provider class.
+     *
+     * @param providerType the class of the property provider
+     * @param descriptor the service descriptor of the dependency
+     * @param type the type of the dependency
+     * @param context the caller class that the container is being called from
+     * @return the properties to be passed to the factory of the dependency
+     *
+     * @throws ServiceInitializationException if the provider cannot be instantiated
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static @NotNull Object provide(
+        @NotNull Class<? extends PropertyProvider<?, ?>> providerType, @NotNull Service descriptor,
+        @NotNull Class<?> type, @NotNull Class<?> context
+    ) throws ServiceInitializationException {
+        CachedProvider cached = PROVIDERS.get(providerType);
+        PropertyProvider provider = cached.provider;
+
+        // call the provider each time, if it does not guarantee the same result for the same arguments
+        if (cached.results == null)
+            return provider.provide(descriptor, type, context);
+
+        return cached.results.get(type).computeIfAbsent(context, key -> provider.provide(descriptor, type, key));
+    }
+
+    /**
+     * Create a new instance of the specified property provider class.
+     *
+     * @param type the class of the property provider
+     * @return a new instance of the property provider
+     *
+     * @throws ServiceInitializationException if an error occurs while creating the provider instance
+     */
+    private static @NotNull PropertyProvider<?, ?> instantiate(
+        @NotNull Class<?> type
+    ) throws ServiceInitializationException {
+        try {
+            return ServiceMetadata.of(type).<PropertyProvider<?, ?>>constructor().newInstance();
+        } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+            throw new ServiceInitializationException(
+                "Error while creating a new instance of the property provider " + type, e
+            );
+        }
+    }
+
+    /**
+     * Represents a provider instance, with the memoized results of it, if the provider is pure.
+     */
+    @RequiredArgsConstructor
+    private static final class CachedProvider {
+        /**
+         * The shared instance of the property provider.
+         */
+        private final @NotNull PropertyProvider<?, ?> provider;
+
+        /**
+         * The memoized results of the provider, or {@code null} if the provider is not pure.
+         */
+        private final @Nullable ProvidedProperties results;
+    }
+
+    /**
+     * Represents the memoized results of a pure provider for each dependency type.
+     * <p>
+     * The results are stored on the dependency types, and are weakly keyed by the caller contexts, therefore the
+     * memoization does not prevent the class loaders of the dependencies and the callers from being unloaded.
+     */
+    private static final class ProvidedProperties extends ClassValue<@NotNull Map<@NotNull Class<?>, @NotNull Object>> {
+        @Override
+        protected Map<Class<?>, Object> computeValue(@NotNull Class<?> type) {
+            return new MapMaker()
+                .weakKeys()
+                .concurrencyLevel(4)
+                .makeMap();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.atlas.divine.impl;
+
+import com.atlas.divine.provider.AnnotationProvider;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Represents an index of the fields and constructor parameters of a class, that carry an annotation, which has
+ * a registered {@link AnnotationProvider} in a container.
+ * <p>
+ * The index is built for a specific version of the registered providers, and it has to be rebuilt, when a provider
+ * is added to or removed from the container.
+ */
+@RequiredArgsConstructor
+@Accessors(fluent = true)
+@Getter
+final class ProviderIndex {
+    /**
+     * The version of the registered providers, that the index was built for.
+     */
+    private final int version;
+
+    /**
+     * The fields of the class, that have an annotation with a registered provider.
+     */
+    private final @NotNull List<ServiceMetadata.@NotNull AnnotatedField> fields;
+
+    /**
+     * The annotations of the {@link #fields}, that have a registered provider, in the same order.
+     */
+    private final @NotNull List<@NotNull Annotation> fieldAnnotations;
+
+    /**
+     * The annotation of each constructor parameter, that has a registered provider, or {@code null} for
+     * the parameters that have none.
+     */
+    private final @Nullable Annotation @NotNull [] parameterAnnotations;
+
+    /**
+     * Create a new cache of the provider indexes for each class.
+     *
+     * @return the new provider index cache
+     */
+    static @NotNull ClassValue<@NotNull AtomicReference<@Nullable ProviderIndex>> newCache() {
+        return new ClassValue<AtomicReference<ProviderIndex>>() {
+            @Override
+            protected AtomicReference<ProviderIndex> computeValue(@NotNull Class<?> type) {
+                return new AtomicReference<>();
+            }
+        };
+    }
+
+    /**
+     * Build the provider index of the specified class metadata.
+     *
+     * @param metadata the reflective metadata of the class
+     * @param registered the annotation types, that have a registered provider
+     * @param version the version of the registered providers
+     * @return the provider index of the class
+     */
+    static @NotNull ProviderIndex build(
+        @NotNull ServiceMetadata metadata, @NotNull Set<@NotNull Class<? extends Annotation>> registered, int version
+    ) {
+        List<ServiceMetadata.AnnotatedField> fields = new ArrayList<>();
+        List<Annotation> fieldAnnotations = new ArrayList<>();
+        for (ServiceMetadata.AnnotatedField field : metadata.annotatedFields()) {
+            Annotation annotation = findProvided(field.annotations(), registered);
+            if (annotation == null)
+                continue;
+            fields.add(field);
+            fieldAnnotations.add(annotation);
+        }
+
+        List<ServiceMetadata.ParameterInjection> parameters = metadata.parameters();
+        Annotation[] parameterAnnotations = new Annotation[parameters.size()];
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            ServiceMetadata.ParameterInjection parameter = parameters.get(i);
+            // parameters with unavailable annotations, or with @Inject are never handled by the providers
+            Annotation[] annotations = parameter.annotations();
+            if (annotations == null || parameter.inject() != null)
+                continue;
+            parameterAnnotations[i] = findProvided(annotations, registered);
+        }
+
+        return new ProviderIndex(version, fields, fieldAnnotations, parameterAnnotations);
+    }
+
+    /**
+     * Find the first annotation, that has a registered provider.
+     *
+     * @param annotations the annotations to search in
+     * @param registered the annotation types, that have a registered provider
+     * @return the first annotation with a registered provider, or {@code null} if there is none
+     */
+    private static @Nullable Annotation findProvided(
+        @NotNull Annotation @NotNull [] annotations, @NotNull Set<@NotNull Class<? extends Annotation>> registered
+    ) {
+        for (Annotation annotation : annotations) {
+            if (registered.contains(annotation.annotationType()))
+                return annotation;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,478 @@
+package com.atlas.divine.impl;
+
+import com.atlas.divine.descriptor.generic.Inject;
+import com.atlas.divine.runtime.inject.InjectableMember;
+import com.atlas.divine.runtime.lazy.LazyFieldAccess;
+import com.atlas.divine.runtime.lifecycle.AfterInitialized;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Represents the state of the dependency resolution of a thread, that is shared between all the containers of the
+ * container hierarchy.
+ * <p>
+ * The frame tracks the path of the services, that are currently being resolved, in order to detect circular
+ * dependencies, even if the path crosses multiple containers. Membership is checked in constant time, using a bitset
+ * of unique class identifiers, and the frame does not allocate once its arrays have grown to the depth of the tree.
+ * <p>
+ * The frame also holds the lazy fields and lazy initialization methods, that are processed after the whole dependency
+ * tree is resolved.
+ * <p>
+ * The container passes the frame explicitly down the resolution chain of a service, and the frame is only looked up,
+ * when a resolution starts, or when the container is re-entered, such as from a factory or a constructor.
+ * <p>
+ * Virtual threads are created for each task, therefore a frame is only bound to a virtual thread while it resolves a
+ * dependency tree. The binding is kept in a map keyed by the thread instead of a thread local, so a virtual thread does
+ * not allocate a thread local map for the frame. Once the frame is idle, it is unbound, and returned to a shared pool
+ * of frames, so the number of frames follows the number of concurrent resolutions, instead of the number of threads,
+ * that have ever used a container.
+ */
+@Accessors(fluent = true)
+final class ResolutionFrame {
+    /**
+     * The counter of the unique identifiers assigned to classes.
+     */
+    private static final @NotNull AtomicInteger NEXT_ID = new AtomicInteger();
+
+    /**
+     * The cache of the unique identifier of each class, that is used as an index in the bitset of resolving classes.
+     */
+    private static final @NotNull ClassValue<@NotNull Integer> IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(@NotNull Class<?> type) {
+            return NEXT_ID.getAndIncrement();
+        }
+    };
+
+    /**
+     * The method handle of {@code Thread#isVirtual()}, or {@code null} if the runtime does not support virtual threads.
+     */
+    private static final @Nullable MethodHandle IS_VIRTUAL = findIsVirtual();
+
+    /**
+     * The pool of the idle frames, that are reused by virtual threads.
+     */
+    private static final @NotNull AtomicReferenceArray<@Nullable ResolutionFrame> IDLE =
+        new AtomicReferenceArray<>(64);
+
+    /**
+     * The resolution frame of each platform thread.
+     */
+    private static final @NotNull ThreadLocal<@NotNull ResolutionFrame> FRAMES =
+        ThreadLocal.withInitial(() -> new ResolutionFrame(false));
+
+    /**
+     * The resolution frames of the virtual threads, that are currently resolving a dependency tree.
+     */
+    private static final @NotNull Map<@NotNull Thread, @NotNull ResolutionFrame> BOUND = new ConcurrentHashMap<>();
+
+    /**
+     * The indication, whether this frame is bound to a virtual thread, and should be returned to the pool of the idle
+     * frames, when the thread is done resolving.
+     */
+    private final boolean pooled;
+
+    /**
+     * The path of the classes, that are currently being resolved, ordered from the root of the tree.
+     */
+    private @Nullable Class<?> @NotNull [] path = new Class<?>[16];
+
+    /**
+     * The number of classes in the {@link #path}.
+     */
+    private int depth;
+
+    /**
+     * The number of classes at the start of the {@link #path}, that were inherited from another thread, which
+     * resolves the services, that the current work of this thread was submitted from.
+     */
+    private int base;
+
+    /**
+     * The bitset of the identifiers of the classes, that are currently being resolved.
+     */
+    private long @NotNull [] resolving = new long[4];
+
+    /**
+     * The map of fields to be lazily injected, after the whole dependency tree is resolved.
+     * <p>
+     * All fields annotated with {@link Inject} that specify {@code lazy = true} are registered here.
+     */
+    @Getter
+    private final @NotNull Map<@NotNull Field, @NotNull LazyField> lazyFields = new LinkedHashMap<>();
+
+    /**
+     * The map of initialization methods to be lazily invoked, after the whole dependency tree is resolved.
+     * <p>
+     * All methods annotated with {@link AfterInitialized} that specify {@code lazy = true} are registered here.
+     */
+    @Getter
+    private final @NotNull Map<@NotNull Method, @NotNull LazyMethod> lazyMethods = new LinkedHashMap<>();
+
+    /**
+     * The indication, whether the lazy fields are currently being injected.
+     */
+    @Getter
+    @Setter
+    private boolean injectingLazyFields;
+
+    /**
+     * The indication, whether the lazy methods are currently being invoked.
+     */
+    @Getter
+    @Setter
+    private boolean invokingLazyMethods;
+
+    /**
+     * Retrieve the resolution frame of the current thread.
+     *
+     * @return the resolution frame of the current thread
+     */
+    static @NotNull ResolutionFrame current() {
+        Thread thread = Thread.currentThread();
+        if (!isVirtual(thread))
+            return FRAMES.get();
+
+        ResolutionFrame frame = BOUND.get(thread);
+        if (frame == null) {
+            frame = acquire(thread);
+            BOUND.put(thread, frame);
+        }
+        return frame;
+    }
+
+    /**
+     * Initialize a new resolution frame.
+     *
+     * @param pooled whether the frame is returned to the pool of the idle frames
+     */
+    private ResolutionFrame(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    /**
+     * Reuse an idle frame for the specified virtual thread, or create a new one, if the pool is empty.
+     *
+     * @param thread the virtual thread to acquire the frame for
+     * @return the resolution frame for the thread
+     */
+    private static @NotNull ResolutionFrame acquire(@NotNull Thread thread) {
+        int start = (int) thread.getId() & (IDLE.length() - 1);
+        for (int i = 0; i < IDLE.length(); i++) {
+            ResolutionFrame frame = IDLE.getAndSet((start + i) & (IDLE.length() - 1), null);
+            if (frame != null)
+                return frame;
+        }
+        return new ResolutionFrame(true);
+    }
+
+    /**
+     * Unbind this frame from the current thread, if the thread is virtual, and the frame is no longer resolving any
+     * dependencies, so that the frame can be reused by other virtual threads.
+     * <p>
+     * This should be called, when the outermost work of the container on the current thread completes.
+     */
+    void leave() {
+        if (
+            !pooled || depth > 0 || injectingLazyFields || invokingLazyMethods || !lazyFields.isEmpty() ||
+            !lazyMethods.isEmpty()
+        )
+            return;
+
+        if (!BOUND.remove(Thread.currentThread(), this))
+            return;
+        int start = (int) Thread.currentThread().getId() & (IDLE.length() - 1);
+        for (int i = 0; i < IDLE.length(); i++) {
+            if (IDLE.compareAndSet((start + i) & (IDLE.length() - 1), null, this))
+                return;
+        }
+        // the pool is full, let the frame be garbage collected
+    }
+
+    /**
+     * Check whether the specified class is currently being resolved.
+     *
+     * @param type the class to check
+     * @return {@code true} if the class is in the resolution path, {@code false} otherwise
+     */
+    boolean contains(@NotNull Class<?> type) {
+        int id = IDS.get(type);
+        int index = id >>> 6;
+        return index < resolving.length && (resolving[index] & (1L << id)) != 0;
+    }
+
+    /**
+     * Append the specified class to the end of the resolution path.
+     *
+     * @param type the class that is being resolved
+     */
+    void push(@NotNull Class<?> type) {
+        int id = IDS.get(type);
+        int index = id >>> 6;
+        if (index >= resolving.length)
+            resolving = Arrays.copyOf(resolving, Math.max(index + 1, resolving.length * 2));
+        resolving[index] |= 1L << id;
+
+        if (depth == path.length)
+            path = Arrays.copyOf(path, depth * 2);
+        path[depth++] = type;
+    }
+
+    /**
+     * Remove the last class from the end of the resolution path.
+     */
+    void pop() {
+        Class<?> type = Objects.requireNonNull(path[--depth]);
+        path[depth] = null;
+
+        int id = IDS.get(type);
+        resolving[id >>> 6] &= ~(1L << id);
+    }
+
+    /**
+     * Retrieve the last class of the resolution path.
+     *
+     * @return the last class that is being resolved, or {@code null} if the path is empty
+     */
+    @Nullable Class<?> peek() {
+        return depth > 0 ? path[depth - 1] : null;
+    }
+
+    /**
+     * Check whether the resolution path is empty, meaning that no dependency tree is being resolved by this thread.
+     * The inherited classes of the path are not taken into account.
+     *
+     * @return {@code true} if no class is being resolved, {@code false} otherwise
+     */
+    boolean isEmpty() {
+        return depth == base;
+    }
+
+    /**
+     * Create a copy of the resolution path, so that work submitted to another thread can inherit it.
+     *
+     * @return the copy of the resolution path, or {@code null} if the path is empty
+     */
+    @NotNull Class<?> @Nullable [] snapshot() {
+        return depth > 0 ? Arrays.copyOf(path, depth) : null;
+    }
+
+    /**
+     * Inherit the specified resolution path of another thread, so that circular dependencies are detected across
+     * the threads. The lazy fields and methods are still processed, when the own work of this thread completes.
+     *
+     * @param ancestors the resolution path to inherit, or {@code null} if there is nothing to inherit
+     * @return the state of the frame before the inheritance, that must be passed to {@link #release(Inheritance)}
+     */
+    @NotNull Inheritance inherit(@NotNull Class<?> @Nullable [] ancestors) {
+        return inherit(ancestors, true);
+    }
+
+    /**
+     * Inherit the specified resolution path of another thread, so that circular dependencies are detected across
+     * the threads.
+     * <p>
+     * If the work is not detached, it is part of the dependency tree of the other thread, therefore the lazy fields
+     * and methods are not processed by this thread, and they should be handed over using {@link #takeLazyWork()}.
+     * The lazy work this thread has registered before is set aside, until the inheritance is released.
+     *
+     * @param ancestors the resolution path to inherit, or {@code null} if there is nothing to inherit
+     * @param detached whether the work of this thread completes independently of the other thread
+     * @return the state of the frame before the inheritance, that must be passed to {@link #release(Inheritance)}
+     */
+    @NotNull Inheritance inherit(@NotNull Class<?> @Nullable [] ancestors, boolean detached) {
+        Inheritance inheritance = new Inheritance(base, depth, detached ? null : takeLazyWork());
+        if (ancestors != null) {
+            for (Class<?> ancestor : ancestors) {
+                // classes that are already in the path of this thread must not be pushed twice
+                if (!contains(ancestor))
+                    push(ancestor);
+            }
+        }
+        if (detached)
+            base = depth;
+        return inheritance;
+    }
+
+    /**
+     * Remove the inherited resolution path of another thread.
+     *
+     * @param inheritance the state of the frame before the inheritance
+     */
+    void release(@NotNull Inheritance inheritance) {
+        while (depth > inheritance.depth)
+            pop();
+        base = inheritance.base;
+        if (inheritance.lazyWork != null)
+            addLazyWork(inheritance.lazyWork);
+    }
+
+    /**
+     * Remove the lazy fields and methods from this frame, so that they can be handed over to another thread.
+     *
+     * @return the removed lazy fields and methods, or {@code null} if there are none
+     */
+    @Nullable LazyWork takeLazyWork() {
+        if (lazyFields.isEmpty() && lazyMethods.isEmpty())
+            return null;
+
+        LazyWork work = new LazyWork(new LinkedHashMap<>(lazyFields), new LinkedHashMap<>(lazyMethods));
+        lazyFields.clear();
+        lazyMethods.clear();
+        return work;
+    }
+
+    /**
+     * Add the lazy fields and methods, that were handed over by another thread, to this frame.
+     *
+     * @param work the lazy fields and methods to add
+     */
+    void addLazyWork(@NotNull LazyWork work) {
+        work.fields.forEach(lazyFields::putIfAbsent);
+        lazyMethods.putAll(work.methods);
+    }
+
+    /**
+     * Format the resolution path, that leads back to the specified class, for error messages.
+     *
+     * @param type the class that closes the circle of the path
+     * @return the formatted resolution path
+     */
+    @NotNull String describe(@NotNull Class<?> type) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < depth; i++)
+            builder.append(Objects.requireNonNull(path[i]).getName()).append(" -> ");
+        return builder.append(type.getName()).toString();
+    }
+
+    /**
+     * Check whether the specified thread is a virtual thread.
+     *
+     * @param thread the thread to check
+     * @return {@code true} if the thread is virtual, {@code false} otherwise
+     */
+    private static boolean isVirtual(@NotNull Thread thread) {
+        if (IS_VIRTUAL == null)
+            return false;
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * Find the {@code Thread#isVirtual()} method, that is available since Java 21.
+     *
+     * @return the method handle of the method, or {@code null} if the method does not exist
+     */
+    private static @Nullable MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(
+                Thread.class, "isVirtual", MethodType.methodType(boolean.class)
+            );
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Represents the state of a frame before it inherited the resolution path of another thread.
+     */
+    @RequiredArgsConstructor
+    static final class Inheritance {
+        /**
+         * The number of inherited classes before the inheritance.
+         */
+        private final int base;
+
+        /**
+         * The length of the resolution path before the inheritance.
+         */
+        private final int depth;
+
+        /**
+         * The lazy work, that was set aside by the inheritance, or {@code null} if there was none.
+         */
+        private final @Nullable LazyWork lazyWork;
+    }
+
+    /**
+     * Represents the lazy fields and methods, that are handed over between threads.
+     */
+    @RequiredArgsConstructor
+    static final class LazyWork {
+        /**
+         * The fields to be lazily injected.
+         */
+        private final @NotNull Map<@NotNull Field, @NotNull LazyField> fields;
+
+        /**
+         * The initialization methods to be lazily invoked.
+         */
+        private final @NotNull Map<@NotNull Method, @NotNull LazyMethod> methods;
+    }
+
+    /**
+     * Represents a field, that should be lazily injected by a container.
+     */
+    @RequiredArgsConstructor
+    @Accessors(fluent = true)
+    @Getter
+    static final class LazyField {
+        /**
+         * The container, that the field should be injected by.
+         */
+        private final @NotNull DefaultContainerImpl container;
+
+        /**
+         * The field to be injected.
+         */
+        private final @NotNull InjectableMember<Field> field;
+
+        /**
+         * The access to the field to be injected.
+         */
+        private final @NotNull LazyFieldAccess access;
+    }
+
+    /**
+     * Represents an initialization method, that should be lazily invoked by a container.
+     */
+    @RequiredArgsConstructor
+    @Accessors(fluent = true)
+    @Getter
+    static final class LazyMethod {
+        /**
+         * The container, that the method should be invoked by.
+         */
+        private final @NotNull DefaultContainerImpl container;
+
+        /**
+         * The method to be invoked.
+         */
+        private final @NotNull InjectableMember<Method> method;
+
+        /**
+         * The instance to invoke the method on.
+         */
+        private final @NotNull Object instance;
+    }
+}
@@ -0,0 +1,121 @@
+package com.atlas.divine.impl;
+
+import com.atlas.divine.descriptor.generic.Service;
+import com.atlas.divine.descriptor.generic.ServiceScope;
+import com.atlas.divine.descriptor.generic.ServiceVisibility;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents an immutable group of services, that specify {@link Service#multiple()} = {@code true}, and are
+ * registered with the same unique identifier.
+ * <p>
+ * Registering a new service replaces the group with a copy, therefore lookups can read the members without locking.
+ * If every member is cached by a container, and can be accessed from any context, the resolved instances of the group
+ * are cached as well, until the generation of the group changes. The generation is tracked by the container for each
+ * group identifier, and it is only incremented, when a cached member of the group is replaced or removed.
+ */
+@Accessors(fluent = true)
+final class ServiceGroup {
+    /**
+     * The empty group, that does not have any members.
+     */
+    static final @NotNull ServiceGroup EMPTY = new ServiceGroup(new Class<?>[0], false);
+
+    /**
+     * The classes of the services in the group, in the order of their registration.
+     */
+    @Getter
+    private final @NotNull Class<?> @NotNull [] members;
+
+    /**
+     * The indication, whether the resolved instances of the group can be cached.
+     */
+    @Getter
+    private final boolean cacheable;
+
+    /**
+     * The resolved instances of the group, or {@code null} if they have not been resolved yet.
+     */
+    private volatile @Nullable Instances instances;
+
+    /**
+     * Initialize a new service group.
+     *
+     * @param members the classes of the services in the group
+     * @param cacheable whether the resolved instances of the group can be cached
+     */
+    private ServiceGroup(@NotNull Class<?> @NotNull [] members, boolean cacheable) {
+        this.members = members;
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * Create a copy of this group, that also contains the specified service.
+     *
+     * @param service the class of the service to add
+     * @param descriptor the service descriptor of the service
+     * @return the new group, or {@code this} group, if it already contains the service
+     */
+    @NotNull ServiceGroup with(@NotNull Class<?> service, @NotNull Service descriptor) {
+        for (Class<?> member : members) {
+            if (member == service)
+                return this;
+        }
+
+        Class<?>[] members = Arrays.copyOf(this.members, this.members.length + 1);
+        members[this.members.length] = service;
+
+        // transient services are created on each lookup, and restricted services depend on the caller context
+        boolean cacheable = (this.members.length == 0 || this.cacheable) &&
+            descriptor.scope() != ServiceScope.TRANSIENT && descriptor.visibility() == ServiceVisibility.GLOBAL;
+
+        return new ServiceGroup(members, cacheable);
+    }
+
+    /**
+     * Retrieve the cached instances of the group, if they are still up-to-date.
+     *
+     * @param generation the current generation of the members of the group
+     * @return the resolved instances of the group, or {@code null} if they must be resolved
+     */
+    @Nullable List<?> cached(long generation) {
+        Instances instances = this.instances;
+        if (instances == null || instances.generation != generation)
+            return null;
+        return instances.list;
+    }
+
+    /**
+     * Cache the resolved instances of the group.
+     *
+     * @param generation the generation, that was read before the instances were resolved
+     * @param list the immutable list of the resolved instances
+     */
+    void cache(long generation, @NotNull List<?> list) {
+        if (cacheable)
+            instances = new Instances(generation, list);
+    }
+
+    /**
+     * Represents the resolved instances of a group, for the generation they were resolved in.
+     */
+    @RequiredArgsConstructor
+    private static final class Instances {
+        /**
+         * The generation of the members of the group, that the instances were resolved in.
+         */
+        private final long generation;
+
+        /**
+         * The immutable list of the resolved instances.
+         */
+        private final @NotNull List<?> list;
+    }
+}
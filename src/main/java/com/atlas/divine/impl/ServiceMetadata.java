@@ -0,0 +1,378 @@
+package com.atlas.divine.impl;
+
+import com.atlas.divine.descriptor.generic.ConstructWith;
+import com.atlas.divine.descriptor.generic.Inject;
+import com.atlas.divine.descriptor.generic.Service;
+import com.atlas.divine.exception.InvalidServiceException;
+import com.atlas.divine.runtime.lifecycle.AfterInitialized;
+import com.atlas.divine.runtime.inject.InjectableMember;
+import com.atlas.divine.runtime.lifecycle.BeforeTerminate;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the reflective metadata of a class, that the dependency injector needs to instantiate and inject it.
+ * <p>
+ * The metadata is resolved once per class, and it is cached on the class itself, therefore it is shared between all
+ * the containers, and it does not prevent the class loader of the class from being garbage collected.
+ */
+@Accessors(fluent = true)
+@Getter
+public final class ServiceMetadata {
+    /**
+     * The cache of the resolved metadata for each class.
+     */
+    private static final @NotNull ClassValue<@NotNull ServiceMetadata> METADATA = new ClassValue<ServiceMetadata>() {
+        @Override
+        protected ServiceMetadata computeValue(@NotNull Class<?> type) {
+            return new ServiceMetadata(type);
+        }
+    };
+
+    /**
+     * The class that the metadata was resolved for.
+     */
+    private final @NotNull Class<?> type;
+
+    /**
+     * The service descriptor of the class, or {@code null} if the class is not annotated with {@link Service}.
+     */
+    private final @Nullable Service descriptor;
+
+    /**
+     * The constructor that the dependency injector should instantiate the class with, or {@code null} if it
+     * cannot be decided.
+     */
+    @Getter(AccessLevel.NONE)
+    private final @Nullable InjectableMember<Constructor<?>> constructor;
+
+    /**
+     * The reason why the constructor of the class cannot be decided, or {@code null} if it can be.
+     */
+    @Getter(AccessLevel.NONE)
+    private final @Nullable String constructorError;
+
+    /**
+     * The injection points of the constructor parameters.
+     */
+    private final @NotNull List<@NotNull ParameterInjection> parameters;
+
+    /**
+     * The fields of the class, that are annotated with {@link Inject}.
+     */
+    private final @NotNull List<@NotNull FieldInjection> injectFields;
+
+    /**
+     * The fields of the class, that have any annotation, that a custom annotation provider may implement.
+     */
+    private final @NotNull List<@NotNull AnnotatedField> annotatedFields;
+
+    /**
+     * The methods of the class, that are annotated with {@link AfterInitialized}, and are invoked right after
+     * the service is created.
+     */
+    private final @NotNull List<@NotNull InjectableMember<Method>> initializers;
+
+    /**
+     * The methods of the class, that are annotated with {@link AfterInitialized} and specify {@code lazy = true}.
+     */
+    private final @NotNull List<@NotNull InjectableMember<Method>> lazyInitializers;
+
+    /**
+     * The methods of the class, that are annotated with {@link BeforeTerminate}.
+     */
+    private final @NotNull List<@NotNull Method> terminators;
+
+    /**
+     * Resolve the metadata of the specified class.
+     *
+     * @param type the class to resolve the metadata for
+     */
+    private ServiceMetadata(@NotNull Class<?> type) {
+        this.type = type;
+        descriptor = type.getAnnotation(Service.class);
+
+        // resolve the constructor, that the dependency injector should use
+        Constructor<?>[] constructors = type.getDeclaredConstructors();
+        Constructor<?> constructor = null;
+        if (constructors.length == 1)
+            constructor = constructors[0];
+        else {
+            for (Constructor<?> test : constructors) {
+                if (test.isAnnotationPresent(ConstructWith.class)) {
+                    constructor = test;
+                    break;
+                }
+            }
+        }
+
+        this.constructor = constructor != null ? new InjectableMember<>(constructor) : null;
+        if (constructor != null) {
+            makeAccessible(constructor);
+            constructorError = null;
+            parameters = resolveParameters(type, constructor);
+        } else {
+            constructorError = "Class " + type.getName() + " has multiple constructors, but none of them is " +
+                "annotated with @ConstructWith, therefore the dependency injector cannot decide, which one to use.";
+            parameters = Collections.emptyList();
+        }
+
+        // resolve the fields, that the dependency injector may inject into
+        List<FieldInjection> injectFields = new ArrayList<>();
+        List<AnnotatedField> annotatedFields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            Annotation[] annotations = field.getAnnotations();
+            if (annotations.length == 0)
+                continue;
+
+            makeAccessible(field);
+            InjectableMember<Field> member = new InjectableMember<>(field);
+            annotatedFields.add(new AnnotatedField(member, annotations));
+
+            Inject inject = field.getAnnotation(Inject.class);
+            if (inject != null)
+                injectFields.add(new FieldInjection(member, inject));
+        }
+        this.injectFields = immutable(injectFields);
+        this.annotatedFields = immutable(annotatedFields);
+
+        // resolve the lifecycle methods of the class
+        List<InjectableMember<Method>> initializers = new ArrayList<>();
+        List<InjectableMember<Method>> lazyInitializers = new ArrayList<>();
+        List<Method> terminators = new ArrayList<>();
+        for (Method method : type.getDeclaredMethods()) {
+            AfterInitialized init = method.getDeclaredAnnotation(AfterInitialized.class);
+            if (init != null) {
+                makeAccessible(method);
+                (init.lazy() ? lazyInitializers : initializers).add(new InjectableMember<>(method));
+            }
+
+            if (method.isAnnotationPresent(BeforeTerminate.class)) {
+                makeAccessible(method);
+                terminators.add(method);
+            }
+        }
+        this.initializers = immutable(initializers);
+        this.lazyInitializers = immutable(lazyInitializers);
+        this.terminators = immutable(terminators);
+    }
+
+    /**
+     * Retrieve the metadata of the specified class.
+     *
+     * @param type the class to retrieve the metadata for
+     * @return the cached metadata of the class
+     */
+    public static @NotNull ServiceMetadata of(@NotNull Class<?> type) {
+        return METADATA.get(type);
+    }
+
+    /**
+     * Retrieve the constructor, that the dependency injector should use to instantiate the class with.
+     *
+     * @return the constructor of the class
+     *
+     * @param <T> the type of the class
+     *
+     * @throws InvalidServiceException if the class has multiple constructors, and none of them is annotated
+     * with {@link ConstructWith}
+     */
+    public <T> @NotNull Constructor<T> constructor() throws InvalidServiceException {
+        return this.<T>constructorMember().member();
+    }
+
+    /**
+     * Retrieve the constructor, that the dependency injector should use to instantiate the class with, as a member,
+     * that an injection backend can keep its prepared state on.
+     *
+     * @return the constructor of the class
+     *
+     * @param <T> the type of the class
+     *
+     * @throws InvalidServiceException if the class has multiple constructors, and none of them is annotated
+     * with {@link ConstructWith}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @NotNull InjectableMember<Constructor<T>> constructorMember() throws InvalidServiceException {
+        if (constructor == null)
+            throw new InvalidServiceException(constructorError);
+        return (InjectableMember<Constructor<T>>) (InjectableMember<?>) constructor;
+    }
+
+    /**
+     * Resolve the injection points of the specified constructor parameters.
+     *
+     * @param type the class that declares the constructor
+     * @param constructor the constructor to resolve the parameters of
+     * @return the injection points of the constructor parameters
+     */
+    private static @NotNull List<@NotNull ParameterInjection> resolveParameters(
+        @NotNull Class<?> type, @NotNull Constructor<?> constructor
+    ) {
+        Parameter[] parameters = constructor.getParameters();
+
+        List<ParameterInjection> injections = new ArrayList<>(parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+
+            // try to resolve the annotation list of the constructor parameters
+            // sadly, this can fail, due to Java not properly handling this, such as returning an empty array
+            // for that reason, I'm sticking with this workaround, and warning developers of this issue
+            Annotation[] annotations = null;
+            Inject inject = null;
+            try {
+                annotations = parameter.getDeclaredAnnotations();
+                inject = parameter.getAnnotation(Inject.class);
+            } catch (IndexOutOfBoundsException ignored) {
+                System.err.println(
+                    "Java Reflection API was unable to resolve the parameter annotations of constructor " +
+                    constructor.getName() + " of class " + type.getName() + ". This can happen, when using " +
+                    "non static inner classes, and the parameter annotations are not available. This may change " +
+                    "the behaviour of the dependency injector, and may lead to unexpected results."
+                );
+            }
+
+            // the parameterized type falls back to the raw type for synthetic parameters, such as of enum constructors
+            Class<?> parameterType = parameter.getType();
+            injections.add(new ParameterInjection(
+                parameterType, parameter.getParameterizedType(), parameter.getName(), annotations, inject,
+                parameterType.isAnnotationPresent(Service.class)
+            ));
+        }
+
+        return immutable(injections);
+    }
+
+    /**
+     * Make the specified member accessible for the dependency injector.
+     * <p>
+     * Failures are ignored here, the member access will report them when the member is used.
+     *
+     * @param member the member to make accessible
+     */
+    private static void makeAccessible(@NotNull AccessibleObject member) {
+        try {
+            member.setAccessible(true);
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    /**
+     * Create an immutable view of the specified list.
+     *
+     * @param list the list to create the view of
+     * @return the immutable view of the list
+     *
+     * @param <T> the type of the list elements
+     */
+    private static <T> @NotNull List<T> immutable(@NotNull List<T> list) {
+        return list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Represents a constructor parameter, that the dependency injector resolves an argument for.
+     */
+    @RequiredArgsConstructor
+    @Accessors(fluent = true)
+    @Getter
+    public static final class ParameterInjection {
+        /**
+         * The type of the parameter.
+         */
+        private final @NotNull Class<?> type;
+
+        /**
+         * The generic type of the parameter.
+         */
+        private final @NotNull Type genericType;
+
+        /**
+         * The name of the parameter.
+         */
+        private final @NotNull String name;
+
+        /**
+         * The annotations of the parameter, or {@code null} if the reflection API was unable to resolve them.
+         */
+        private final @NotNull Annotation @Nullable [] annotations;
+
+        /**
+         * The injection descriptor of the parameter, or {@code null} if it is not annotated with {@link Inject}.
+         */
+        private final @Nullable Inject inject;
+
+        /**
+         * The indication, whether the type of the parameter is annotated with {@link Service}.
+         */
+        private final boolean service;
+    }
+
+    /**
+     * Represents a field, that is annotated with {@link Inject}.
+     */
+    @RequiredArgsConstructor
+    @Accessors(fluent = true)
+    @Getter
+    public static final class FieldInjection {
+        /**
+         * The field to inject the dependency into.
+         */
+        private final @NotNull InjectableMember<Field> member;
+
+        /**
+         * The injection descriptor of the field.
+         */
+        private final @NotNull Inject inject;
+
+        /**
+         * Retrieve the field to inject the dependency into.
+         *
+         * @return the field of the injection
+         */
+        public @NotNull Field field() {
+            return member.member();
+        }
+    }
+
+    /**
+     * Represents a field, that may be injected by a custom annotation provider.
+     */
+    @RequiredArgsConstructor
+    @Accessors(fluent = true)
+    @Getter
+    public static final class AnnotatedField {
+        /**
+         * The field to inject the implementation into.
+         */
+        private final @NotNull InjectableMember<Field> member;
+
+        /**
+         * The annotations of the field.
+         */
+        private final @NotNull Annotation @NotNull [] annotations;
+
+        /**
+         * Retrieve the field to inject the implementation into.
+         *
+         * @return the annotated field
+         */
+        public @NotNull Field field() {
+            return member.member();
+        }
+    }
+}
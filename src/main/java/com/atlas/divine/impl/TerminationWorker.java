@@ -0,0 +1,101 @@
+package com.atlas.divine.impl;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Represents the termination of a single service, that runs on a thread of its own.
+ * <p>
+ * Each service is terminated on a fresh daemon thread, therefore a termination method, that ignores the interruption
+ * after its timeout, only keeps its own thread, and it does not prevent the remaining services from being terminated.
+ */
+@Accessors(fluent = true)
+final class TerminationWorker implements Runnable {
+    /**
+     * The type of the service, that is terminated by the worker.
+     */
+    @Getter
+    private final @NotNull Class<?> type;
+
+    /**
+     * The task, that calls the termination methods of the service.
+     */
+    private final @NotNull Runnable termination;
+
+    /**
+     * The queue, that the worker is added to, once the termination methods have completed.
+     */
+    private final @NotNull BlockingQueue<@NotNull TerminationWorker> completed;
+
+    /**
+     * The thread, that runs the termination methods of the service.
+     */
+    private final @NotNull Thread thread;
+
+    /**
+     * The time, in {@link System#nanoTime()}, that the termination methods should complete by.
+     */
+    @Getter
+    private long deadline;
+
+    /**
+     * The error of the termination, or {@code null} if the termination methods completed successfully.
+     */
+    @Getter
+    private volatile @Nullable Throwable failure;
+
+    /**
+     * Initialize a new termination worker.
+     *
+     * @param type the type of the service, that is terminated by the worker
+     * @param termination the task, that calls the termination methods of the service
+     * @param completed the queue, that the worker is added to, once the termination methods have completed
+     * @param threadName the name of the thread of the worker
+     */
+    TerminationWorker(
+        @NotNull Class<?> type, @NotNull Runnable termination,
+        @NotNull BlockingQueue<@NotNull TerminationWorker> completed, @NotNull String threadName
+    ) {
+        this.type = type;
+        this.termination = termination;
+        this.completed = completed;
+        thread = new Thread(this, threadName);
+        // a termination method, that never completes, should not prevent the application from shutting down
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Start the termination of the service on the thread of the worker.
+     *
+     * @param timeout the time, in nanoseconds, that the termination methods are given to complete
+     */
+    void start(long timeout) {
+        deadline = System.nanoTime() + timeout;
+        thread.start();
+    }
+
+    /**
+     * Interrupt the termination methods, that did not complete in time. The thread is no longer waited for.
+     */
+    void abandon() {
+        thread.interrupt();
+    }
+
+    /**
+     * Call the termination methods of the service, and report the completion of the worker.
+     */
+    @Override
+    public void run() {
+        try {
+            termination.run();
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            completed.add(this);
+        }
+    }
+}
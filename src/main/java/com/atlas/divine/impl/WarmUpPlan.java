@@ -0,0 +1,174 @@
+package com.atlas.divine.impl;
+
+import com.atlas.divine.descriptor.factory.NoFactory;
+import com.atlas.divine.descriptor.generic.Inject;
+import com.atlas.divine.descriptor.generic.Service;
+import com.atlas.divine.descriptor.implementation.NoImplementation;
+import com.atlas.divine.descriptor.property.NoPropertiesProvider;
+import com.atlas.divine.exception.InvalidServiceException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents an internal plan, that orders services for warming up a container.
+ * <p>
+ * The plan is built from the dependency graph of the services, that is resolved from their constructor parameters and
+ * the fields annotated with {@link Inject}, and it splits the graph into levels in topological order. The services of
+ * a level only depend on the services of the previous levels, therefore they can be instantiated in parallel.
+ * <p>
+ * The same plan is used in reverse order, when the services of a container are terminated.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+final class WarmUpPlan {
+    /**
+     * The levels of the services, ordered from the services without dependencies.
+     */
+    private final @NotNull List<@NotNull List<@NotNull Class<?>>> levels;
+
+    /**
+     * The services, that are part of a dependency cycle, or depend on one, in their discovery order. They should be
+     * instantiated one after another, after the levels, so that the container can resolve or report the cycle.
+     */
+    private final @NotNull List<@NotNull Class<?>> cyclic;
+
+    /**
+     * Plan the warm-up of the specified services and their transitive dependencies.
+     *
+     * @param services the services to plan the warm-up of
+     * @return the warm-up plan of the services
+     */
+    static @NotNull WarmUpPlan of(@NotNull Collection<@NotNull Class<?>> services) {
+        // discover the dependency graph of the services
+        Map<Class<?>, Set<Class<?>>> graph = new LinkedHashMap<>();
+        Deque<Class<?>> queue = new ArrayDeque<>(services);
+        while (!queue.isEmpty()) {
+            Class<?> service = queue.poll();
+            if (graph.containsKey(service))
+                continue;
+
+            Set<Class<?>> dependencies = dependenciesOf(service);
+            graph.put(service, dependencies);
+            queue.addAll(dependencies);
+        }
+
+        // count the unresolved dependencies of each service, and register the services that depend on them
+        Map<Class<?>, Integer> pending = new LinkedHashMap<>();
+        Map<Class<?>, List<Class<?>>> dependents = new LinkedHashMap<>();
+        for (Map.Entry<Class<?>, Set<Class<?>>> entry : graph.entrySet()) {
+            pending.put(entry.getKey(), entry.getValue().size());
+            for (Class<?> dependency : entry.getValue())
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(entry.getKey());
+        }
+
+        // collect the services without unresolved dependencies level by level
+        List<List<Class<?>>> levels = new ArrayList<>();
+        List<Class<?>> level = new ArrayList<>();
+        for (Map.Entry<Class<?>, Integer> entry : pending.entrySet()) {
+            if (entry.getValue() == 0)
+                level.add(entry.getKey());
+        }
+
+        while (!level.isEmpty()) {
+            levels.add(level);
+            List<Class<?>> next = new ArrayList<>();
+            for (Class<?> service : level) {
+                pending.remove(service);
+                for (Class<?> dependent : dependents.getOrDefault(service, Collections.emptyList())) {
+                    if (pending.merge(dependent, -1, Integer::sum) == 0)
+                        next.add(dependent);
+                }
+            }
+            level = next;
+        }
+
+        // the remaining services are part of a cycle, or depend on one
+        return new WarmUpPlan(levels, new ArrayList<>(pending.keySet()));
+    }
+
+    /**
+     * Resolve the services, that the specified service requires to be instantiated.
+     *
+     * @param service the service to resolve the dependencies of
+     * @return the set of the services, that the service depends on
+     */
+    private static @NotNull Set<@NotNull Class<?>> dependenciesOf(@NotNull Class<?> service) {
+        Set<Class<?>> dependencies = new LinkedHashSet<>();
+
+        // services created by a factory may have any dependencies, that cannot be known in advance
+        Service descriptor = service.getAnnotation(Service.class);
+        if (descriptor != null && descriptor.factory() != NoFactory.class)
+            return dependencies;
+
+        // the dependencies of the implementation are required to instantiate the service
+        Class<?> target = descriptor != null && descriptor.implementation() != NoImplementation.class
+            ? descriptor.implementation()
+            : service;
+        ServiceMetadata metadata = ServiceMetadata.of(target);
+
+        // resolve the dependencies of the constructor parameters
+        try {
+            metadata.constructor();
+            for (ServiceMetadata.ParameterInjection parameter : metadata.parameters()) {
+                Class<?> dependency = dependencyOf(parameter.type(), parameter.inject(), parameter.service());
+                if (dependency != null)
+                    dependencies.add(dependency);
+            }
+        } catch (InvalidServiceException ignored) {
+            // the container reports the invalid constructor, when the service is instantiated
+        }
+
+        // resolve the dependencies of the eagerly injected fields
+        for (ServiceMetadata.FieldInjection injection : metadata.injectFields()) {
+            if (injection.inject().lazy())
+                continue;
+            Class<?> type = injection.field().getType();
+            Class<?> dependency = dependencyOf(type, injection.inject(), type.isAnnotationPresent(Service.class));
+            if (dependency != null)
+                dependencies.add(dependency);
+        }
+
+        dependencies.remove(service);
+        return dependencies;
+    }
+
+    /**
+     * Resolve the service, that an injection point of the specified type depends on.
+     *
+     * @param type the type of the injection point
+     * @param inject the injection descriptor of the injection point, or {@code null} if it is not specified
+     * @param service whether the type of the injection point is annotated with {@link Service}
+     * @return the service, that the injection point depends on, or {@code null} if it does not depend on a service
+     */
+    private static @Nullable Class<?> dependencyOf(@NotNull Class<?> type, @Nullable Inject inject, boolean service) {
+        if (inject == null)
+            return service ? type : null;
+
+        // tokens are not services, and services with properties cannot be instantiated without the injection point
+        if (
+            !inject.token().equals(Inject.NO_TOKEN) || !inject.properties().equals(Inject.NO_PROPERTIES) ||
+            inject.provider() != NoPropertiesProvider.class
+        )
+            return null;
+
+        if (inject.implementation() != NoImplementation.class)
+            return inject.implementation();
+        return service ? type : null;
+    }
+}
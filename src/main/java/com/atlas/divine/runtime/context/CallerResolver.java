@@ -0,0 +1,68 @@
+package com.atlas.divine.runtime.context;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents an internal utility that resolves classes from the call stack of the current thread.
+ * <p>
+ * This is the Java 8 implementation, that has to materialize the whole stack trace and load the classes by their
+ * names. On Java 9 and above, the multi-release jar replaces this class with a {@link StackWalker} based resolver.
+ */
+final class CallerResolver {
+    /**
+     * The number of frames to skip from the stack trace, that belong to {@link Thread#getStackTrace()} and
+     * to the resolver method itself.
+     */
+    private static final int RESOLVER_FRAMES = 2;
+
+    /**
+     * Prevent the instantiation of the utility class.
+     */
+    private CallerResolver() {
+    }
+
+    /**
+     * Resolve the class from the call stack, that is the specified number of frames above the method that
+     * called this method.
+     *
+     * @param depth the number of frames to skip, {@code 0} resolves the class of the calling method
+     * @return the class at the specified depth, or {@code null} if it cannot be resolved
+     */
+    static @Nullable Class<?> getCallerClass(int depth) {
+        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
+
+        int index = depth + RESOLVER_FRAMES;
+        if (index >= stackTrace.length)
+            return null;
+
+        try {
+            return Class.forName(stackTrace[index].getClassName());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolve the first class from the call stack, that is not declared under the specified package prefix.
+     *
+     * @param excludedPrefix the name prefix of the classes that should be skipped
+     * @return the first foreign class of the call stack, or {@code null} if there is none
+     */
+    static @Nullable Class<?> findCallerClass(@NotNull String excludedPrefix) {
+        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
+
+        // skip the frame of `Thread#getStackTrace`, the resolver frames are excluded by the package prefix
+        for (int i = 1; i < stackTrace.length; i++) {
+            String className = stackTrace[i].getClassName();
+            if (className.startsWith(excludedPrefix))
+                continue;
+            try {
+                return Class.forName(className);
+            } catch (ClassNotFoundException ignored) {
+            }
+        }
+
+        return null;
+    }
+}
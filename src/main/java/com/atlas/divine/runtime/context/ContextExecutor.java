@@ -0,0 +1,88 @@
+package com.atlas.divine.runtime.context;
+
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Represents an executor, that runs the submitted tasks on behalf of the context they were submitted from.
+ * <p>
+ * The context is resolved on the submitting thread, and it is bound to the worker thread while the task runs.
+ * Therefore, the container calls of the task are resolved against the container of the submitting context.
+ */
+@RequiredArgsConstructor
+public class ContextExecutor implements Executor {
+    /**
+     * The executor that runs the tasks.
+     */
+    private final @NotNull Executor executor;
+
+    /**
+     * The function that resolves the context of the submitting thread.
+     */
+    private final @NotNull Supplier<@Nullable Class<?>> contextResolver;
+
+    /**
+     * Execute the specified task on behalf of the current context.
+     *
+     * @param task the task to execute
+     */
+    @Override
+    public void execute(@NotNull Runnable task) {
+        executor.execute(wrap(task));
+    }
+
+    /**
+     * Bind the current context to the specified task.
+     *
+     * @param task the task to bind the context to
+     * @return the task that runs with the bound context
+     */
+    protected @NotNull Runnable wrap(@NotNull Runnable task) {
+        Class<?> context = contextResolver.get();
+        // leave the task unchanged, if the context cannot be resolved
+        if (context == null)
+            return task;
+        return () -> Contexts.runWithContext(context, task);
+    }
+
+    /**
+     * Bind the current context to the specified task.
+     *
+     * @param task the task to bind the context to
+     * @return the task that is called with the bound context
+     *
+     * @param <T> the type of the result of the task
+     */
+    protected <T> @NotNull Callable<T> wrap(@NotNull Callable<T> task) {
+        return wrap(task, contextResolver.get());
+    }
+
+    /**
+     * Bind the specified context to the specified task.
+     *
+     * @param task the task to bind the context to
+     * @param context the context to bind, or {@code null} to leave the task unchanged
+     * @return the task that is called with the bound context
+     *
+     * @param <T> the type of the result of the task
+     */
+    protected <T> @NotNull Callable<T> wrap(@NotNull Callable<T> task, @Nullable Class<?> context) {
+        if (context == null)
+            return task;
+        return () -> Contexts.callWithContext(context, task);
+    }
+
+    /**
+     * Resolve the context of the submitting thread.
+     *
+     * @return the context of the submitting thread, or {@code null} if it cannot be resolved
+     */
+    protected @Nullable Class<?> resolveContext() {
+        return contextResolver.get();
+    }
+}
@@ -0,0 +1,127 @@
+package com.atlas.divine.runtime.context;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Represents an executor service, that runs the submitted tasks on behalf of the context they were submitted from.
+ * <p>
+ * The lifecycle methods are delegated to the wrapped executor service.
+ *
+ * @see ContextExecutor
+ */
+public class ContextExecutorService extends ContextExecutor implements ExecutorService {
+    /**
+     * The executor service that runs the tasks.
+     */
+    private final @NotNull ExecutorService executor;
+
+    /**
+     * Initialize the context propagating executor service.
+     *
+     * @param executor the executor service that runs the tasks
+     * @param contextResolver the function that resolves the context of the submitting thread
+     */
+    public ContextExecutorService(
+        @NotNull ExecutorService executor, @NotNull Supplier<@Nullable Class<?>> contextResolver
+    ) {
+        super(executor, contextResolver);
+        this.executor = executor;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public @NotNull List<@NotNull Runnable> shutdownNow() {
+        return executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public <T> @NotNull Future<T> submit(@NotNull Callable<T> task) {
+        return executor.submit(wrap(task));
+    }
+
+    @Override
+    public <T> @NotNull Future<T> submit(@NotNull Runnable task, T result) {
+        return executor.submit(wrap(task), result);
+    }
+
+    @Override
+    public @NotNull Future<?> submit(@NotNull Runnable task) {
+        return executor.submit(wrap(task));
+    }
+
+    @Override
+    public <T> @NotNull List<@NotNull Future<T>> invokeAll(
+        @NotNull Collection<? extends @NotNull Callable<T>> tasks
+    ) throws InterruptedException {
+        return executor.invokeAll(wrapAll(tasks));
+    }
+
+    @Override
+    public <T> @NotNull List<@NotNull Future<T>> invokeAll(
+        @NotNull Collection<? extends @NotNull Callable<T>> tasks, long timeout, @NotNull TimeUnit unit
+    ) throws InterruptedException {
+        return executor.invokeAll(wrapAll(tasks), timeout, unit);
+    }
+
+    @Override
+    public <T> @NotNull T invokeAny(
+        @NotNull Collection<? extends @NotNull Callable<T>> tasks
+    ) throws InterruptedException, ExecutionException {
+        return executor.invokeAny(wrapAll(tasks));
+    }
+
+    @Override
+    public <T> T invokeAny(
+        @NotNull Collection<? extends @NotNull Callable<T>> tasks, long timeout, @NotNull TimeUnit unit
+    ) throws InterruptedException, ExecutionException, TimeoutException {
+        return executor.invokeAny(wrapAll(tasks), timeout, unit);
+    }
+
+    /**
+     * Bind the current context to each of the specified tasks.
+     *
+     * @param tasks the tasks to bind the context to
+     * @return the tasks that are called with the bound context
+     *
+     * @param <T> the type of the results of the tasks
+     */
+    private <T> @NotNull List<@NotNull Callable<T>> wrapAll(@NotNull Collection<? extends @NotNull Callable<T>> tasks) {
+        // resolve the context once for the whole batch
+        Class<?> context = resolveContext();
+        List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks)
+            wrapped.add(wrap(task, context));
+        return wrapped;
+    }
+}
@@ -0,0 +1,63 @@
+package com.atlas.divine.runtime.context;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents an internal holder of the call context, that is explicitly bound to the current thread.
+ * <p>
+ * Each {@link #bind(Class)} call must be paired with a {@link #restore(Class)} call in a {@code finally} block, so
+ * that the bound context is only visible for the code, that is executed in between.
+ * <p>
+ * The slot stays a {@link ThreadLocal} on every runtime, and it has no multi-release variant backed by a
+ * {@code ScopedValue}. A scoped value can only be bound for the duration of a callback, while the callers bind and
+ * restore the context around arbitrary code, that may throw checked exceptions. Because the bound value is a single
+ * class reference, that is removed again by {@link #restore(Class)}, the slot does not retain memory on virtual
+ * threads either, and the bindings are not inherited by the threads, that the bound code starts.
+ */
+final class ContextSlot {
+    /**
+     * The context class that is bound to the current thread, or {@code null} if no context is bound.
+     */
+    private static final @NotNull ThreadLocal<@Nullable Class<?>> CONTEXT = new ThreadLocal<>();
+
+    /**
+     * Prevent the instantiation of the utility class.
+     */
+    private ContextSlot() {
+    }
+
+    /**
+     * Get the context class that is bound to the current thread.
+     *
+     * @return the bound context class, or {@code null} if no context is bound
+     */
+    static @Nullable Class<?> get() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * Bind the specified context to the current thread.
+     *
+     * @param context the context class to bind
+     * @return the previously bound context class, that should be passed to {@link #restore(Class)}
+     */
+    static @Nullable Class<?> bind(@NotNull Class<?> context) {
+        Class<?> previous = CONTEXT.get();
+        CONTEXT.set(context);
+        return previous;
+    }
+
+    /**
+     * Restore the previously bound context of the current thread.
+     *
+     * @param previous the context class that was bound before, or {@code null} if there was none
+     */
+    static void restore(@Nullable Class<?> previous) {
+        // do not leave an empty entry behind on pooled threads
+        if (previous == null)
+            CONTEXT.remove();
+        else
+            CONTEXT.set(previous);
+    }
+}
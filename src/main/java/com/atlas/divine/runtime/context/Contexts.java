@@ -2,6 +2,9 @@ package com.atlas.divine.runtime.context;
 
 import lombok.experimental.UtilityClass;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Callable;
 
 /**
  * Represents a utility class that resolves call context classes.
@@ -37,13 +40,75 @@ public class Contexts {
      * @throws ClassNotFoundException if the caller class cannot be found
      */
     public @NotNull Class<?> getCallerClass() throws ClassNotFoundException {
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
+        // skip this method and the method that called it
+        Class<?> caller = CallerResolver.getCallerClass(2);
+        if (caller == null)
+            throw new ClassNotFoundException("Unable to determine caller class");
 
-        if (stackTrace.length > 3) {
-            String callerClassName = stackTrace[3].getClassName();
-            return Class.forName(callerClassName);
+        return caller;
+    }
+
+    /**
+     * Find the first class in the call stack, that is not declared under the specified package prefix.
+     * <p>
+     * This is used to resolve the class of the user code, that called the framework through any number of
+     * framework methods.
+     *
+     * @param excludedPrefix the name prefix of the classes that should be skipped
+     * @return the first foreign class of the call stack, or {@code null} if there is none
+     */
+    public @Nullable Class<?> findCallerClass(@NotNull String excludedPrefix) {
+        return CallerResolver.findCallerClass(excludedPrefix);
+    }
+
+    /**
+     * Get the context class, that is explicitly bound to the current thread.
+     *
+     * @return the bound context class, or {@code null} if no context is bound
+     *
+     * @see #runWithContext(Class, Runnable)
+     * @see #callWithContext(Class, Callable)
+     */
+    public @Nullable Class<?> currentContext() {
+        return ContextSlot.get();
+    }
+
+    /**
+     * Run the specified action, while the specified context is bound to the current thread.
+     * <p>
+     * The previously bound context is restored, after the action completes.
+     *
+     * @param context the context class to bind
+     * @param action the action to run with the bound context
+     */
+    public void runWithContext(@NotNull Class<?> context, @NotNull Runnable action) {
+        Class<?> previous = ContextSlot.bind(context);
+        try {
+            action.run();
+        } finally {
+            ContextSlot.restore(previous);
         }
+    }
 
-        throw new ClassNotFoundException("Unable to determine caller class");
+    /**
+     * Call the specified action, while the specified context is bound to the current thread.
+     * <p>
+     * The previously bound context is restored, after the action completes.
+     *
+     * @param context the context class to bind
+     * @param action the action to call with the bound context
+     * @return the result of the action
+     *
+     * @param <T> the type of the result
+     *
+     * @throws Exception if the action throws an exception
+     */
+    public <T> T callWithContext(@NotNull Class<?> context, @NotNull Callable<T> action) throws Exception {
+        Class<?> previous = ContextSlot.bind(context);
+        try {
+            return action.call();
+        } finally {
+            ContextSlot.restore(previous);
+        }
     }
 }
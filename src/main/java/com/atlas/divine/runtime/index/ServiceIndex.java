@@ -0,0 +1,270 @@
+package com.atlas.divine.runtime.index;
+
+import com.atlas.divine.descriptor.generic.Service;
+import com.atlas.divine.descriptor.generic.ServiceScope;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the index of the services, that the {@code di-vine-processor} annotation processor generates at compile
+ * time into {@value #LOCATION}.
+ * <p>
+ * The index describes the service descriptors by the names of the classes, therefore it can be read without loading
+ * the service classes. The classes are only loaded, when the container resolves them.
+ * <p>
+ * Each line of the index describes a service, with the following tab separated columns: the binary name of the class,
+ * the scope, the identifier, the multiple flag, and the binary names of the implementation and the factory, or
+ * {@code -} if they are not specified. Empty lines and lines starting with {@code #} are ignored.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+public final class ServiceIndex {
+    /**
+     * The location of the index resources.
+     */
+    public static final @NotNull String LOCATION = "META-INF/divine/services.index";
+
+    /**
+     * The placeholder of the unspecified class columns.
+     */
+    public static final @NotNull String NONE = "-";
+
+    /**
+     * The indexed services, in the order of the index resources.
+     */
+    private final @NotNull List<@NotNull IndexedService> services;
+
+    /**
+     * The indexed services, that specify {@link Service#multiple()} = {@code true}, grouped by their identifier.
+     */
+    private final @NotNull Map<@NotNull String, @NotNull List<@NotNull IndexedService>> groups;
+
+    /**
+     * Read the service indexes, that are visible to the specified class loader.
+     * <p>
+     * The service classes are not loaded by this method.
+     *
+     * @param loader the class loader to read the index resources with
+     * @return the merged index of the resources
+     *
+     * @throws UncheckedIOException if an index resource cannot be read
+     */
+    public static @NotNull ServiceIndex load(@Nullable ClassLoader loader) {
+        if (loader == null)
+            loader = ClassLoader.getSystemClassLoader();
+
+        return load(loader, Collections.emptySet());
+    }
+
+    /**
+     * Read the service indexes, that are visible to the specified class loader, but not to its parent class loader.
+     * <p>
+     * The services of the parent indexes are registered by the containers of the parent class loaders, therefore
+     * a container of a child class loader should only register the services, that the child class loader defines.
+     * The service classes are not loaded by this method.
+     *
+     * @param loader the class loader to read the index resources with
+     * @return the merged index of the resources, that the parent class loader cannot see
+     *
+     * @throws UncheckedIOException if an index resource cannot be read
+     */
+    public static @NotNull ServiceIndex loadLocal(@NotNull ClassLoader loader) {
+        ClassLoader parent = loader.getParent();
+        if (parent == null)
+            return load(loader, Collections.emptySet());
+
+        // compare the external forms, as URL#equals may resolve the host names
+        Set<String> inherited = new HashSet<>();
+        try {
+            Enumeration<URL> resources = parent.getResources(LOCATION);
+            while (resources.hasMoreElements())
+                inherited.add(resources.nextElement().toExternalForm());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the service index " + LOCATION, e);
+        }
+
+        return load(loader, inherited);
+    }
+
+    /**
+     * Read the service indexes, that are visible to the specified class loader, except the specified resources.
+     *
+     * @param loader the class loader to read the index resources with
+     * @param excluded the external forms of the index resources to skip
+     * @return the merged index of the resources
+     *
+     * @throws UncheckedIOException if an index resource cannot be read
+     */
+    private static @NotNull ServiceIndex load(@NotNull ClassLoader loader, @NotNull Set<@NotNull String> excluded) {
+        // the same class may be visible through multiple resources, such as in case of shaded jars
+        Map<String, IndexedService> services = new LinkedHashMap<>();
+        try {
+            Enumeration<URL> resources = loader.getResources(LOCATION);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                if (excluded.contains(resource.toExternalForm()))
+                    continue;
+
+                for (String line : read(resource)) {
+                    IndexedService service = IndexedService.parse(loader, line);
+                    if (service != null)
+                        services.putIfAbsent(service.className(), service);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the service index " + LOCATION, e);
+        }
+
+        Map<String, List<IndexedService>> groups = new LinkedHashMap<>();
+        for (IndexedService service : services.values()) {
+            if (service.multiple() && !service.id().equals(Service.DEFAULT_ID))
+                groups.computeIfAbsent(service.id(), key -> new ArrayList<>()).add(service);
+        }
+        groups.replaceAll((id, group) -> Collections.unmodifiableList(group));
+
+        return new ServiceIndex(
+            Collections.unmodifiableList(new ArrayList<>(services.values())), Collections.unmodifiableMap(groups)
+        );
+    }
+
+    /**
+     * Retrieve the indexed services, that are grouped by the specified identifier.
+     *
+     * @param id the unique identifier, that the services are grouped by
+     * @return the indexed services of the group
+     */
+    public @NotNull List<@NotNull IndexedService> group(@NotNull String id) {
+        return groups.getOrDefault(id, Collections.emptyList());
+    }
+
+    /**
+     * Read the lines of the specified index resource.
+     *
+     * @param url the location of the index resource
+     * @return the lines of the resource
+     *
+     * @throws IOException if the resource cannot be read
+     */
+    private static @NotNull Set<@NotNull String> read(@NotNull URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        // do not keep the jar files of unloaded plugins open
+        connection.setUseCaches(false);
+
+        Set<String> lines = new LinkedHashSet<>();
+        try (
+            InputStream stream = connection.getInputStream();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))
+        ) {
+            String line;
+            while ((line = reader.readLine()) != null)
+                lines.add(line);
+        }
+        return lines;
+    }
+
+    /**
+     * Represents a service descriptor of the index.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    @Accessors(fluent = true)
+    @Getter
+    public static final class IndexedService {
+        /**
+         * The class loader, that the service class is loaded with.
+         */
+        private final @NotNull ClassLoader loader;
+
+        /**
+         * The binary name of the service class.
+         */
+        private final @NotNull String className;
+
+        /**
+         * The scope of the service.
+         */
+        private final @NotNull ServiceScope scope;
+
+        /**
+         * The unique identifier of the service.
+         */
+        private final @NotNull String id;
+
+        /**
+         * The indication, whether the service is registered as one of multiple services.
+         */
+        private final boolean multiple;
+
+        /**
+         * The binary name of the implementation of the service, or {@code null} if it is not specified.
+         */
+        private final @Nullable String implementation;
+
+        /**
+         * The binary name of the factory of the service, or {@code null} if it is not specified.
+         */
+        private final @Nullable String factory;
+
+        /**
+         * Load the class of the service.
+         *
+         * @return the service class
+         *
+         * @throws ClassNotFoundException if the class is no longer available
+         */
+        public @NotNull Class<?> load() throws ClassNotFoundException {
+            return Class.forName(className, false, loader);
+        }
+
+        /**
+         * Parse the specified line of an index resource.
+         *
+         * @param loader the class loader, that the service class is loaded with
+         * @param line the line to parse
+         * @return the parsed service, or {@code null} if the line does not describe a service
+         */
+        private static @Nullable IndexedService parse(@NotNull ClassLoader loader, @NotNull String line) {
+            if (line.isEmpty() || line.startsWith("#"))
+                return null;
+
+            // skip the lines of incompatible index formats
+            String[] columns = line.split("\t", -1);
+            if (columns.length != 6)
+                return null;
+
+            ServiceScope scope;
+            try {
+                scope = ServiceScope.valueOf(columns[1]);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+
+            return new IndexedService(
+                loader, columns[0], scope, columns[2], Boolean.parseBoolean(columns[3]),
+                columns[4].equals(NONE) ? null : columns[4], columns[5].equals(NONE) ? null : columns[5]
+            );
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.atlas.divine.runtime.inject;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Member;
+
+/**
+ * Represents a constructor, field or method of a service, that the container accesses through an
+ * {@link InjectionBackend}.
+ * <p>
+ * The members are resolved once per class by the service metadata, therefore the state, that a backend prepares for
+ * a member, such as an adapted method handle, is kept right next to the member, and it is accessed without a lookup.
+ *
+ * @param <M> the type of the member
+ */
+@Accessors(fluent = true)
+public final class InjectableMember<M extends Member> {
+    /**
+     * The constructor, field or method of the service.
+     */
+    @Getter
+    private final @NotNull M member;
+
+    /**
+     * The handle of the member, adapted to the generic signature of its kind, or {@code null} if it has not been
+     * created yet.
+     */
+    private volatile @Nullable MethodHandle handle;
+
+    /**
+     * Initialize a new injectable member.
+     *
+     * @param member the constructor, field or method of the service
+     */
+    public InjectableMember(@NotNull M member) {
+        this.member = member;
+    }
+
+    /**
+     * Retrieve the adapted handle of the member.
+     *
+     * @return the handle of the member, or {@code null} if it has not been created yet
+     */
+    @Nullable MethodHandle handle() {
+        return handle;
+    }
+
+    /**
+     * Keep the adapted handle of the member. Creating the same handle concurrently is harmless, the last one wins.
+     *
+     * @param handle the handle of the member
+     */
+    void handle(@NotNull MethodHandle handle) {
+        this.handle = handle;
+    }
+}
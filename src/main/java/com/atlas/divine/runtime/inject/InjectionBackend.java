@@ -0,0 +1,141 @@
+package com.atlas.divine.runtime.inject;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Represents a strategy, that the container uses to access the members of the services, when it instantiates them,
+ * injects their fields and invokes their lifecycle methods.
+ * <p>
+ * The members passed to the backend are resolved by the container, and they have been made accessible, where
+ * the runtime allows it. Exceptions thrown by the accessed members are wrapped in
+ * {@link InvocationTargetException}, as in case of the reflection API.
+ */
+public interface InjectionBackend {
+    /**
+     * Create a new instance of a service, using the specified constructor.
+     *
+     * @param constructor the constructor of the service
+     * @param args the arguments of the constructor call
+     * @return the new instance of the service
+     *
+     * @param <T> the type of the service
+     *
+     * @throws ReflectiveOperationException if the constructor cannot be accessed, or it throws an exception
+     */
+    <T> @NotNull T newInstance(
+        @NotNull Constructor<T> constructor, @Nullable Object @NotNull ... args
+    ) throws ReflectiveOperationException;
+
+    /**
+     * Set the value of the specified field of a service instance.
+     *
+     * @param field the field to set the value of
+     * @param instance the instance of the service
+     * @param value the new value of the field
+     *
+     * @throws ReflectiveOperationException if the field cannot be accessed
+     */
+    void set(@NotNull Field field, @NotNull Object instance, @Nullable Object value) throws ReflectiveOperationException;
+
+    /**
+     * Invoke the specified parameterless method of a service instance.
+     *
+     * @param method the method to invoke
+     * @param instance the instance of the service
+     *
+     * @throws ReflectiveOperationException if the method cannot be accessed, or it throws an exception
+     */
+    void invoke(@NotNull Method method, @NotNull Object instance) throws ReflectiveOperationException;
+
+    /**
+     * Create a new instance of a service, using the specified constructor, that was resolved by the service metadata.
+     * <p>
+     * Backends, that prepare the members before accessing them, should override this method, and keep the prepared
+     * state on the member.
+     *
+     * @param constructor the constructor of the service
+     * @param args the arguments of the constructor call
+     * @return the new instance of the service
+     *
+     * @param <T> the type of the service
+     *
+     * @throws ReflectiveOperationException if the constructor cannot be accessed, or it throws an exception
+     */
+    default <T> @NotNull T newInstance(
+        @NotNull InjectableMember<Constructor<T>> constructor, @Nullable Object @NotNull ... args
+    ) throws ReflectiveOperationException {
+        return newInstance(constructor.member(), args);
+    }
+
+    /**
+     * Set the value of the specified field of a service instance, that was resolved by the service metadata.
+     *
+     * @param field the field to set the value of
+     * @param instance the instance of the service
+     * @param value the new value of the field
+     *
+     * @throws ReflectiveOperationException if the field cannot be accessed
+     */
+    default void set(
+        @NotNull InjectableMember<Field> field, @NotNull Object instance, @Nullable Object value
+    ) throws ReflectiveOperationException {
+        set(field.member(), instance, value);
+    }
+
+    /**
+     * Invoke the specified parameterless method of a service instance, that was resolved by the service metadata.
+     *
+     * @param method the method to invoke
+     * @param instance the instance of the service
+     *
+     * @throws ReflectiveOperationException if the method cannot be accessed, or it throws an exception
+     */
+    default void invoke(
+        @NotNull InjectableMember<Method> method, @NotNull Object instance
+    ) throws ReflectiveOperationException {
+        invoke(method.member(), instance);
+    }
+
+    /**
+     * Retrieve the backend, that accesses the members using the core reflection API.
+     *
+     * @return the reflection based injection backend
+     */
+    static @NotNull InjectionBackend reflection() {
+        return ReflectionBackend.INSTANCE;
+    }
+
+    /**
+     * Retrieve the backend, that accesses the members using method handles, that are created once for each member
+     * of a service class, and are kept by the service metadata.
+     * <p>
+     * On Java 9 and above, the handles are resolved with a private lookup in the service class, therefore they do not
+     * depend on {@link java.lang.reflect.AccessibleObject#setAccessible(boolean)}.
+     *
+     * @return the method handle based injection backend
+     */
+    static @NotNull InjectionBackend methodHandles() {
+        return MethodHandleBackend.INSTANCE;
+    }
+
+    /**
+     * Retrieve the backend, that prefers the {@link ServiceInjector injectors}, that the annotation processor
+     * generated for the services at compile time.
+     * <p>
+     * Services, that were not processed, and members, that the generated code cannot access, are accessed using
+     * the core reflection API. Once such a class is accessed repeatedly, such as a transient service, an injector is
+     * generated for it at runtime, as a hidden nestmate class on Java 15 and above. This is the default backend of
+     * the containers.
+     *
+     * @return the precompiled injection backend
+     */
+    static @NotNull InjectionBackend precompiled() {
+        return PrecompiledBackend.INSTANCE;
+    }
+}
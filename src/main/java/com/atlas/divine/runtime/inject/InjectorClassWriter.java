@@ -0,0 +1,704 @@
+package com.atlas.divine.runtime.inject;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents an internal writer of the class files of the {@link ServiceInjector injectors}, that are generated at
+ * runtime for the services, that the annotation processor did not generate an injector for.
+ * <p>
+ * The generated class is the bytecode equivalent of the source code, that the annotation processor writes, however
+ * it is defined as a nestmate of the service, therefore it accesses the private members of the service as well.
+ * The member names are compared by identity, because the names of the reflected members are interned, and a name,
+ * that does not match, is reported as not handled, so that the caller falls back to reflection.
+ */
+final class InjectorClassWriter {
+    /**
+     * The class file version of the generated injectors, that corresponds to Java 8.
+     */
+    private static final int VERSION = 52;
+
+    /**
+     * The internal name of the injector interface, that the generated classes implement.
+     */
+    private static final @NotNull String INJECTOR = internalName(ServiceInjector.class);
+
+    /**
+     * The name of the field, that holds the constructor parameter types of the generated injector.
+     */
+    private static final @NotNull String PARAMETERS = "parameters";
+
+    /**
+     * The descriptor of the constructor parameter types.
+     */
+    private static final @NotNull String PARAMETERS_DESCRIPTOR = descriptor(Class[].class);
+
+    /**
+     * The constant pool of the class, that is being written.
+     */
+    private final @NotNull ConstantPool pool = new ConstantPool();
+
+    /**
+     * The internal name of the generated injector.
+     */
+    private final @NotNull String name;
+
+    /**
+     * The internal name of the service, that the injector accesses.
+     */
+    private final @NotNull String service;
+
+    /**
+     * Initialize a new injector class writer.
+     *
+     * @param name the internal name of the generated injector
+     * @param service the class of the service, that the injector accesses
+     */
+    private InjectorClassWriter(@NotNull String name, @NotNull Class<?> service) {
+        this.name = name;
+        this.service = internalName(service);
+    }
+
+    /**
+     * Write the class file of an injector, that accesses the specified members of a service.
+     * <p>
+     * The generated class declares a single constructor, that takes the parameter types of the service constructor,
+     * or {@code null}, if the injector cannot instantiate the service.
+     *
+     * @param name the internal name of the generated injector, in the package of the service
+     * @param service the class of the service, that the injector accesses
+     * @param constructor the constructor to instantiate the service with, or {@code null} if there is none
+     * @param fields the non-final fields of the service, that the injector can set
+     * @param methods the parameterless methods of the service, that the injector can invoke
+     * @return the bytes of the generated class file
+     */
+    static byte @NotNull [] write(
+        @NotNull String name, @NotNull Class<?> service, @Nullable Constructor<?> constructor,
+        @NotNull List<@NotNull Field> fields, @NotNull List<@NotNull Method> methods
+    ) {
+        return new InjectorClassWriter(name, service).write(constructor, fields, methods);
+    }
+
+    /**
+     * Write the class file of the injector.
+     *
+     * @param constructor the constructor to instantiate the service with, or {@code null} if there is none
+     * @param fields the fields, that the injector can set
+     * @param methods the methods, that the injector can invoke
+     * @return the bytes of the generated class file
+     */
+    private byte @NotNull [] write(
+        @Nullable Constructor<?> constructor, @NotNull List<@NotNull Field> fields, @NotNull List<@NotNull Method> methods
+    ) {
+        // write the methods first, so that the constant pool is complete, when the header is written
+        ByteWriter body = new ByteWriter();
+        body.u2(5);
+        writeInit(body);
+        writeConstructorParameters(body);
+        writeNewInstance(body, constructor);
+        writeSet(body, fields);
+        writeInvoke(body, methods);
+        // the class does not have any attributes
+        body.u2(0);
+
+        int thisClass = pool.type(name);
+        int superClass = pool.type("java/lang/Object");
+        int injector = pool.type(INJECTOR);
+        int fieldName = pool.utf8(PARAMETERS);
+        int fieldDescriptor = pool.utf8(PARAMETERS_DESCRIPTOR);
+
+        ByteWriter file = new ByteWriter();
+        file.u4(0xCAFEBABE);
+        file.u2(0);
+        file.u2(VERSION);
+        pool.write(file);
+        file.u2(Modifier.PUBLIC | Modifier.FINAL | 0x0020 /* ACC_SUPER */);
+        file.u2(thisClass);
+        file.u2(superClass);
+        file.u2(1);
+        file.u2(injector);
+
+        // private final Class<?>[] parameters;
+        file.u2(1);
+        file.u2(Modifier.PRIVATE | Modifier.FINAL);
+        file.u2(fieldName);
+        file.u2(fieldDescriptor);
+        file.u2(0);
+
+        file.bytes(body);
+        return file.toByteArray();
+    }
+
+    /**
+     * Write the constructor of the injector, that stores the constructor parameter types of the service.
+     *
+     * @param body the writer of the methods
+     */
+    private void writeInit(@NotNull ByteWriter body) {
+        Code code = new Code(2);
+        code.aload(0);
+        code.u1(0xb7).u2(pool.method("java/lang/Object", "<init>", "()V")); // invokespecial
+        code.aload(0);
+        code.aload(1);
+        code.u1(0xb5).u2(pool.field(name, PARAMETERS, PARAMETERS_DESCRIPTOR)); // putfield
+        code.u1(0xb1); // return
+        writeMethod(body, "<init>", "(" + PARAMETERS_DESCRIPTOR + ")V", code, 2);
+    }
+
+    /**
+     * Write the {@link ServiceInjector#constructorParameters()} method of the injector.
+     *
+     * @param body the writer of the methods
+     */
+    private void writeConstructorParameters(@NotNull ByteWriter body) {
+        Code code = new Code(1);
+        code.aload(0);
+        code.u1(0xb4).u2(pool.field(name, PARAMETERS, PARAMETERS_DESCRIPTOR)); // getfield
+        code.u1(0xb0); // areturn
+        writeMethod(body, "constructorParameters", "()" + PARAMETERS_DESCRIPTOR, code, 1);
+    }
+
+    /**
+     * Write the {@link ServiceInjector#newInstance(Object[])} method of the injector.
+     *
+     * @param body the writer of the methods
+     * @param constructor the constructor to instantiate the service with, or {@code null} if there is none
+     */
+    private void writeNewInstance(@NotNull ByteWriter body, @Nullable Constructor<?> constructor) {
+        if (constructor == null) {
+            // throw new UnsupportedOperationException();
+            String exception = "java/lang/UnsupportedOperationException";
+            Code code = new Code(2);
+            code.u1(0xbb).u2(pool.type(exception)); // new
+            code.u1(0x59); // dup
+            code.u1(0xb7).u2(pool.method(exception, "<init>", "()V")); // invokespecial
+            code.u1(0xbf); // athrow
+            writeMethod(body, "newInstance", "([Ljava/lang/Object;)Ljava/lang/Object;", code, 2);
+            return;
+        }
+
+        // return new Service((T0) args[0], (T1) args[1], ...);
+        Class<?>[] parameters = constructor.getParameterTypes();
+        int size = 0;
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> parameter : parameters) {
+            size += size(parameter);
+            descriptor.append(descriptor(parameter));
+        }
+        descriptor.append(")V");
+
+        Code code = new Code(4 + size);
+        code.u1(0xbb).u2(pool.type(service)); // new
+        code.u1(0x59); // dup
+        for (int i = 0; i < parameters.length; i++) {
+            code.aload(1);
+            code.iconst(i);
+            code.u1(0x32); // aaload
+            code.convert(parameters[i]);
+        }
+        code.u1(0xb7).u2(pool.method(service, "<init>", descriptor.toString())); // invokespecial
+        code.u1(0xb0); // areturn
+        writeMethod(body, "newInstance", "([Ljava/lang/Object;)Ljava/lang/Object;", code, 2);
+    }
+
+    /**
+     * Write the {@link ServiceInjector#set(String, Object, Object)} method of the injector.
+     *
+     * @param body the writer of the methods
+     * @param fields the fields, that the injector can set
+     */
+    private void writeSet(@NotNull ByteWriter body, @NotNull List<@NotNull Field> fields) {
+        Code code = new Code(3);
+        for (Field field : fields) {
+            // if (field == "name") { ((Service) instance).name = (T) value; return true; }
+            int branch = code.ifNotSame(pool.string(field.getName()));
+            boolean isStatic = Modifier.isStatic(field.getModifiers());
+            if (!isStatic) {
+                code.aload(2);
+                code.u1(0xc0).u2(pool.type(service)); // checkcast
+            }
+            code.aload(3);
+            code.convert(field.getType());
+            code.u1(isStatic ? 0xb3 : 0xb5) // putstatic or putfield
+                .u2(pool.field(service, field.getName(), descriptor(field.getType())));
+            code.u1(0x04); // iconst_1
+            code.u1(0xac); // ireturn
+            code.label(branch);
+        }
+        code.u1(0x03); // iconst_0
+        code.u1(0xac); // ireturn
+        writeMethod(body, "set", "(Ljava/lang/String;Ljava/lang/Object;Ljava/lang/Object;)Z", code, 4);
+    }
+
+    /**
+     * Write the {@link ServiceInjector#invoke(String, Object)} method of the injector.
+     *
+     * @param body the writer of the methods
+     * @param methods the methods, that the injector can invoke
+     */
+    private void writeInvoke(@NotNull ByteWriter body, @NotNull List<@NotNull Method> methods) {
+        Code code = new Code(2);
+        for (Method method : methods) {
+            // if (method == "name") { ((Service) instance).name(); return true; }
+            int branch = code.ifNotSame(pool.string(method.getName()));
+            String descriptor = "()" + descriptor(method.getReturnType());
+            int reference = pool.method(service, method.getName(), descriptor);
+            if (Modifier.isStatic(method.getModifiers()))
+                code.u1(0xb8).u2(reference); // invokestatic
+            else {
+                code.aload(2);
+                code.u1(0xc0).u2(pool.type(service)); // checkcast
+                // private methods of a nestmate are invoked virtually as well
+                code.u1(0xb6).u2(reference); // invokevirtual
+            }
+            // discard the returned value
+            int size = size(method.getReturnType());
+            if (size > 0)
+                code.u1(size == 2 ? 0x58 : 0x57); // pop2 or pop
+            code.u1(0x04); // iconst_1
+            code.u1(0xac); // ireturn
+            code.label(branch);
+        }
+        code.u1(0x03); // iconst_0
+        code.u1(0xac); // ireturn
+        writeMethod(body, "invoke", "(Ljava/lang/String;Ljava/lang/Object;)Z", code, 3);
+    }
+
+    /**
+     * Write a public method of the injector.
+     *
+     * @param body the writer of the methods
+     * @param name the name of the method
+     * @param descriptor the descriptor of the method
+     * @param code the bytecode of the method
+     * @param locals the number of local variable slots, that the parameters of the method occupy
+     */
+    private void writeMethod(
+        @NotNull ByteWriter body, @NotNull String name, @NotNull String descriptor, @NotNull Code code, int locals
+    ) {
+        body.u2(Modifier.PUBLIC);
+        body.u2(pool.utf8(name));
+        body.u2(pool.utf8(descriptor));
+        body.u2(1);
+
+        // each branch target has the same frame as the method entry, as the locals are never reassigned
+        ByteWriter frames = new ByteWriter();
+        int previous = -1;
+        for (int target : code.targets) {
+            frames.u1(251); // same_frame_extended
+            frames.u2(target - previous - 1);
+            previous = target;
+        }
+        boolean hasFrames = !code.targets.isEmpty();
+
+        int attribute = pool.utf8("Code");
+        int stackMap = hasFrames ? pool.utf8("StackMapTable") : 0;
+        int stackMapLength = hasFrames ? 2 + frames.size() : 0;
+
+        body.u2(attribute);
+        body.u4(12 + code.size() + (hasFrames ? 6 + stackMapLength : 0));
+        body.u2(code.maxStack);
+        body.u2(locals);
+        body.u4(code.size());
+        body.bytes(code);
+        // the method does not catch any exceptions
+        body.u2(0);
+        body.u2(hasFrames ? 1 : 0);
+        if (hasFrames) {
+            body.u2(stackMap);
+            body.u4(stackMapLength);
+            body.u2(code.targets.size());
+            body.bytes(frames);
+        }
+    }
+
+    /**
+     * Retrieve the internal name of the specified class, that is used by the constant pool.
+     *
+     * @param type the class to retrieve the internal name of
+     * @return the internal name of the class
+     */
+    private static @NotNull String internalName(@NotNull Class<?> type) {
+        return type.isArray() ? descriptor(type) : type.getName().replace('.', '/');
+    }
+
+    /**
+     * Retrieve the field descriptor of the specified type.
+     *
+     * @param type the type to retrieve the descriptor of
+     * @return the descriptor of the type
+     */
+    private static @NotNull String descriptor(@NotNull Class<?> type) {
+        if (type.isArray())
+            return type.getName().replace('.', '/');
+        if (!type.isPrimitive())
+            return "L" + type.getName().replace('.', '/') + ";";
+        // the method type of a primitive return type is described by its descriptor, such as ()I
+        String descriptor = MethodType.methodType(type).toMethodDescriptorString();
+        return descriptor.substring(2);
+    }
+
+    /**
+     * Retrieve the number of operand stack slots, that a value of the specified type occupies.
+     *
+     * @param type the type of the value
+     * @return {@code 2} for long and double values, {@code 0} for void, and {@code 1} otherwise
+     */
+    private static int size(@NotNull Class<?> type) {
+        if (type == long.class || type == double.class)
+            return 2;
+        return type == void.class ? 0 : 1;
+    }
+
+    /**
+     * Represents the bytecode of a method, that is being written.
+     */
+    private final class Code extends ByteWriter {
+        /**
+         * The offsets of the branch targets, in ascending order.
+         */
+        private final @NotNull List<@NotNull Integer> targets = new ArrayList<>();
+
+        /**
+         * The maximum number of operand stack slots, that the method uses.
+         */
+        private final int maxStack;
+
+        /**
+         * Initialize the bytecode of a method.
+         *
+         * @param maxStack the maximum number of operand stack slots, that the method uses
+         */
+        private Code(int maxStack) {
+            this.maxStack = maxStack;
+        }
+
+        /**
+         * Load the reference from the specified local variable.
+         *
+         * @param index the index of the local variable
+         */
+        private void aload(int index) {
+            u1(0x2a + index); // aload_<n>
+        }
+
+        /**
+         * Push the specified integer constant.
+         *
+         * @param value the constant to push
+         */
+        private void iconst(int value) {
+            if (value <= 5)
+                u1(0x03 + value); // iconst_<n>
+            else if (value <= Byte.MAX_VALUE)
+                u1(0x10).u1(value); // bipush
+            else
+                u1(0x11).u2(value); // sipush
+        }
+
+        /**
+         * Convert the object on top of the stack to the specified type, and unbox it, if the type is primitive.
+         *
+         * @param type the type to convert the value to
+         */
+        private void convert(@NotNull Class<?> type) {
+            if (!type.isPrimitive()) {
+                if (type != Object.class)
+                    u1(0xc0).u2(pool.type(internalName(type))); // checkcast
+                return;
+            }
+
+            Class<?> wrapper = MethodType.methodType(type).wrap().returnType();
+            u1(0xc0).u2(pool.type(internalName(wrapper))); // checkcast
+            u1(0xb6).u2(pool.method( // invokevirtual
+                internalName(wrapper), type.getName() + "Value", "()" + descriptor(type)
+            ));
+        }
+
+        /**
+         * Compare the name argument of the method to the specified constant, and branch, if they are not the same.
+         *
+         * @param constant the constant pool index of the name
+         * @return the offset of the branch instruction, that should be passed to {@link #label(int)}
+         */
+        private int ifNotSame(int constant) {
+            aload(1);
+            u1(0x13).u2(constant); // ldc_w
+            int branch = size();
+            u1(0xa6).u2(0); // if_acmpne
+            return branch;
+        }
+
+        /**
+         * Mark the current offset as the target of the specified branch instruction.
+         *
+         * @param branch the offset of the branch instruction
+         */
+        private void label(int branch) {
+            int target = size();
+            patch(branch + 1, target - branch);
+            targets.add(target);
+        }
+    }
+
+    /**
+     * Represents the constant pool of the class, that is being written.
+     */
+    private static final class ConstantPool {
+        /**
+         * The indexes of the constants, that have already been added, mapped by their kind and value.
+         */
+        private final @NotNull Map<@NotNull String, @NotNull Integer> indexes = new HashMap<>();
+
+        /**
+         * The entries of the constant pool.
+         */
+        private final @NotNull ByteWriter entries = new ByteWriter();
+
+        /**
+         * The index of the next constant, as the indexes of the constant pool start at {@code 1}.
+         */
+        private int next = 1;
+
+        /**
+         * Add a modified UTF-8 string constant.
+         *
+         * @param value the value of the constant
+         * @return the index of the constant
+         */
+        private int utf8(@NotNull String value) {
+            Integer index = indexes.get("U" + value);
+            if (index != null)
+                return index;
+            entries.u1(1).utf8(value);
+            return add("U" + value);
+        }
+
+        /**
+         * Add a class constant.
+         *
+         * @param internalName the internal name of the class
+         * @return the index of the constant
+         */
+        private int type(@NotNull String internalName) {
+            return reference(7, "C" + internalName, utf8(internalName));
+        }
+
+        /**
+         * Add a string constant.
+         *
+         * @param value the value of the constant
+         * @return the index of the constant
+         */
+        private int string(@NotNull String value) {
+            return reference(8, "S" + value, utf8(value));
+        }
+
+        /**
+         * Add a field reference constant.
+         *
+         * @param owner the internal name of the class, that declares the field
+         * @param name the name of the field
+         * @param descriptor the descriptor of the field
+         * @return the index of the constant
+         */
+        private int field(@NotNull String owner, @NotNull String name, @NotNull String descriptor) {
+            return reference(9, "F" + owner + "." + name + ":" + descriptor, type(owner), nameAndType(name, descriptor));
+        }
+
+        /**
+         * Add a method reference constant.
+         *
+         * @param owner the internal name of the class, that declares the method
+         * @param name the name of the method
+         * @param descriptor the descriptor of the method
+         * @return the index of the constant
+         */
+        private int method(@NotNull String owner, @NotNull String name, @NotNull String descriptor) {
+            return reference(10, "M" + owner + "." + name + descriptor, type(owner), nameAndType(name, descriptor));
+        }
+
+        /**
+         * Add a name and type constant.
+         *
+         * @param name the name of the member
+         * @param descriptor the descriptor of the member
+         * @return the index of the constant
+         */
+        private int nameAndType(@NotNull String name, @NotNull String descriptor) {
+            return reference(12, "N" + name + ":" + descriptor, utf8(name), utf8(descriptor));
+        }
+
+        /**
+         * Add a constant, that refers to other constants.
+         *
+         * @param tag the tag of the constant
+         * @param key the unique key of the constant
+         * @param references the indexes of the referenced constants
+         * @return the index of the constant
+         */
+        private int reference(int tag, @NotNull String key, int @NotNull ... references) {
+            Integer index = indexes.get(key);
+            if (index != null)
+                return index;
+            entries.u1(tag);
+            for (int reference : references)
+                entries.u2(reference);
+            return add(key);
+        }
+
+        /**
+         * Register the index of the constant, that has just been written.
+         *
+         * @param key the unique key of the constant
+         * @return the index of the constant
+         */
+        private int add(@NotNull String key) {
+            int index = next++;
+            indexes.put(key, index);
+            return index;
+        }
+
+        /**
+         * Write the constant pool to the class file.
+         *
+         * @param file the writer of the class file
+         */
+        private void write(@NotNull ByteWriter file) {
+            file.u2(next);
+            file.bytes(entries);
+        }
+    }
+
+    /**
+     * Represents a growable buffer of the big-endian values of a class file.
+     */
+    private static class ByteWriter {
+        /**
+         * The written bytes, that may have unused capacity at the end.
+         */
+        private byte @NotNull [] bytes = new byte[64];
+
+        /**
+         * The number of the written bytes.
+         */
+        private int size;
+
+        /**
+         * Write an unsigned byte.
+         *
+         * @param value the value to write
+         * @return this writer
+         */
+        @NotNull ByteWriter u1(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+            return this;
+        }
+
+        /**
+         * Write an unsigned short.
+         *
+         * @param value the value to write
+         * @return this writer
+         */
+        @NotNull ByteWriter u2(int value) {
+            ensure(2);
+            bytes[size++] = (byte) (value >>> 8);
+            bytes[size++] = (byte) value;
+            return this;
+        }
+
+        /**
+         * Write an unsigned int.
+         *
+         * @param value the value to write
+         */
+        void u4(int value) {
+            u2(value >>> 16);
+            u2(value);
+        }
+
+        /**
+         * Write the length and the modified UTF-8 encoding of a string.
+         *
+         * @param value the string to write
+         */
+        void utf8(@NotNull String value) {
+            int start = size;
+            u2(0);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                // the null character is encoded in two bytes, so that the encoding does not contain zero bytes
+                if (c != 0 && c < 0x80)
+                    u1(c);
+                else if (c < 0x800)
+                    u1(0xc0 | (c >> 6)).u1(0x80 | (c & 0x3f));
+                else
+                    u1(0xe0 | (c >> 12)).u1(0x80 | ((c >> 6) & 0x3f)).u1(0x80 | (c & 0x3f));
+            }
+            patch(start, size - start - 2);
+        }
+
+        /**
+         * Write the contents of another writer.
+         *
+         * @param other the writer to copy the bytes of
+         */
+        void bytes(@NotNull ByteWriter other) {
+            ensure(other.size);
+            System.arraycopy(other.bytes, 0, bytes, size, other.size);
+            size += other.size;
+        }
+
+        /**
+         * Overwrite an unsigned short, that has already been written.
+         *
+         * @param offset the offset of the value
+         * @param value the new value
+         */
+        void patch(int offset, int value) {
+            bytes[offset] = (byte) (value >>> 8);
+            bytes[offset + 1] = (byte) value;
+        }
+
+        /**
+         * Retrieve the number of the written bytes.
+         *
+         * @return the size of the buffer
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * Retrieve a copy of the written bytes.
+         *
+         * @return the written bytes
+         */
+        byte @NotNull [] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        /**
+         * Grow the buffer, so that it can hold the specified number of additional bytes.
+         *
+         * @param length the number of bytes to write
+         */
+        private void ensure(int length) {
+            if (size + length > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+        }
+    }
+}
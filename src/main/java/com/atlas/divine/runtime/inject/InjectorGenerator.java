@@ -0,0 +1,151 @@
+package com.atlas.divine.runtime.inject;
+
+import com.atlas.divine.descriptor.generic.ConstructWith;
+import com.atlas.divine.runtime.lifecycle.AfterInitialized;
+import com.atlas.divine.runtime.lifecycle.BeforeTerminate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents an internal utility, that generates the {@link ServiceInjector injectors} at runtime for the services,
+ * that the annotation processor did not generate an injector for.
+ * <p>
+ * The injector is defined as a hidden class, that is a nestmate of the service, therefore it constructs the service,
+ * sets its fields and invokes its lifecycle methods directly, including the private ones. Hidden classes require
+ * Java 15, and a private lookup in the service class, therefore on older runtimes, in native images, and for
+ * services in packages, that are not open to the dependency injector, no injector is generated.
+ */
+final class InjectorGenerator {
+    /**
+     * The number of member accesses of a class, after which its injector is generated. Singletons are instantiated
+     * once, therefore they do not pay for the generation.
+     */
+    static final int THRESHOLD = 64;
+
+    /**
+     * The {@code MethodHandles.Lookup.defineHiddenClass} method, or {@code null} if the runtime does not support
+     * hidden classes.
+     */
+    private static final @Nullable Method DEFINE_HIDDEN_CLASS;
+
+    /**
+     * The options of the hidden classes, that make the injector a nestmate of the service.
+     */
+    private static final @Nullable Object NESTMATE;
+
+    static {
+        Method define = null;
+        Object nestmate = null;
+        try {
+            Class<?> option = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            nestmate = Array.newInstance(option, 1);
+            Array.set(nestmate, 0, option.getField("NESTMATE").get(null));
+            define = MethodHandles.Lookup.class.getMethod(
+                "defineHiddenClass", byte[].class, boolean.class, nestmate.getClass()
+            );
+        } catch (ReflectiveOperationException e) {
+            // hidden classes are not supported before Java 15
+        }
+        DEFINE_HIDDEN_CLASS = define;
+        NESTMATE = nestmate;
+    }
+
+    /**
+     * Prevent the instantiation of the utility class.
+     */
+    private InjectorGenerator() {
+    }
+
+    /**
+     * Indicate, whether an injector may be generated for the specified class.
+     *
+     * @param type the class to check
+     * @return {@code true} if the runtime supports hidden classes, and the class can be a service
+     */
+    static boolean isSupported(@NotNull Class<?> type) {
+        return DEFINE_HIDDEN_CLASS != null &&
+            !type.isInterface() && !type.isArray() && !type.isPrimitive() && !type.isEnum();
+    }
+
+    /**
+     * Resolve the constructor, that the container instantiates the specified class with.
+     *
+     * @param type the class to resolve the constructor of
+     * @return the only constructor, the constructor annotated with {@link ConstructWith}, or {@code null} if the
+     * class is abstract, or the container cannot decide, which constructor to use
+     */
+    static @Nullable Constructor<?> resolveConstructor(@NotNull Class<?> type) {
+        if (Modifier.isAbstract(type.getModifiers()))
+            return null;
+
+        Constructor<?>[] constructors = type.getDeclaredConstructors();
+        if (constructors.length == 1)
+            return constructors[0];
+        for (Constructor<?> constructor : constructors) {
+            if (constructor.isAnnotationPresent(ConstructWith.class))
+                return constructor;
+        }
+        return null;
+    }
+
+    /**
+     * Generate the injector of the specified class, and define it as a hidden nestmate of the class.
+     *
+     * @param type the class to generate the injector for
+     * @param constructor the constructor to instantiate the class with, or {@code null} if there is none
+     * @return the generated injector, or {@code null} if the injector cannot be generated for the class
+     */
+    static @Nullable ServiceInjector generate(@NotNull Class<?> type, @Nullable Constructor<?> constructor) {
+        Method define = DEFINE_HIDDEN_CLASS;
+        if (define == null || !isSupported(type))
+            return null;
+
+        // the hidden class is defined in the package of the lookup class, therefore it must be the service itself
+        MethodHandles.Lookup lookup = MemberLookup.lookupFor(type);
+        if (lookup.lookupClass() != type)
+            return null;
+
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (field.getAnnotations().length > 0 && !Modifier.isFinal(field.getModifiers()) && !field.isSynthetic())
+                fields.add(field);
+        }
+
+        List<Method> methods = new ArrayList<>();
+        for (Method method : type.getDeclaredMethods()) {
+            boolean lifecycle = method.isAnnotationPresent(AfterInitialized.class) ||
+                method.isAnnotationPresent(BeforeTerminate.class);
+            if (
+                lifecycle && method.getParameterCount() == 0 && !Modifier.isAbstract(method.getModifiers()) &&
+                !method.isBridge() && !method.isSynthetic()
+            )
+                methods.add(method);
+        }
+
+        if (constructor == null && fields.isEmpty() && methods.isEmpty())
+            return null;
+
+        String name = type.getName().replace('.', '/') + ServiceInjector.SUFFIX;
+        byte[] bytes = InjectorClassWriter.write(name, type, constructor, fields, methods);
+        try {
+            MethodHandles.Lookup hidden = (MethodHandles.Lookup) define.invoke(lookup, bytes, true, NESTMATE);
+            Class<?>[] parameters = constructor != null ? constructor.getParameterTypes() : null;
+            return (ServiceInjector) hidden.lookupClass()
+                .getConstructor(Class[].class)
+                .newInstance((Object) parameters);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // the lookup does not have full privilege access, or the runtime cannot define classes, such as a
+            // native image, therefore the members keep being accessed using reflection
+            return null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.atlas.divine.runtime.inject;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Represents an internal utility that resolves the lookup, that the method handles of service members are created with.
+ * <p>
+ * This is the Java 8 implementation, that relies on the members being made accessible before they are unreflected.
+ * On Java 9 and above, the multi-release jar replaces this class with a resolver, that uses a private lookup in
+ * the service class.
+ */
+final class MemberLookup {
+    /**
+     * Prevent the instantiation of the utility class.
+     */
+    private MemberLookup() {
+    }
+
+    /**
+     * Resolve the lookup, that the members of the specified class should be unreflected with.
+     *
+     * @param type the class that declares the members
+     * @return the lookup to create the member handles with
+     */
+    static @NotNull MethodHandles.Lookup lookupFor(@NotNull Class<?> type) {
+        return MethodHandles.lookup();
+    }
+}
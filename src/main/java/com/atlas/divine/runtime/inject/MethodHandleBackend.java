@@ -0,0 +1,205 @@
+package com.atlas.divine.runtime.inject;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents an injection backend, that accesses the members of the services using method handles.
+ * <p>
+ * The handles are adapted to a generic signature. The handles of the members, that are resolved by the service
+ * metadata, are kept on the {@link InjectableMember injectable members}, therefore the container invokes them without
+ * any lookup. The handles of other members are cached on their declaring classes, therefore the cache does not prevent
+ * the class loaders of the services from being garbage collected.
+ */
+final class MethodHandleBackend implements InjectionBackend {
+    /**
+     * The shared instance of the stateless backend.
+     */
+    static final @NotNull MethodHandleBackend INSTANCE = new MethodHandleBackend();
+
+    /**
+     * The generic type of the constructor handles, that take the arguments as an array.
+     */
+    private static final @NotNull MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    /**
+     * The generic type of the field setter handles.
+     */
+    private static final @NotNull MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * The generic type of the parameterless method handles.
+     */
+    private static final @NotNull MethodType METHOD_TYPE = MethodType.methodType(void.class, Object.class);
+
+    /**
+     * The cache of the resolved handles of the members of each class.
+     */
+    private static final @NotNull ClassValue<@NotNull Map<@NotNull Member, @NotNull MethodHandle>> HANDLES =
+        new ClassValue<Map<Member, MethodHandle>>() {
+            @Override
+            protected Map<Member, MethodHandle> computeValue(@NotNull Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    /**
+     * Prevent the instantiation of the shared backend.
+     */
+    private MethodHandleBackend() {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @NotNull T newInstance(
+        @NotNull Constructor<T> constructor, @Nullable Object @NotNull ... args
+    ) throws ReflectiveOperationException {
+        MethodHandle handle = resolve(constructor);
+        try {
+            return (T) (Object) handle.invokeExact(args);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void set(
+        @NotNull Field field, @NotNull Object instance, @Nullable Object value
+    ) throws ReflectiveOperationException {
+        MethodHandle handle = resolve(field);
+        try {
+            handle.invokeExact(instance, value);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void invoke(@NotNull Method method, @NotNull Object instance) throws ReflectiveOperationException {
+        MethodHandle handle = resolve(method);
+        try {
+            handle.invokeExact(instance);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @NotNull T newInstance(
+        @NotNull InjectableMember<Constructor<T>> constructor, @Nullable Object @NotNull ... args
+    ) throws ReflectiveOperationException {
+        MethodHandle handle = resolve(constructor);
+        try {
+            return (T) (Object) handle.invokeExact(args);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void set(
+        @NotNull InjectableMember<Field> field, @NotNull Object instance, @Nullable Object value
+    ) throws ReflectiveOperationException {
+        MethodHandle handle = resolve(field);
+        try {
+            handle.invokeExact(instance, value);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void invoke(
+        @NotNull InjectableMember<Method> method, @NotNull Object instance
+    ) throws ReflectiveOperationException {
+        MethodHandle handle = resolve(method);
+        try {
+            handle.invokeExact(instance);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Retrieve the handle, that is kept on the specified member, or create a new one if it does not exist.
+     *
+     * @param member the injectable member to resolve the handle of
+     * @return the handle of the member, adapted to the generic signature of its kind
+     *
+     * @throws IllegalAccessException if the member cannot be accessed
+     */
+    private static @NotNull MethodHandle resolve(@NotNull InjectableMember<?> member) throws IllegalAccessException {
+        MethodHandle handle = member.handle();
+        if (handle == null)
+            member.handle(handle = create(member.member()));
+        return handle;
+    }
+
+    /**
+     * Retrieve the cached handle of the specified member, or create a new one if it does not exist.
+     *
+     * @param member the constructor, field or method to resolve the handle of
+     * @return the handle of the member, adapted to the generic signature of its kind
+     *
+     * @throws IllegalAccessException if the member cannot be accessed
+     */
+    private static @NotNull MethodHandle resolve(@NotNull Member member) throws IllegalAccessException {
+        Map<Member, MethodHandle> handles = HANDLES.get(member.getDeclaringClass());
+        MethodHandle handle = handles.get(member);
+        if (handle != null)
+            return handle;
+
+        // creating the same handle concurrently is harmless, the last one wins
+        handle = create(member);
+        handles.put(member, handle);
+        return handle;
+    }
+
+    /**
+     * Create the handle of the specified member, adapted to the generic signature of its kind.
+     *
+     * @param member the constructor, field or method to create the handle of
+     * @return the adapted handle of the member
+     *
+     * @throws IllegalAccessException if the member cannot be accessed
+     */
+    private static @NotNull MethodHandle create(@NotNull Member member) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MemberLookup.lookupFor(member.getDeclaringClass());
+        boolean isStatic = Modifier.isStatic(member.getModifiers());
+
+        if (member instanceof Constructor<?>) {
+            Constructor<?> constructor = (Constructor<?>) member;
+            return lookup.unreflectConstructor(constructor)
+                .asFixedArity()
+                .asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(CONSTRUCTOR_TYPE);
+        }
+
+        if (member instanceof Field) {
+            MethodHandle setter = lookup.unreflectSetter((Field) member);
+            // ignore the instance argument for static fields
+            if (isStatic)
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            return setter.asType(SETTER_TYPE);
+        }
+
+        MethodHandle method = lookup.unreflect((Method) member).asFixedArity();
+        // ignore the instance argument for static methods
+        if (isStatic)
+            method = MethodHandles.dropArguments(method, 0, Object.class);
+        return method.asType(METHOD_TYPE);
+    }
+}
@@ -0,0 +1,219 @@
+package com.atlas.divine.runtime.inject;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents an injection backend, that prefers the {@link ServiceInjector injectors}, that were generated for
+ * the services at compile time, and falls back to another backend for the services and members, that they do not
+ * handle.
+ * <p>
+ * The injectors are discovered by their naming convention, using the class loader of the service, and they are
+ * cached on the service classes, therefore each class is only looked up once.
+ * <p>
+ * Classes, that do not have a generated injector, count the accesses of their members, and once they reach
+ * {@link InjectorGenerator#THRESHOLD}, such as transient services, an injector is generated for them at runtime by
+ * the {@link InjectorGenerator}.
+ */
+final class PrecompiledBackend implements InjectionBackend {
+    /**
+     * The shared instance of the backend, that falls back to the reflection API.
+     */
+    static final @NotNull PrecompiledBackend INSTANCE = new PrecompiledBackend(ReflectionBackend.INSTANCE);
+
+    /**
+     * The cache of the generated injectors of each class, or {@link #NO_INJECTOR} if the class does not have one.
+     */
+    private static final @NotNull ClassValue<@NotNull Injector> INJECTORS = new ClassValue<Injector>() {
+        @Override
+        protected Injector computeValue(@NotNull Class<?> type) {
+            return load(type);
+        }
+    };
+
+    /**
+     * The placeholder of the classes, that do not have a generated injector.
+     */
+    private static final @NotNull Injector NO_INJECTOR = new Injector(null, null, null);
+
+    /**
+     * The backend, that accesses the members, that the generated injectors do not handle.
+     */
+    private final @NotNull InjectionBackend fallback;
+
+    /**
+     * Initialize the precompiled backend.
+     *
+     * @param fallback the backend, that accesses the members, that the generated injectors do not handle
+     */
+    private PrecompiledBackend(@NotNull InjectionBackend fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @NotNull T newInstance(
+        @NotNull Constructor<T> constructor, @Nullable Object @NotNull ... args
+    ) throws ReflectiveOperationException {
+        Injector injector = INJECTORS.get(constructor.getDeclaringClass());
+        ServiceInjector target = injector.get();
+        if (target == null || !injector.constructs(constructor))
+            return fallback.newInstance(constructor, args);
+
+        try {
+            return (T) target.newInstance(args);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void set(
+        @NotNull Field field, @NotNull Object instance, @Nullable Object value
+    ) throws ReflectiveOperationException {
+        ServiceInjector injector = INJECTORS.get(field.getDeclaringClass()).get();
+        if (injector == null || !injector.set(field.getName(), instance, value))
+            fallback.set(field, instance, value);
+    }
+
+    @Override
+    public void invoke(@NotNull Method method, @NotNull Object instance) throws ReflectiveOperationException {
+        ServiceInjector injector = INJECTORS.get(method.getDeclaringClass()).get();
+        if (injector != null) {
+            try {
+                if (injector.invoke(method.getName(), instance))
+                    return;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+        fallback.invoke(method, instance);
+    }
+
+    /**
+     * Load the generated injector of the specified class.
+     *
+     * @param type the class to load the injector of
+     * @return the loaded injector, the state of the injector, that is generated at runtime, or {@link #NO_INJECTOR}
+     * if the class does not have one
+     */
+    private static @NotNull Injector load(@NotNull Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive())
+            return NO_INJECTOR;
+
+        ServiceInjector injector;
+        try {
+            String name = type.getName() + ServiceInjector.SUFFIX;
+            Class<?> injectorType = Class.forName(name, true, type.getClassLoader());
+            if (!ServiceInjector.class.isAssignableFrom(injectorType))
+                return NO_INJECTOR;
+            injector = (ServiceInjector) injectorType.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | SecurityException e) {
+            // the class was not processed, or it was processed against an incompatible version of the library
+            return InjectorGenerator.isSupported(type) ? new Injector(null, null, type) : NO_INJECTOR;
+        }
+
+        // resolve the constructor, that the injector calls, so that it can be compared to the requested one
+        Constructor<?> constructor = null;
+        Class<?>[] parameters = injector.constructorParameters();
+        if (parameters != null) {
+            try {
+                constructor = type.getDeclaredConstructor(parameters);
+            } catch (NoSuchMethodException ignored) {
+                // the class was changed after the injector had been generated
+            }
+        }
+
+        return new Injector(injector, constructor, null);
+    }
+
+    /**
+     * Represents the generated injector of a class.
+     */
+    private static final class Injector {
+        /**
+         * The class, that the injector is generated for at runtime, or {@code null} if it is not generated.
+         */
+        private final @Nullable Class<?> type;
+
+        /**
+         * The number of the member accesses of the class, that stops counting at the generation threshold.
+         */
+        private final @NotNull AtomicInteger accesses = new AtomicInteger();
+
+        /**
+         * The generated injector, or {@code null} if the class does not have one.
+         */
+        private volatile @Nullable ServiceInjector injector;
+
+        /**
+         * The constructor, that the injector calls, or {@code null} if it cannot instantiate the class.
+         */
+        private volatile @Nullable Constructor<?> constructor;
+
+        /**
+         * Initialize the generated injector of a class.
+         *
+         * @param injector the generated injector, or {@code null} if the class does not have one
+         * @param constructor the constructor, that the injector calls, or {@code null} if it cannot instantiate
+         * @param type the class to generate the injector for at runtime, or {@code null} if it is not generated
+         */
+        private Injector(
+            @Nullable ServiceInjector injector, @Nullable Constructor<?> constructor, @Nullable Class<?> type
+        ) {
+            this.injector = injector;
+            this.constructor = constructor;
+            this.type = type;
+        }
+
+        /**
+         * Retrieve the generated injector of the class, and generate it at runtime, when the member accesses of
+         * the class reach the threshold.
+         *
+         * @return the generated injector, or {@code null} if the members should be accessed by the fallback
+         */
+        private @Nullable ServiceInjector get() {
+            ServiceInjector injector = this.injector;
+            // stop counting, once the injector has been generated, or it could not be generated
+            if (injector != null || type == null || accesses.get() >= InjectorGenerator.THRESHOLD)
+                return injector;
+
+            // only the access, that reaches the threshold, generates the injector
+            if (accesses.incrementAndGet() != InjectorGenerator.THRESHOLD)
+                return null;
+
+            Constructor<?> constructor = InjectorGenerator.resolveConstructor(type);
+            injector = InjectorGenerator.generate(type, constructor);
+            if (injector != null) {
+                // publish the constructor before the injector, so that readers of the injector see it as well
+                this.constructor = constructor;
+                this.injector = injector;
+            }
+            return injector;
+        }
+
+        /**
+         * Indicate, whether the injector instantiates the class with the specified constructor.
+         *
+         * @param constructor the constructor to check
+         * @return {@code true} if the injector calls the constructor, {@code false} otherwise
+         */
+        private boolean constructs(@NotNull Constructor<?> constructor) {
+            Constructor<?> target = this.constructor;
+            if (target == constructor)
+                return true;
+            if (target == null || !target.equals(constructor))
+                return false;
+            // keep the instance of the caller, that is resolved once by the service metadata, so that the next
+            // check is an identity comparison
+            this.constructor = constructor;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.atlas.divine.runtime.inject;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Represents an injection backend, that accesses the members of the services using the core reflection API.
+ */
+final class ReflectionBackend implements InjectionBackend {
+    /**
+     * The shared instance of the stateless backend.
+     */
+    static final @NotNull ReflectionBackend INSTANCE = new ReflectionBackend();
+
+    /**
+     * Prevent the instantiation of the shared backend.
+     */
+    private ReflectionBackend() {
+    }
+
+    @Override
+    public <T> @NotNull T newInstance(
+        @NotNull Constructor<T> constructor, @Nullable Object @NotNull ... args
+    ) throws ReflectiveOperationException {
+        return constructor.newInstance(args);
+    }
+
+    @Override
+    public void set(
+        @NotNull Field field, @NotNull Object instance, @Nullable Object value
+    ) throws ReflectiveOperationException {
+        field.set(instance, value);
+    }
+
+    @Override
+    public void invoke(@NotNull Method method, @NotNull Object instance) throws ReflectiveOperationException {
+        method.invoke(instance);
+    }
+}
@@ -0,0 +1,64 @@
+package com.atlas.divine.runtime.inject;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents an injector of a service class, that is generated at compile time by the {@code di-vine-processor}
+ * annotation processor.
+ * <p>
+ * The injector is generated in the package of the service, with the binary name of the service, suffixed with
+ * {@link #SUFFIX}, and it accesses the members of the service directly, without using reflection. Members, that
+ * the generated code cannot access, such as private members, are not handled by the injector, and the container
+ * accesses them using the reflection API instead.
+ * <p>
+ * Services, that were not processed, get an injector generated at runtime, once their members are accessed
+ * repeatedly. The runtime injector is a hidden nestmate of the service, therefore it accesses the private members
+ * as well.
+ * <p>
+ * This interface is implemented by the generated code, and it is not intended to be implemented manually.
+ */
+public interface ServiceInjector {
+    /**
+     * The suffix of the binary name of the generated injector classes.
+     */
+    @NotNull String SUFFIX = "_DiVineInjector";
+
+    /**
+     * Retrieve the parameter types of the constructor, that the injector instantiates the service with.
+     *
+     * @return the constructor parameter types, or {@code null} if the injector cannot instantiate the service
+     */
+    @NotNull Class<?> @Nullable [] constructorParameters();
+
+    /**
+     * Create a new instance of the service.
+     *
+     * @param args the arguments of the constructor call
+     * @return the new instance of the service
+     *
+     * @throws Throwable if the constructor throws an exception
+     */
+    @NotNull Object newInstance(@Nullable Object @NotNull [] args) throws Throwable;
+
+    /**
+     * Set the value of the specified field of a service instance.
+     *
+     * @param field the name of the field to set
+     * @param instance the instance of the service
+     * @param value the new value of the field
+     * @return {@code true} if the field was set, {@code false} if the injector cannot access the field
+     */
+    boolean set(@NotNull String field, @NotNull Object instance, @Nullable Object value);
+
+    /**
+     * Invoke the specified parameterless method of a service instance.
+     *
+     * @param method the name of the method to invoke
+     * @param instance the instance of the service
+     * @return {@code true} if the method was invoked, {@code false} if the injector cannot access the method
+     *
+     * @throws Throwable if the method throws an exception
+     */
+    boolean invoke(@NotNull String method, @NotNull Object instance) throws Throwable;
+}
@@ -0,0 +1,50 @@
+package com.atlas.divine.tree;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a reusable reference to a container registry, that is identified by its path in the container hierarchy.
+ * <p>
+ * The path is resolved using {@link ContainerRegistry#of(String)} when the handle is first accessed, and the resolved
+ * container is kept by the handle, therefore frequently executed code can access the container without looking up
+ * its name each time.
+ * <p>
+ * You can create a handle using the {@link ContainerRegistry#handle(String)} method.
+ */
+@RequiredArgsConstructor
+@Getter
+public final class ContainerHandle {
+    /**
+     * The container registry, that the path is resolved from.
+     */
+    private final @NotNull ContainerRegistry parent;
+
+    /**
+     * The path of the container registry, relative to the parent registry, such as {@code "world/nether"}.
+     */
+    private final @NotNull String path;
+
+    /**
+     * The resolved container registry, or {@code null} if the handle has not been accessed yet.
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile @Nullable ContainerRegistry container;
+
+    /**
+     * Retrieve the container registry, that this handle refers to.
+     * <p>
+     * The registry is created, if it does not exist yet.
+     *
+     * @return the container registry of the handle
+     */
+    public @NotNull ContainerRegistry get() {
+        ContainerRegistry container = this.container;
+        if (container == null)
+            this.container = container = parent.of(path);
+        return container;
+    }
+}
@@ -1,19 +1,29 @@
 package com.atlas.divine.tree;
 
 import com.atlas.divine.Container;
+import com.atlas.divine.descriptor.generic.Inject;
 import com.atlas.divine.descriptor.generic.Service;
 import com.atlas.divine.descriptor.generic.ServiceLike;
+import com.atlas.divine.descriptor.generic.ServiceScope;
 import com.atlas.divine.exception.InvalidServiceException;
 import com.atlas.divine.exception.ServiceInitializationException;
 import com.atlas.divine.provider.AnnotationProvider;
 import com.atlas.divine.provider.Ref;
+import com.atlas.divine.runtime.context.Contexts;
+import com.atlas.divine.runtime.index.ServiceIndex;
+import com.atlas.divine.runtime.index.ServiceIndex.IndexedService;
 import com.atlas.divine.tree.cache.ContainerHook;
 import com.atlas.divine.exception.UnknownDependencyException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -67,6 +77,30 @@ public interface ContainerInstance {
      */
     void insert(@NotNull @ServiceLike Class<?> @NotNull ... services);
 
+    /**
+     * Register the services of the specified index in the container, that specify {@link Service#multiple()} =
+     * {@code true} in their descriptor.
+     * <p>
+     * The service classes are not loaded until their group is retrieved using {@link #getMany(String)}. Containers,
+     * that do not support service indexes, load the service classes right away, and register them using
+     * {@link #insert(Class[])}.
+     *
+     * @param index the service index, that was generated at compile time
+     *
+     * @throws InvalidServiceException if an indexed service cannot be loaded, or the service is invalid
+     */
+    default void insert(@NotNull ServiceIndex index) {
+        for (List<IndexedService> services : index.groups().values()) {
+            for (IndexedService service : services) {
+                try {
+                    insert(service.load());
+                } catch (ClassNotFoundException e) {
+                    throw new InvalidServiceException("Indexed service " + service.className() + " cannot be loaded");
+                }
+            }
+        }
+    }
+
     /**
      * Retrieve multiple instances from the container for the specified unique identifier.
      *
@@ -94,6 +128,76 @@ public interface ContainerInstance {
      */
     <TServices> @NotNull List<@NotNull TServices> getMany(@NotNull String id);
 
+    /**
+     * Instantiate the specified services and their dependencies in advance, so that later lookups hit the cache.
+     * <p>
+     * The dependency graph of the services is resolved from their constructor parameters and the fields annotated
+     * with {@link Inject}. Services, that do not depend on each other, are instantiated in parallel, level by level
+     * in topological order. Transient services are not instantiated.
+     *
+     * <p>
+     * Containers, that do not support planning the warm-up, retrieve the services one after another.
+     *
+     * @param types the class types of the services to warm up
+     * @param context the caller class that the container is being called from
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    default void warmUp(@NotNull Collection<@NotNull Class<?>> types, @NotNull Class<?> context) {
+        for (Class<?> type : types) {
+            Service service = type.getAnnotation(Service.class);
+            if (service != null && service.scope() != ServiceScope.TRANSIENT)
+                get(type, context);
+        }
+    }
+
+    /**
+     * Instantiate the specified services and their dependencies in advance, so that later lookups hit the cache.
+     * <p>
+     * The dependency graph of the services is resolved from their constructor parameters and the fields annotated
+     * with {@link Inject}. Services, that do not depend on each other, are instantiated in parallel, level by level
+     * in topological order. Transient services are not instantiated.
+     *
+     * @param types the class types of the services to warm up
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    default void warmUp(@NotNull Class<?> @NotNull ... types) {
+        try {
+            warmUp(Arrays.asList(types), Contexts.getCallerClass());
+        } catch (ClassNotFoundException e) {
+            warmUp(Arrays.asList(types), Container.class);
+        }
+    }
+
+    /**
+     * Instantiate all the services, that are registered as multiple services in the container, including the services
+     * of the inserted service indexes, and their dependencies in advance.
+     *
+     * @param context the caller class that the container is being called from
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    void warmUpAll(@NotNull Class<?> context);
+
+    /**
+     * Instantiate all the services, that are registered as multiple services in the container, including the services
+     * of the inserted service indexes, and their dependencies in advance.
+     *
+     * @throws InvalidServiceException if a service descriptor is invalid or a service type cannot be a service
+     * @throws ServiceInitializationException if an error occurs while initializing a service
+     */
+    default void warmUpAll() {
+        try {
+            warmUpAll(Contexts.getCallerClass());
+        } catch (ClassNotFoundException e) {
+            warmUpAll(Container.class);
+        }
+    }
+
     /**
      * Retrieve an instance from the container for the specified class type. Based on the service descriptor,
      * a dependency instance may be retrieved from the container cache, or a new instance is created.
@@ -121,6 +225,43 @@ public interface ContainerInstance {
      */
     <T> @NotNull T get(@NotNull Class<T> type, @NotNull Class<?> context);
 
+    /**
+     * Retrieve an instance from the container for the specified class type asynchronously. The dependency tree is
+     * resolved on the common fork-join pool, therefore the calling thread never blocks on the creation of a service.
+     *
+     * @param type the class type of the dependency
+     * @return the future, that is completed with the instance of the desired dependency type
+     *
+     * @param <T> the type of the dependency
+     */
+    default <T> @NotNull CompletableFuture<@NotNull T> getAsync(@NotNull Class<T> type) {
+        try {
+            return getAsync(type, Contexts.getCallerClass(), ForkJoinPool.commonPool());
+        } catch (ClassNotFoundException e) {
+            return getAsync(type, Container.class, ForkJoinPool.commonPool());
+        }
+    }
+
+    /**
+     * Retrieve an instance from the container for the specified class type asynchronously. The dependency tree is
+     * resolved on the specified executor, therefore the calling thread never blocks on the creation of a service.
+     * <p>
+     * Concurrent callers share the creation of the same service. Containers, that do not support asynchronous
+     * lookups, retrieve the service using {@link #get(Class, Class)} on the executor.
+     *
+     * @param type the class type of the dependency
+     * @param context the caller class that the container is being called from
+     * @param executor the executor to resolve the dependency tree on
+     * @return the future, that is completed with the instance of the desired dependency type
+     *
+     * @param <T> the type of the dependency
+     */
+    default <T> @NotNull CompletableFuture<@NotNull T> getAsync(
+        @NotNull Class<T> type, @NotNull Class<?> context, @NotNull Executor executor
+    ) {
+        return CompletableFuture.supplyAsync(() -> get(type, context), executor);
+    }
+
     /**
      * Retrieve an instance from the container for the specified class type. Based on the service descriptor,
      * a dependency instance may be retrieved from the container cache, or a new instance is created.
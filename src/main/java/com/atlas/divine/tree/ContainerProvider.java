@@ -5,7 +5,10 @@ import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.WeakReference;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 /**
@@ -28,6 +31,26 @@ public abstract class ContainerProvider {
         .concurrencyLevel(4)
         .makeMap();
 
+    /**
+     * The version of the context container mappings. It is incremented each time a container is registered, in order
+     * to invalidate the containers that were previously resolved for the caller classes.
+     */
+    private final @NotNull AtomicInteger version = new AtomicInteger();
+
+    /**
+     * The cache of the containers that were resolved for the caller classes.
+     * <p>
+     * The values are stored on the classes themselves, and the containers are referenced weakly, therefore the cache
+     * does not prevent the class loaders of the callers, or the containers from being garbage collected.
+     */
+    private final @NotNull ClassValue<@NotNull AtomicReference<@Nullable ResolvedContainer>> resolvedContainers =
+        new ClassValue<AtomicReference<ResolvedContainer>>() {
+            @Override
+            protected AtomicReference<ResolvedContainer> computeValue(@NotNull Class<?> type) {
+                return new AtomicReference<>();
+            }
+        };
+
     /**
      * Get the global container to be used for dependency resolving, when the context is not specified explicitly, or
      * the context does not have a container associated with it.
@@ -58,6 +81,29 @@ public abstract class ContainerProvider {
      * @return The container instance for the specified context.
      */
     public @NotNull ContainerRegistry resolveContainer(@NotNull Class<?> context) {
+        AtomicReference<ResolvedContainer> cache = resolvedContainers.get(context);
+
+        // use the cached container, if no container has been registered since it was resolved
+        int currentVersion = version.get();
+        ResolvedContainer cached = cache.get();
+        if (cached != null && cached.version == currentVersion) {
+            ContainerRegistry container = cached.container.get();
+            if (container != null)
+                return container;
+        }
+
+        ContainerRegistry container = lookupContainer(context);
+        cache.set(new ResolvedContainer(currentVersion, new WeakReference<>(container)));
+        return container;
+    }
+
+    /**
+     * Look up the container instance for the specified context, without using the cache of the resolved containers.
+     *
+     * @param context the context to resolve the container for
+     * @return the container instance for the specified context
+     */
+    private @NotNull ContainerRegistry lookupContainer(@NotNull Class<?> context) {
         Object key = contextKeyMapper().apply(context);
         if (key == null)
             return globalContainer();
@@ -73,5 +119,23 @@ public abstract class ContainerProvider {
      */
     public void registerContainer(@NotNull Object key, @NotNull ContainerRegistry container) {
         contextContainers.put(key, container);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Represents a container that was resolved for a caller class, with the version of the mappings at the time of
+     * the resolution.
+     */
+    @RequiredArgsConstructor
+    private static final class ResolvedContainer {
+        /**
+         * The version of the context container mappings, that the container was resolved with.
+         */
+        private final int version;
+
+        /**
+         * The weak reference to the resolved container.
+         */
+        private final @NotNull WeakReference<@NotNull ContainerRegistry> container;
     }
 }
@@ -1,9 +1,12 @@
 package com.atlas.divine.tree;
 
+import com.atlas.divine.descriptor.generic.ParallelResolution;
+import com.atlas.divine.runtime.inject.InjectionBackend;
 import com.atlas.divine.tree.cache.Dependency;
 import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Set;
 
@@ -18,12 +21,28 @@ public interface ContainerRegistry extends ContainerInstance {
      * Retrieve a container registry by its specific name.
      * If the parent registry already contains a registry with the specified name, it will be returned.
      * Otherwise, a new registry will be created and registered in the parent registry.
+     * <p>
+     * The name may be a path of nested registries separated by {@code /}, such as {@code "world/nether/chunk-12"},
+     * which is resolved in a single traversal of the hierarchy.
      *
-     * @param name the name of the registry
+     * @param name the name or the path of the registry
      * @return the container registry with the specified name
      */
     @NotNull ContainerRegistry of(@NotNull String name);
 
+    /**
+     * Create a reusable handle for the container registry with the specified name or path.
+     * <p>
+     * The handle resolves the registry once, when it is first accessed, therefore frequently executed code should
+     * prefer keeping a handle over calling {@link #of(String)} each time.
+     *
+     * @param path the name or the path of the registry, relative to this registry
+     * @return the handle of the container registry
+     */
+    default @NotNull ContainerHandle handle(@NotNull String path) {
+        return new ContainerHandle(this, path);
+    }
+
     /**
      * Retrieve the root container registry of the container hierarchy.
      *
@@ -52,6 +71,73 @@ public interface ContainerRegistry extends ContainerInstance {
      */
     @NotNull String getName();
 
+    /**
+     * Retrieve the backend, that this container uses to access the members of the services.
+     * <p>
+     * Registries, that do not support injection backends, use the default {@link InjectionBackend#precompiled()}
+     * backend.
+     *
+     * @return the injection backend of this container
+     */
+    default @NotNull InjectionBackend getInjectionBackend() {
+        return InjectionBackend.precompiled();
+    }
+
+    /**
+     * Set the backend, that this container uses to access the members of the services.
+     * <p>
+     * The containers that are created by this container afterward inherit the backend.
+     * <p>
+     * The backend of registries, that do not support injection backends, is fixed to the one reported by
+     * {@link #getInjectionBackend()}, therefore they ignore this call.
+     *
+     * @param injectionBackend the new injection backend of this container
+     */
+    default void setInjectionBackend(@NotNull InjectionBackend injectionBackend) {
+    }
+
+    /**
+     * Check whether this container resolves the constructor arguments of every service concurrently.
+     * <p>
+     * Registries, that do not support parallel resolution, only resolve the services annotated with
+     * {@link ParallelResolution} concurrently, if any.
+     *
+     * @return {@code true} if parallel resolution is enabled for every service, {@code false} otherwise
+     *
+     * @see ParallelResolution
+     */
+    default boolean isParallelResolution() {
+        return false;
+    }
+
+    /**
+     * Set whether this container should resolve the constructor arguments of every service concurrently, as if each
+     * service was annotated with {@link ParallelResolution}.
+     * <p>
+     * The containers that are created by this container afterward inherit the setting.
+     *
+     * <p>
+     * Registries, that do not support parallel resolution, ignore this call, and keep reporting {@code false} from
+     * {@link #isParallelResolution()}.
+     *
+     * @param parallelResolution {@code true} to enable parallel resolution, {@code false} to disable it
+     */
+    default void setParallelResolution(boolean parallelResolution) {
+    }
+
+    /**
+     * Retrieve the time, that each service is given to complete its termination methods, when this container is reset.
+     * <p>
+     * Registries, that do not support termination timeouts, report the default timeout of 10 seconds. The timeout of
+     * a {@link com.atlas.divine.impl.DefaultContainerImpl} can be changed with its
+     * {@code setTerminationTimeout(Duration)} method.
+     *
+     * @return the termination timeout of a service
+     */
+    default @NotNull Duration getTerminationTimeout() {
+        return Duration.ofSeconds(10);
+    }
+
     /**
      * Retrieve the json representation of this container registry.
      *
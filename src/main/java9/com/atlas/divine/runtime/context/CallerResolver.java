@@ -0,0 +1,57 @@
+package com.atlas.divine.runtime.context;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents an internal utility that resolves classes from the call stack of the current thread.
+ * <p>
+ * This is the Java 9+ implementation, that walks the stack lazily and stops at the first matching frame. The classes
+ * are retained by the walker, therefore no stack trace elements are materialized and no classes are looked up by name.
+ */
+final class CallerResolver {
+    /**
+     * The stack walker that retains the declaring class references of the stack frames.
+     */
+    private static final @NotNull StackWalker WALKER = StackWalker.getInstance(
+        StackWalker.Option.RETAIN_CLASS_REFERENCE
+    );
+
+    /**
+     * Prevent the instantiation of the utility class.
+     */
+    private CallerResolver() {
+    }
+
+    /**
+     * Resolve the class from the call stack, that is the specified number of frames above the method that
+     * called this method.
+     *
+     * @param depth the number of frames to skip, {@code 0} resolves the class of the calling method
+     * @return the class at the specified depth, or {@code null} if it cannot be resolved
+     */
+    static @Nullable Class<?> getCallerClass(int depth) {
+        // the first frame of the walk is this method, skip it as well
+        return WALKER.walk(frames -> frames
+            .skip(depth + 1)
+            .findFirst()
+            .map(StackWalker.StackFrame::getDeclaringClass)
+            .orElse(null)
+        );
+    }
+
+    /**
+     * Resolve the first class from the call stack, that is not declared under the specified package prefix.
+     *
+     * @param excludedPrefix the name prefix of the classes that should be skipped
+     * @return the first foreign class of the call stack, or {@code null} if there is none
+     */
+    static @Nullable Class<?> findCallerClass(@NotNull String excludedPrefix) {
+        return WALKER.walk(frames -> frames
+            .map(StackWalker.StackFrame::getDeclaringClass)
+            .filter(type -> !type.getName().startsWith(excludedPrefix))
+            .findFirst()
+            .orElse(null)
+        );
+    }
+}
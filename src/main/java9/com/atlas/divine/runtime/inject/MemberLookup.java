@@ -0,0 +1,35 @@
+package com.atlas.divine.runtime.inject;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Represents an internal utility that resolves the lookup, that the method handles of service members are created with.
+ * <p>
+ * This is the Java 9+ implementation, that uses a private lookup in the service class, therefore the handles can be
+ * created without {@link java.lang.reflect.AccessibleObject#setAccessible(boolean)}, as long as the package of
+ * the service is open to the dependency injector.
+ */
+final class MemberLookup {
+    /**
+     * Prevent the instantiation of the utility class.
+     */
+    private MemberLookup() {
+    }
+
+    /**
+     * Resolve the lookup, that the members of the specified class should be unreflected with.
+     *
+     * @param type the class that declares the members
+     * @return the lookup to create the member handles with
+     */
+    static @NotNull MethodHandles.Lookup lookupFor(@NotNull Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            // the package is not open to us, fall back to the members being made accessible
+            return MethodHandles.lookup();
+        }
+    }
+}
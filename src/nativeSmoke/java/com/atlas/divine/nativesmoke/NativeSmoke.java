@@ -0,0 +1,127 @@
+package com.atlas.divine.nativesmoke;
+
+import com.atlas.divine.Container;
+import com.atlas.divine.descriptor.factory.Factory;
+import com.atlas.divine.descriptor.generic.Inject;
+import com.atlas.divine.descriptor.generic.Service;
+import com.atlas.divine.descriptor.generic.ServiceScope;
+import com.atlas.divine.runtime.lifecycle.AfterInitialized;
+import com.atlas.divine.tree.ContainerInstance;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Represents a smoke test, that resolves a small service graph, and exits with an error if the container does not
+ * resolve it as expected.
+ * <p>
+ * The smoke test is built as a GraalVM native image by the {@code nativeSmokeTest} task, using the reachability
+ * metadata, that the annotation processor generates for the services.
+ */
+public final class NativeSmoke {
+    /**
+     * Run the smoke test.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(@NotNull String @NotNull [] args) {
+        ContainerInstance container = Container.forContext(NativeSmoke.class);
+
+        // services with a generated injector, and with private members, that are accessed reflectively
+        Greeter greeter = container.get(Greeter.class);
+        check(greeter.greet().equals("Hello, native!"), "constructor and field injection");
+        check(greeter.punctuation.names != null, "private field injection");
+        check(greeter.initialized, "initialization method");
+
+        // a transient service, that is created by a factory with properties
+        Message message = container.get(Message.class, "factory");
+        check(message.text().equals("factory"), "factory with properties");
+
+        // the multiple services, that are registered from the service index
+        List<Handler> handlers = container.getMany("smoke-handlers");
+        check(handlers.size() == 2, "multiple services from the service index");
+
+        System.out.println("DiVine native smoke test passed");
+    }
+
+    /**
+     * Fail the smoke test, if the specified condition does not hold.
+     *
+     * @param condition the condition to check
+     * @param feature the name of the feature, that the condition checks
+     */
+    private static void check(boolean condition, @NotNull String feature) {
+        if (!condition)
+            throw new IllegalStateException("Smoke test failed: " + feature);
+    }
+
+    @Service
+    static class Greeter {
+        private final Names names;
+
+        @Inject
+        Punctuation punctuation;
+
+        boolean initialized;
+
+        Greeter(Names names) {
+            this.names = names;
+        }
+
+        @AfterInitialized
+        void init() {
+            initialized = true;
+        }
+
+        String greet() {
+            return "Hello, " + names.name() + punctuation.suffix();
+        }
+    }
+
+    @Service
+    static class Names {
+        private String name() {
+            return "native";
+        }
+    }
+
+    @Service
+    static class Punctuation {
+        @Inject
+        private Names names;
+
+        private Punctuation() {
+        }
+
+        String suffix() {
+            return "!";
+        }
+    }
+
+    @Service(scope = ServiceScope.TRANSIENT, factory = MessageFactory.class)
+    interface Message {
+        String text();
+    }
+
+    static class MessageFactory implements Factory<Message, String> {
+        @Override
+        public @NotNull Message create(
+            @NotNull Service descriptor, @NotNull Class<? extends Message> type, @NotNull Class<?> context,
+            @Nullable String properties
+        ) {
+            return () -> properties;
+        }
+    }
+
+    interface Handler {
+    }
+
+    @Service(id = "smoke-handlers", multiple = true)
+    static class FirstHandler implements Handler {
+    }
+
+    @Service(id = "smoke-handlers", multiple = true)
+    static class SecondHandler implements Handler {
+    }
+}
@@ -3,18 +3,33 @@ package com.atlas.divine;
 import com.atlas.divine.exception.CircularDependencyException;
 import com.atlas.divine.exception.InvalidServiceAccessException;
 import com.atlas.divine.exception.InvalidServiceException;
+import com.atlas.divine.exception.ServiceTerminationException;
+import com.atlas.divine.impl.ClassLoaderContainerProvider;
+import com.atlas.divine.impl.DefaultContainerImpl;
 import com.atlas.divine.provider.AnnotationProvider;
 import com.atlas.divine.provider.Ref;
+import com.atlas.divine.runtime.context.Contexts;
+import com.atlas.divine.runtime.index.ServiceIndex;
+import com.atlas.divine.runtime.inject.InjectionBackend;
+import com.atlas.divine.runtime.inject.ServiceInjector;
 import com.atlas.divine.runtime.lifecycle.AfterInitialized;
+import com.atlas.divine.runtime.lifecycle.BeforeTerminate;
+import com.atlas.divine.tree.ContainerHandle;
 import com.atlas.divine.tree.ContainerInstance;
+import com.atlas.divine.tree.ContainerProvider;
 import com.atlas.divine.tree.ContainerRegistry;
 import com.atlas.divine.exception.UnknownDependencyException;
+import com.atlas.divine.descriptor.factory.AsyncFactory;
 import com.atlas.divine.descriptor.factory.Factory;
+import com.atlas.divine.descriptor.factory.SharedFactory;
 import com.atlas.divine.descriptor.generic.Inject;
+import com.atlas.divine.descriptor.generic.ParallelResolution;
 import com.atlas.divine.descriptor.generic.Service;
 import com.atlas.divine.descriptor.generic.ServiceScope;
+import com.atlas.divine.descriptor.generic.ServiceVisibility;
 import com.atlas.divine.descriptor.property.NoProperties;
 import com.atlas.divine.descriptor.property.PropertyProvider;
+import com.atlas.divine.descriptor.property.PureProvider;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -22,11 +37,33 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collections;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class ContainerTest {
     @Test
@@ -365,6 +402,68 @@ class ContainerTest {
         assertEquals(200, services.get(1).get());
     }
 
+    @Test
+    public void test_multiple_services_from_index() {
+        // the index of the test services is generated by the annotation processor
+        ContainerRegistry container = new DefaultContainerImpl(null);
+        container.insert(ServiceIndex.load(ContainerTest.class.getClassLoader()));
+
+        List<MyMultipleService> services = container.getMany("my-multiple-service");
+        assertEquals(2, services.size());
+        assertEquals(100, services.get(0).get());
+        assertEquals(200, services.get(1).get());
+    }
+
+    @Test
+    public void test_local_index_skips_parent_resources() throws IOException {
+        ClassLoader parent = ContainerTest.class.getClassLoader();
+        try (URLClassLoader child = new URLClassLoader(new URL[0], parent)) {
+            // the child defines no index resources, therefore the services of the parent are not registered again
+            assertFalse(ServiceIndex.load(child).services().isEmpty());
+            assertTrue(ServiceIndex.loadLocal(child).services().isEmpty());
+            assertTrue(ServiceIndex.loadLocal(child).groups().isEmpty());
+        }
+    }
+
+    @Service(id = "my-transient-service", multiple = true, scope = ServiceScope.TRANSIENT)
+    static class MyTransientMultipleService implements MyMultipleService {
+        @Override
+        public int get() {
+            return 300;
+        }
+    }
+
+    @Test
+    public void test_multiple_services_are_cached() {
+        ContainerRegistry container = new DefaultContainerImpl(null);
+        container.insert(MyFirstMultipleService.class, MySecondMultipleService.class);
+
+        // the resolved group is reused, until one of its members changes
+        List<MyMultipleService> services = container.getMany("my-multiple-service");
+        assertSame(services, container.getMany("my-multiple-service"));
+        assertThrows(UnsupportedOperationException.class, () -> services.add(new MyFirstMultipleService()));
+
+        // changes of services outside the group, or in other containers, keep the resolved group
+        container.set(MyProvidedService.class, new MyProvidedService());
+        container.unset(MyProvidedService.class);
+        ContainerRegistry other = new DefaultContainerImpl(null);
+        other.insert(MyFirstMultipleService.class);
+        other.getMany("my-multiple-service");
+        other.unset(MyFirstMultipleService.class);
+        assertSame(services, container.getMany("my-multiple-service"));
+
+        container.unset(MyFirstMultipleService.class);
+        List<MyMultipleService> recreated = container.getMany("my-multiple-service");
+        assertNotSame(services, recreated);
+        assertNotSame(services.get(0), recreated.get(0));
+        assertSame(services.get(1), recreated.get(1));
+
+        // groups with transient members are resolved on each lookup
+        container.insert(MyTransientMultipleService.class);
+        List<MyMultipleService> transients = container.getMany("my-transient-service");
+        assertNotSame(transients.get(0), container.<MyMultipleService>getMany("my-transient-service").get(0));
+    }
+
     @Service
     static class MyParamService {
         private final String value;
@@ -570,4 +669,847 @@ class ContainerTest {
         service = container.get(MyService.class);
         assertEquals(123, service.getValue());
     }
+
+    @Test
+    public void test_context_bound_container() {
+        @Service(scope = ServiceScope.CONTAINER)
+        class MyService {
+        }
+
+        ContainerInstance container = Container.forContext(ContainerTest.class);
+        MyService service = container.get(MyService.class);
+
+        assertSame(service, container.get(MyService.class));
+        assertSame(service, Container.get(MyService.class));
+        assertTrue(container.has(MyService.class));
+
+        container.unset(MyService.class);
+        assertFalse(Container.has(MyService.class));
+    }
+
+    @Test
+    public void test_resolved_container_invalidation() {
+        ContainerProvider provider = new ClassLoaderContainerProvider();
+
+        ContainerRegistry container = provider.resolveContainer(ContainerTest.class);
+        assertSame(container, provider.resolveContainer(ContainerTest.class));
+
+        ContainerRegistry replacement = new DefaultContainerImpl(provider.globalContainer(), "replacement");
+        provider.registerContainer(ContainerTest.class.getClassLoader(), replacement);
+        assertSame(replacement, provider.resolveContainer(ContainerTest.class));
+    }
+
+    @Test
+    public void test_run_with_context() throws Exception {
+        @Service(visibility = ServiceVisibility.PRIVATE)
+        class MyService {
+        }
+
+        assertThrows(InvalidServiceAccessException.class, () -> Container.get(MyService.class));
+
+        Container.runWithContext(MyService.class, () -> assertNotNull(Container.get(MyService.class)));
+        assertNotNull(Container.callWithContext(MyService.class, () -> Container.get(MyService.class)));
+
+        assertNull(Contexts.currentContext());
+    }
+
+    @Test
+    public void test_context_propagating_executor() throws Exception {
+        @Service(visibility = ServiceVisibility.PRIVATE)
+        class MyService {
+        }
+
+        ExecutorService executor = Container.wrap(Executors.newSingleThreadExecutor());
+        try {
+            Future<MyService> future = Container.callWithContext(
+                MyService.class, () -> executor.submit(() -> Container.get(MyService.class))
+            );
+            assertNotNull(future.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @SharedFactory
+    private static class CountingFactory implements Factory<ServiceWithSharedFactory, NoProperties> {
+        private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        private CountingFactory() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        public @NotNull ServiceWithSharedFactory create(
+            @NotNull Service descriptor, @NotNull Class<? extends ServiceWithSharedFactory> type,
+            @NotNull Class<?> context, @Nullable NoProperties properties
+        ) {
+            return () -> 123;
+        }
+    }
+
+    @Service(factory = CountingFactory.class, scope = ServiceScope.TRANSIENT)
+    interface ServiceWithSharedFactory {
+        int get();
+    }
+
+    @Test
+    public void test_shared_factory() {
+        for (int i = 0; i < 3; i++)
+            assertEquals(123, Container.get(ServiceWithSharedFactory.class).get());
+        assertEquals(1, CountingFactory.INSTANCES.get());
+    }
+
+    @Service
+    @Getter
+    public static class NameService {
+        private final String name = "service factory";
+    }
+
+    @Service
+    @RequiredArgsConstructor
+    private static class InjectedFactory implements Factory<ServiceWithInjectedFactory, NoProperties> {
+        private final NameService nameService;
+
+        @Override
+        public @NotNull ServiceWithInjectedFactory create(
+            @NotNull Service descriptor, @NotNull Class<? extends ServiceWithInjectedFactory> type,
+            @NotNull Class<?> context, @Nullable NoProperties properties
+        ) {
+            return nameService::getName;
+        }
+    }
+
+    @Service(factory = InjectedFactory.class, scope = ServiceScope.TRANSIENT)
+    interface ServiceWithInjectedFactory {
+        String get();
+    }
+
+    @Test
+    public void test_factory_resolved_as_service() {
+        assertEquals("service factory", Container.get(ServiceWithInjectedFactory.class).get());
+        assertTrue(Container.has(InjectedFactory.class));
+    }
+
+    @PureProvider
+    static class CountingPropertyProvider implements PropertyProvider<MyDynamicService, String> {
+        private static final AtomicInteger CALLS = new AtomicInteger();
+
+        @Override
+        public @NotNull String provide(
+            @NotNull Service descriptor, @NotNull Class<MyDynamicService> type, @NotNull Class<?> context
+        ) {
+            CALLS.incrementAndGet();
+            return "first";
+        }
+    }
+
+    @Service(scope = ServiceScope.TRANSIENT)
+    static class MyPureDynamicServiceComponent {
+        @Inject(provider = CountingPropertyProvider.class)
+        public MyDynamicService service;
+    }
+
+    @Test
+    public void test_pure_property_provider() {
+        for (int i = 0; i < 3; i++) {
+            MyPureDynamicServiceComponent component = Container.get(MyPureDynamicServiceComponent.class);
+            assertEquals("First implementation", component.service.get());
+        }
+        assertEquals(1, CountingPropertyProvider.CALLS.get());
+    }
+
+    private abstract static class EchoFactory<TService, TProperties> implements Factory<TService, TProperties> {
+    }
+
+    private static class HierarchyFactory extends EchoFactory<ServiceWithHierarchyFactory, String>
+        implements Serializable {
+        @Override
+        public @NotNull ServiceWithHierarchyFactory create(
+            @NotNull Service descriptor, @NotNull Class<? extends ServiceWithHierarchyFactory> type,
+            @NotNull Class<?> context, @Nullable String properties
+        ) {
+            return () -> properties;
+        }
+    }
+
+    @Service(factory = HierarchyFactory.class, scope = ServiceScope.TRANSIENT)
+    interface ServiceWithHierarchyFactory {
+        String get();
+    }
+
+    @Test
+    public void test_factory_properties_from_generic_superclass() {
+        assertEquals("hello", Container.get(ServiceWithHierarchyFactory.class, "hello").get());
+        assertThrows(
+            InvalidServiceAccessException.class, () -> Container.get(ServiceWithHierarchyFactory.class, 123)
+        );
+    }
+
+    @Service(scope = ServiceScope.TRANSIENT)
+    static class MyTransientProvidedService {
+        @MyCustomAnnotation(val = 321)
+        public MyCustomService service;
+    }
+
+    @Test
+    public void test_custom_annotation_provider_changes() {
+        ContainerRegistry container = new DefaultContainerImpl(null);
+
+        assertNull(container.get(MyTransientProvidedService.class).service);
+
+        container.addProvider(MyCustomAnnotation.class, new MyAnnotationProvider());
+        assertEquals(321, container.get(MyTransientProvidedService.class).service.get());
+
+        container.removeProvider(MyCustomAnnotation.class);
+        assertNull(container.get(MyTransientProvidedService.class).service);
+    }
+
+    @Service
+    static class HandleDependency {
+    }
+
+    @Service
+    static class HandleService {
+        private final HandleDependency constructed;
+
+        @Inject
+        private HandleDependency injected;
+
+        private boolean initialized;
+
+        private HandleService(HandleDependency constructed) {
+            this.constructed = constructed;
+        }
+
+        @AfterInitialized
+        private void init() {
+            initialized = true;
+        }
+    }
+
+    @Test
+    public void test_method_handle_injection_backend() {
+        ContainerRegistry container = new DefaultContainerImpl(null);
+        container.setInjectionBackend(InjectionBackend.methodHandles());
+        assertSame(InjectionBackend.methodHandles(), container.of("child").getInjectionBackend());
+
+        HandleService service = container.get(HandleService.class);
+        assertSame(container.get(HandleDependency.class), service.constructed);
+        assertSame(service.constructed, service.injected);
+        assertTrue(service.initialized);
+    }
+
+    @Service(scope = ServiceScope.TRANSIENT)
+    static class PrecompiledService {
+        final HandleDependency constructed;
+
+        @Inject
+        HandleDependency injected;
+
+        int initialized;
+
+        PrecompiledService(HandleDependency constructed) {
+            this.constructed = constructed;
+        }
+
+        @AfterInitialized
+        void init() {
+            initialized++;
+        }
+    }
+
+    @Test
+    public void test_precompiled_injection_backend() throws ClassNotFoundException {
+        // the injector is generated by the annotation processor of the test sources
+        Class<?> injector = Class.forName(PrecompiledService.class.getName() + ServiceInjector.SUFFIX);
+        assertTrue(ServiceInjector.class.isAssignableFrom(injector));
+
+        ContainerRegistry container = new DefaultContainerImpl(null);
+        assertSame(InjectionBackend.precompiled(), container.getInjectionBackend());
+
+        HandleDependency dependency = container.get(HandleDependency.class);
+        PrecompiledService service = container.get(PrecompiledService.class);
+        assertSame(dependency, service.constructed);
+        assertSame(dependency, service.injected);
+        assertEquals(1, service.initialized);
+    }
+
+    @Service(scope = ServiceScope.TRANSIENT)
+    static class GeneratedService {
+        private final HandleDependency constructed;
+
+        private final boolean reflective;
+
+        @Inject
+        private HandleDependency injected;
+
+        @Inject(token = "GENERATED_VALUE")
+        private long value;
+
+        private int initialized;
+
+        private GeneratedService(HandleDependency constructed) {
+            this.constructed = constructed;
+            // the reflection API leaves the frame of the reflected constructor on the stack
+            reflective = Arrays.stream(new Throwable().getStackTrace())
+                .anyMatch(frame -> frame.getClassName().equals(Constructor.class.getName()));
+        }
+
+        @AfterInitialized
+        private int init() {
+            return ++initialized;
+        }
+    }
+
+    @Test
+    public void test_generated_injector_of_unprocessed_service() {
+        // the annotation processor cannot access the private members, therefore it does not generate an injector
+        assertThrows(
+            ClassNotFoundException.class, () -> Class.forName(GeneratedService.class.getName() + ServiceInjector.SUFFIX)
+        );
+
+        ContainerRegistry container = new DefaultContainerImpl(null);
+        container.set("GENERATED_VALUE", 42L);
+        HandleDependency dependency = container.get(HandleDependency.class);
+        assertTrue(container.get(GeneratedService.class).reflective);
+
+        boolean hiddenClasses;
+        try {
+            Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            hiddenClasses = true;
+        } catch (ClassNotFoundException e) {
+            hiddenClasses = false;
+        }
+
+        // the injector is generated at runtime, once the members of the service have been accessed repeatedly
+        for (int i = 0; i < 64; i++) {
+            GeneratedService service = container.get(GeneratedService.class);
+            assertSame(dependency, service.constructed);
+            assertSame(dependency, service.injected);
+            assertEquals(42L, service.value);
+            assertEquals(1, service.initialized);
+        }
+        assertEquals(!hiddenClasses, container.get(GeneratedService.class).reflective);
+    }
+
+    @Service
+    static class ContendedService {
+        static final AtomicInteger CONSTRUCTED = new AtomicInteger();
+
+        ContendedService() throws InterruptedException {
+            CONSTRUCTED.incrementAndGet();
+            // make the creation slow enough, so that the other threads request the service in the meantime
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void test_concurrent_creation_is_exactly_once() throws Exception {
+        ContainerRegistry container = new DefaultContainerImpl(null);
+
+        int threads = 64;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<ContendedService>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return container.get(ContendedService.class);
+                }));
+            }
+            start.countDown();
+
+            ContendedService service = futures.get(0).get();
+            for (Future<ContendedService> future : futures)
+                assertSame(service, future.get());
+            assertEquals(1, ContendedService.CONSTRUCTED.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Service
+    static class HierarchyServiceA {
+        HierarchyServiceA(HierarchySingleton singleton) {
+        }
+    }
+
+    @Service(scope = ServiceScope.SINGLETON)
+    static class HierarchySingleton {
+        HierarchySingleton(HierarchyServiceA service) {
+        }
+    }
+
+    @Test
+    public void test_circular_dependency_across_container_hierarchy() {
+        ContainerRegistry root = new DefaultContainerImpl(null);
+        ContainerRegistry child = root.of("child");
+
+        // the cycle is reported at the first repeated service, even though the path crosses the root container
+        CircularDependencyException exception = assertThrows(
+            CircularDependencyException.class, () -> child.get(HierarchyServiceA.class)
+        );
+        assertTrue(exception.getMessage().contains(
+            HierarchyServiceA.class.getName() + " -> " + HierarchySingleton.class.getName() + " -> " +
+            HierarchyServiceA.class.getName()
+        ));
+    }
+
+    @Test
+    public void test_child_container_path_and_handle() throws Exception {
+        ContainerRegistry root = new DefaultContainerImpl(null);
+
+        // concurrent callers receive the same child container
+        int threads = 64;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<ContainerRegistry>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return root.of("world/nether");
+                }));
+            }
+            start.countDown();
+
+            ContainerRegistry nether = futures.get(0).get();
+            for (Future<ContainerRegistry> future : futures)
+                assertSame(nether, future.get());
+            assertSame(nether, root.of("world").of("nether"));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ContainerRegistry chunk = root.of("world/nether/chunk-12");
+        assertEquals("chunk-12", chunk.getName());
+        assertSame(chunk, root.of("world").of("nether/chunk-12"));
+
+        ContainerHandle handle = root.handle("world/nether/chunk-12");
+        assertSame(chunk, handle.get());
+        assertSame(chunk, handle.get());
+
+        assertThrows(IllegalArgumentException.class, () -> root.of("world//chunk"));
+    }
+
+    @Service
+    static class WarmLeafA {
+    }
+
+    @Service
+    static class WarmLeafB {
+    }
+
+    @Service(scope = ServiceScope.TRANSIENT)
+    static class WarmTransient {
+    }
+
+    @Service
+    static class WarmRoot {
+        final WarmLeafA a;
+
+        @Inject
+        WarmLeafB b;
+
+        WarmRoot(WarmLeafA a, WarmTransient transientService) {
+            this.a = a;
+        }
+    }
+
+    @Test
+    public void test_warm_up_services() {
+        ContainerRegistry container = new DefaultContainerImpl(null);
+        container.warmUp(WarmRoot.class);
+
+        // the root and its dependencies are cached, except the transient dependency
+        assertTrue(container.has(WarmRoot.class));
+        assertTrue(container.has(WarmLeafA.class));
+        assertTrue(container.has(WarmLeafB.class));
+        assertFalse(container.has(WarmTransient.class));
+
+        WarmRoot root = container.get(WarmRoot.class);
+        assertSame(container.get(WarmLeafA.class), root.a);
+        assertSame(container.get(WarmLeafB.class), root.b);
+
+        // all the multiple services are warmed up
+        container.insert(MyFirstMultipleService.class, MySecondMultipleService.class);
+        container.warmUpAll();
+        assertTrue(container.has(MyFirstMultipleService.class));
+        assertTrue(container.has(MySecondMultipleService.class));
+    }
+
+    @Service
+    static class AsyncService {
+        static final AtomicInteger CONSTRUCTED = new AtomicInteger();
+        static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+        AsyncService() throws InterruptedException {
+            CONSTRUCTED.incrementAndGet();
+            RELEASE.await();
+        }
+    }
+
+    @Service
+    static class AsyncSelfService {
+        static ContainerRegistry container;
+
+        AsyncSelfService() {
+            container.getAsync(AsyncSelfService.class).join();
+        }
+    }
+
+    @Test
+    public void test_get_async() {
+        ContainerRegistry container = new DefaultContainerImpl(null);
+
+        // the calling thread does not block on the creation, and concurrent callers share it
+        CompletableFuture<AsyncService> first = container.getAsync(AsyncService.class);
+        CompletableFuture<AsyncService> second = container.getAsync(AsyncService.class);
+        assertFalse(first.isDone());
+        AsyncService.RELEASE.countDown();
+
+        assertSame(first.join(), second.join());
+        assertSame(first.join(), container.get(AsyncService.class));
+        assertEquals(1, AsyncService.CONSTRUCTED.get());
+
+        // the resolution path follows the work, so the cycle is reported instead of a deadlock
+        AsyncSelfService.container = container;
+        Throwable error = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(
+            RuntimeException.class, () -> container.get(AsyncSelfService.class)
+        ));
+        while (error != null && !(error instanceof CircularDependencyException))
+            error = error.getCause();
+        assertNotNull(error);
+    }
+
+    static class AsyncConnectionFactory implements AsyncFactory<AsyncConnection, NoProperties> {
+        static final AtomicInteger CREATED = new AtomicInteger();
+        static final CompletableFuture<Void> CONNECTED = new CompletableFuture<>();
+
+        @Override
+        public @NotNull CompletableFuture<@NotNull AsyncConnection> createAsync(
+            @NotNull Service descriptor, @NotNull Class<? extends AsyncConnection> type, @NotNull Class<?> context,
+            @Nullable NoProperties properties
+        ) {
+            CREATED.incrementAndGet();
+            return CONNECTED.thenApply(ignored -> new AsyncConnection());
+        }
+    }
+
+    @Service(factory = AsyncConnectionFactory.class)
+    static class AsyncConnection {
+        @Inject
+        HandleDependency dependency;
+    }
+
+    @Test
+    public void test_async_factory() {
+        ContainerRegistry container = new DefaultContainerImpl(null);
+
+        // concurrent lookups share the pending creation of the factory
+        CompletableFuture<AsyncConnection> first = container.getAsync(AsyncConnection.class);
+        CompletableFuture<AsyncConnection> second = container.getAsync(AsyncConnection.class);
+        CompletableFuture<Boolean> injected = first.thenApply(connection -> connection.dependency != null);
+        assertFalse(first.isDone());
+        assertFalse(container.has(AsyncConnection.class));
+
+        AsyncConnectionFactory.CONNECTED.complete(null);
+        assertSame(first.join(), second.join());
+        assertTrue(injected.join());
+        assertSame(first.join(), container.get(AsyncConnection.class));
+        assertEquals(1, AsyncConnectionFactory.CREATED.get());
+    }
+
+    @Service
+    static class ParallelLeafA {
+        static final CyclicBarrier BARRIER = new CyclicBarrier(2);
+
+        ParallelLeafA() throws Exception {
+            // both of the leaves must be constructed at the same time to pass the barrier
+            BARRIER.await(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Service
+    static class ParallelLeafB {
+        @Inject(lazy = true)
+        ParallelRoot root;
+
+        ParallelLeafB() throws Exception {
+            ParallelLeafA.BARRIER.await(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Service
+    @ParallelResolution
+    static class ParallelRoot {
+        final ParallelLeafA a;
+        final ParallelLeafB b;
+
+        ParallelRoot(ParallelLeafA a, ParallelLeafB b) {
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    @Service
+    @ParallelResolution
+    static class ParallelCycleRoot {
+        ParallelCycleRoot(ParallelCycleLeaf leaf, ParallelCycleService service) {
+        }
+    }
+
+    @Service
+    static class ParallelCycleLeaf {
+    }
+
+    @Service
+    static class ParallelCycleService {
+        ParallelCycleService(ParallelCycleRoot root) {
+        }
+    }
+
+    @Test
+    public void test_parallel_resolution() {
+        ContainerRegistry container = new DefaultContainerImpl(null);
+        ParallelRoot root = container.get(ParallelRoot.class);
+
+        assertSame(container.get(ParallelLeafA.class), root.a);
+        assertSame(container.get(ParallelLeafB.class), root.b);
+        // the lazy field of the argument resolved by another thread is injected after the root is created
+        assertSame(root, root.b.root);
+
+        // circular dependencies are detected across the threads
+        assertThrows(CircularDependencyException.class, () -> container.get(ParallelCycleRoot.class));
+    }
+
+    @Service
+    static class RequestDependency {
+    }
+
+    @Service(scope = ServiceScope.TRANSIENT)
+    static class RequestService {
+        final RequestDependency dependency;
+
+        @Inject(lazy = true)
+        RequestDependency lazy;
+
+        RequestService(RequestDependency dependency) {
+            this.dependency = dependency;
+        }
+    }
+
+    @Test
+    public void test_resolution_on_short_lived_threads() throws Exception {
+        ContainerRegistry container = new DefaultContainerImpl(null);
+
+        // use a virtual thread for each request, if the runtime supports them
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            executor = Executors.newCachedThreadPool();
+        }
+
+        try {
+            List<Future<RequestService>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++)
+                futures.add(executor.submit(() -> container.get(RequestService.class)));
+
+            RequestDependency dependency = container.get(RequestDependency.class);
+            for (Future<RequestService> future : futures) {
+                RequestService service = future.get(10, TimeUnit.SECONDS);
+                assertSame(dependency, service.dependency);
+                assertSame(dependency, service.lazy);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test_virtual_threads_release_their_frames() throws Exception {
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            assumeTrue(false, "the runtime does not support virtual threads");
+            return;
+        }
+
+        DefaultContainerImpl container = new DefaultContainerImpl(null);
+        try {
+            List<Future<RequestService>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(executor.submit(() -> {
+                    container.resolveDependency(RequestDependency.class, ContainerTest.class, null, false);
+                    return container.getAsync(RequestService.class).get(10, TimeUnit.SECONDS);
+                }));
+            }
+            for (Future<RequestService> future : futures)
+                assertNotNull(future.get(10, TimeUnit.SECONDS).dependency);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // the frames of the virtual threads are unbound, once they are not resolving anything
+        Field bound = Class.forName("com.atlas.divine.impl.ResolutionFrame").getDeclaredField("BOUND");
+        bound.setAccessible(true);
+        assertTrue(((Map<?, ?>) bound.get(null)).isEmpty());
+    }
+
+    static final List<Class<?>> TERMINATED = Collections.synchronizedList(new ArrayList<>());
+
+    @Service
+    static class TerminationDatabase {
+        @BeforeTerminate
+        void terminate() {
+            TERMINATED.add(TerminationDatabase.class);
+        }
+    }
+
+    @Service
+    static class TerminationRepository {
+        TerminationRepository(TerminationDatabase database) {
+        }
+
+        @BeforeTerminate
+        void terminate() {
+            TERMINATED.add(TerminationRepository.class);
+        }
+    }
+
+    @Service
+    static class TerminationManager {
+        static ContainerRegistry container;
+
+        TerminationManager(TerminationRepository repository) {
+        }
+
+        @BeforeTerminate
+        void terminate() {
+            // the dependencies are still available, while the service is terminated
+            assertTrue(container.has(TerminationRepository.class));
+            TERMINATED.add(TerminationManager.class);
+        }
+    }
+
+    @Service
+    static class TerminationSlowService {
+        @BeforeTerminate
+        void terminate() throws InterruptedException {
+            Thread.sleep(10_000);
+        }
+    }
+
+    @Service
+    static class TerminationFailingService {
+        @BeforeTerminate
+        void terminate() {
+            throw new IllegalStateException("connection lost");
+        }
+    }
+
+    @Test
+    public void test_reset_terminates_in_dependency_order() {
+        DefaultContainerImpl container = new DefaultContainerImpl(null);
+        container.setTerminationTimeout(Duration.ofMillis(200));
+        TerminationManager.container = container;
+
+        container.get(TerminationManager.class);
+        container.get(TerminationSlowService.class);
+        container.get(TerminationFailingService.class);
+
+        // the failures are reported after every service has been terminated
+        ServiceTerminationException exception = assertThrows(ServiceTerminationException.class, container::reset);
+        assertEquals(2, exception.getFailures().size());
+        assertTrue(exception.getFailures().get(TerminationSlowService.class) instanceof TimeoutException);
+        assertNotNull(exception.getFailures().get(TerminationFailingService.class));
+
+        // the dependents are terminated before their dependencies
+        assertEquals(
+            Arrays.asList(TerminationManager.class, TerminationRepository.class, TerminationDatabase.class), TERMINATED
+        );
+        assertFalse(container.has(TerminationManager.class));
+        assertFalse(container.has(TerminationDatabase.class));
+    }
+
+    static final CountDownLatch STUCK_RELEASE = new CountDownLatch(1);
+
+    @Service
+    static class TerminationStuckDatabase {
+        static volatile boolean terminated;
+
+        @BeforeTerminate
+        void terminate() {
+            terminated = true;
+        }
+    }
+
+    @Service
+    static class TerminationStuckRepository {
+        TerminationStuckRepository(TerminationStuckDatabase database) {
+        }
+
+        @BeforeTerminate
+        void terminate() {
+            awaitIgnoringInterrupts(STUCK_RELEASE);
+        }
+    }
+
+    @Service
+    static class TerminationStuckManager {
+        TerminationStuckManager(TerminationStuckRepository repository) {
+        }
+
+        @BeforeTerminate
+        void terminate() {
+            awaitIgnoringInterrupts(STUCK_RELEASE);
+        }
+    }
+
+    static void awaitIgnoringInterrupts(CountDownLatch latch) {
+        while (latch.getCount() > 0) {
+            try {
+                latch.await();
+            } catch (InterruptedException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void test_reset_abandons_stuck_terminators() {
+        DefaultContainerImpl container = new DefaultContainerImpl(null);
+        container.setTerminationTimeout(Duration.ofMillis(100));
+        container.get(TerminationStuckManager.class);
+
+        try {
+            // the stuck terminators keep their threads, but the dependencies are still terminated on fresh threads
+            ServiceTerminationException exception = assertThrows(ServiceTerminationException.class, container::reset);
+            assertEquals(2, exception.getFailures().size());
+            assertTrue(exception.getFailures().get(TerminationStuckManager.class) instanceof TimeoutException);
+            assertTrue(exception.getFailures().get(TerminationStuckRepository.class) instanceof TimeoutException);
+            assertTrue(TerminationStuckDatabase.terminated);
+        } finally {
+            STUCK_RELEASE.countDown();
+        }
+    }
+
+    @Test
+    public void test_reset_reports_services_never_started() {
+        ContainerRegistry container = new DefaultContainerImpl(null);
+        container.get(TerminationStuckDatabase.class);
+
+        // the resetting thread is interrupted, therefore the termination is not started
+        Thread.currentThread().interrupt();
+        try {
+            ServiceTerminationException exception = assertThrows(ServiceTerminationException.class, container::reset);
+            Throwable failure = exception.getFailures().get(TerminationStuckDatabase.class);
+            assertTrue(failure instanceof CancellationException);
+            assertTrue(exception.getMessage().contains("never started"));
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+    }
 }